@@ -0,0 +1,99 @@
+package com.expenseTracker.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.entity.Categories;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.repository.ExpenseRollupRepository;
+import com.expenseTracker.repository.ExpensesRepositoryImpl;
+import com.expenseTracker.service.ExpenseRollupServiceImpl;
+
+/**
+ * The Java side of the month and category aggregation: folding grouped rows
+ * into buckets, and folding a bulk insert into rollup deltas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AggregationBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	private final Set<AggregateDimension> byCategory = EnumSet.of(AggregateDimension.CATEGORY);
+	//Rows as the GROUP BY returns them for a day grain: year, month, day, category, sum, count
+	private List<Object[]> dailyRows;
+	//Rows for a month grain: year, month, category, sum, count
+	private List<Object[]> monthlyRows;
+	private List<Expenses> expenses;
+	private ExpenseRollupServiceImpl rollupService;
+
+	@Setup
+	public void setup() {
+		dailyRows = new ArrayList<>(size);
+		monthlyRows = new ArrayList<>(size);
+		expenses = new ArrayList<>(size);
+		LocalDate start = LocalDate.of(2020, 1, 1);
+		for (int i = 0; i < size; i++) {
+			LocalDate day = start.plusDays(i / 12);
+			long categoryId = i % 12 + 1;
+			BigDecimal amount = BigDecimal.valueOf(1000 + i % 9000, 2);
+			dailyRows.add(new Object[] { day.getYear(), day.getMonthValue(), day.getDayOfMonth(), categoryId, amount,
+					1L });
+			LocalDate month = start.plusMonths(i / 12);
+			monthlyRows.add(new Object[] { month.getYear(), month.getMonthValue(), categoryId, amount, 3L });
+
+			Categories category = new Categories();
+			category.setId(categoryId);
+			Expenses expense = new Expenses();
+			expense.setUserid("bench-user");
+			expense.setCategory(category);
+			expense.setAmount(amount);
+			expense.setDate(LocalDateTime.of(2024, 1, 1, 9, 0).plusHours(i * 7L));
+			expense.setPaymentMethod(i % 3 == 0 ? "UPI" : "Card");
+			expenses.add(expense);
+		}
+
+		//Upserts are the database's cost, stub them so only the folding is measured
+		ExpenseRollupRepository rollupRepo = (ExpenseRollupRepository) Proxy.newProxyInstance(
+				ExpenseRollupRepository.class.getClassLoader(), new Class<?>[] { ExpenseRollupRepository.class },
+				(proxy, method, args) -> method.getReturnType() == int.class ? 1 : null);
+		rollupService = new ExpenseRollupServiceImpl(rollupRepo, null, null, 1, false);
+	}
+
+	@Benchmark
+	public List<ExpenseAggregate> foldMonthByCategory() {
+		return ExpensesRepositoryImpl.fold(monthlyRows, TimeBucket.MONTH, byCategory);
+	}
+
+	@Benchmark
+	public List<ExpenseAggregate> foldWeekByCategory() {
+		return ExpensesRepositoryImpl.fold(dailyRows, TimeBucket.WEEK, byCategory);
+	}
+
+	@Benchmark
+	public List<Expenses> rollupDeltas() {
+		rollupService.applyAll(expenses);
+		return expenses;
+	}
+}
@@ -0,0 +1,75 @@
+package com.expenseTracker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.expenseTracker.security.JwtAuthFilter;
+import com.expenseTracker.security.UserPrincipalCache;
+import com.expenseTracker.service.JwtService;
+import com.expenseTracker.service.StreamTicketService;
+import com.expenseTracker.service.UserLoginImpl;
+
+import jakarta.servlet.FilterChain;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthFilterBenchmark {
+
+	private JwtAuthFilter filter;
+	private MockHttpServletRequest authenticated;
+	private MockHttpServletRequest anonymous;
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+	private final FilterChain chain = (req, res) -> {
+	};
+
+	@Setup
+	public void setup() {
+		JwtService jwtService = new JwtService(JwtBenchmark.SECRET, 3_600_000, 10_000, 300);
+		//Stands in for the repository lookup so only the filter's own work is measured
+		UserLoginImpl users = new UserLoginImpl(null) {
+			@Override
+			public UserDetails loadUserByUsername(String userid) {
+				return User.withUsername(userid).password("x").authorities("USER").build();
+			}
+		};
+		filter = new JwtAuthFilter(jwtService, new UserPrincipalCache(users, 10_000, 60),
+				new StreamTicketService(30, 10_000));
+
+		authenticated = new MockHttpServletRequest("GET", "/expenses/getCurrentExpenses/bench-user");
+		authenticated.addHeader("Authorization", "Bearer " + jwtService.generateToken("bench-user"));
+		anonymous = new MockHttpServletRequest("GET", "/auth/login");
+	}
+
+	@Benchmark
+	public Authentication authenticatedRequest() throws Exception {
+		return run(authenticated);
+	}
+
+	@Benchmark
+	public Authentication anonymousRequest() throws Exception {
+		return run(anonymous);
+	}
+
+	private Authentication run(MockHttpServletRequest request) throws Exception {
+		try {
+			filter.doFilter(request, response, chain);
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
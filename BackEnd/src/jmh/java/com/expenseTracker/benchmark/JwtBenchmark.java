@@ -0,0 +1,48 @@
+package com.expenseTracker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.expenseTracker.service.JwtService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+	static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+	private JwtService jwtService;
+	//Verified token cache disabled, every call pays for the signature check
+	private JwtService uncachedJwtService;
+	private String token;
+
+	@Setup
+	public void setup() {
+		jwtService = new JwtService(SECRET, 3_600_000, 10_000, 300);
+		uncachedJwtService = new JwtService(SECRET, 3_600_000, 0, 300);
+		token = jwtService.generateToken("bench-user");
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtService.generateToken("bench-user");
+	}
+
+	@Benchmark
+	public String extractUsernameCached() {
+		return jwtService.extractUsername(token);
+	}
+
+	@Benchmark
+	public String extractUsernameVerified() {
+		return uncachedJwtService.extractUsername(token);
+	}
+}
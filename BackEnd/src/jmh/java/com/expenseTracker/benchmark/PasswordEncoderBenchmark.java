@@ -0,0 +1,42 @@
+package com.expenseTracker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.expenseTracker.config.SecurityConfig;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+	private static final String PASSWORD = "correct horse battery staple";
+
+	private BCryptPasswordEncoder encoder;
+	private String hash;
+
+	@Setup
+	public void setup() {
+		//The application's cost, so the benchmark follows any change to it
+		encoder = new BCryptPasswordEncoder(SecurityConfig.BCRYPT_STRENGTH);
+		hash = encoder.encode(PASSWORD);
+	}
+
+	@Benchmark
+	public String encode() {
+		return encoder.encode(PASSWORD);
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return encoder.matches(PASSWORD, hash);
+	}
+}
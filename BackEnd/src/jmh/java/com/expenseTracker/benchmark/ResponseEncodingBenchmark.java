@@ -0,0 +1,79 @@
+package com.expenseTracker.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.dto.NormalizedExpenses;
+import com.expenseTracker.resources.ResponseModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Cost and size of an expense list response per encoding and shape. The
+ * payload size of each combination is printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseEncodingBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	@Param({ "json", "smile", "cbor" })
+	public String encoding;
+
+	@Param({ "nested", "normalized" })
+	public String shape;
+
+	private ObjectMapper mapper;
+	private List<ExpenseView> expenses;
+
+	@Setup
+	public void setup() throws Exception {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		if ("smile".equals(encoding)) {
+			builder.factory(new SmileFactory());
+		} else if ("cbor".equals(encoding)) {
+			builder.factory(new CBORFactory());
+		}
+		mapper = builder.build();
+
+		expenses = new ArrayList<>(size);
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 30);
+		Timestamp created = Timestamp.valueOf(start);
+		for (int i = 0; i < size; i++) {
+			long category = 1 + i % 12;
+			expenses.add(new ExpenseView((long) i, "bench-user", category, "Category " + category, "#3366cc",
+					(int) category, "bench-user", BigDecimal.valueOf(1000 + i % 9000, 2), "INR", start.plusHours(i),
+					i % 3 == 0 ? "UPI" : "Card", "Expense " + i, created, created, false));
+		}
+		System.out.printf("%n%s %s %d rows: %d bytes%n", encoding, shape, size, serialize().length);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		//The normalized copy is built per request by NormalizedShapeAdvice, so it is timed too
+		ResponseModel response = new ResponseModel();
+		response.setData("normalized".equals(shape) ? NormalizedExpenses.of(expenses) : expenses);
+		return mapper.writeValueAsBytes(response);
+	}
+}
@@ -0,0 +1,79 @@
+package com.expenseTracker.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.expenseTracker.entity.Categories;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.resources.ResponseModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseSerializationBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	private ObjectMapper mapper;
+	private ResponseModel response;
+
+	@Setup
+	public void setup() {
+		//Same settings Spring Boot applies to the MVC message converter
+		mapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+
+		List<Categories> categories = new ArrayList<>();
+		for (long i = 1; i <= 12; i++) {
+			Categories category = new Categories();
+			category.setId(i);
+			category.setName("Category " + i);
+			category.setColorCode("#3366cc");
+			category.setCategoryIcon((int) i);
+			category.setUserid("bench-user");
+			category.setBudget(BigDecimal.valueOf(500));
+			categories.add(category);
+		}
+
+		List<Expenses> expenses = new ArrayList<>(size);
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 30);
+		for (int i = 0; i < size; i++) {
+			Expenses expense = new Expenses();
+			expense.setId((long) i);
+			expense.setUserid("bench-user");
+			expense.setCategory(categories.get(i % categories.size()));
+			expense.setAmount(BigDecimal.valueOf(1000 + i % 9000, 2));
+			expense.setCurrency("INR");
+			expense.setDate(start.plusHours(i));
+			expense.setPaymentMethod(i % 3 == 0 ? "UPI" : "Card");
+			expense.setNotes("Expense " + i);
+			expense.setIsRecurring(false);
+			expenses.add(expense);
+		}
+
+		response = new ResponseModel();
+		response.setData(expenses);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		return mapper.writeValueAsBytes(response);
+	}
+}
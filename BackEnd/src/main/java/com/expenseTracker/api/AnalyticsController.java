@@ -0,0 +1,42 @@
+package com.expenseTracker.api;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.AnalyticsServiceImpl;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+	private final AnalyticsServiceImpl aService;
+
+	public AnalyticsController(AnalyticsServiceImpl aService) {
+		this.aService = aService;
+	}
+
+	@ConditionalGet
+	@GetMapping("/getAggregates/{userId}")
+	public ResponseModel getAggregates(@PathVariable String userId,
+			@RequestParam(required = false) String bucket,
+			@RequestParam(required = false) List<String> groupBy,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.aService.getAggregates(userId, bucket, groupBy, startDate, endDate);
+		} catch (Exception e) {
+			response.setData(null);
+			response.setErrors("Error while getting getAggregates: " + e.getMessage());
+		}
+		return response;
+	}
+}
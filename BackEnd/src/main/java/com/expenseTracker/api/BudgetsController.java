@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ChangeEvent;
 import com.expenseTracker.entity.Budgets;
 import com.expenseTracker.repository.BudgetsRepository;
 import com.expenseTracker.resources.ResponseModel;
@@ -21,14 +23,17 @@ public class BudgetsController {
 
 	private BudgetsServiceImpl bService;
 	private BudgetsRepository bRepo;
+	private UserDataVersions versions;
 	
-	public BudgetsController(BudgetsServiceImpl bService, BudgetsRepository bRepo) {
+	public BudgetsController(BudgetsServiceImpl bService, BudgetsRepository bRepo, UserDataVersions versions) {
 		this.bRepo = bRepo;
 		this.bService = bService;
+		this.versions = versions;
 	}
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(BudgetsController.class);
 	
+	@ConditionalGet
 	@GetMapping("/getBudgets/{userId}")
 	public ResponseModel getBudgets(@PathVariable String userId) {
 		ResponseModel response = new ResponseModel();
@@ -40,12 +45,39 @@ public class BudgetsController {
 		return response;
 	}
 	
+	@ConditionalGet
+	@GetMapping("/getBudgetHistory/{userId}/{duration}")
+	public ResponseModel getBudgetHistory(@PathVariable String userId, @PathVariable Integer duration) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.bService.getBudgetHistory(userId, duration);
+		} catch (Exception e) {
+			response.setData(null);
+			response.setErrors("Error while getting getBudgetHistory: " + e.getMessage());
+		}
+		return response;
+	}
+	
+	@ConditionalGet
+	@GetMapping("/getBudgetVsActual/{userId}/{duration}")
+	public ResponseModel getBudgetVsActual(@PathVariable String userId, @PathVariable Integer duration) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.bService.getBudgetVsActual(userId, duration);
+		} catch (Exception e) {
+			response.setData(null);
+			response.setErrors("Error while getting getBudgetVsActual: " + e.getMessage());
+		}
+		return response;
+	}
+	
 	@PostMapping("/addBudget")
 	public ResponseModel addBudget(@RequestBody Budgets budgets) {
 		LOGGER.info(budgets.toString());
 		ResponseModel response = new ResponseModel();
 		try {
 			bRepo.save(budgets);
+			versions.bump(budgets.getUserid(), ChangeEvent.Type.BUDGET, budgets.getId(), ChangeEvent.Operation.CREATED);
 
 			response.setData("Budget Added successfully");
 			response.setErrors(null);
@@ -62,12 +94,15 @@ public class BudgetsController {
 		try {
 			bRepo.save(budgets);
 			bRepo.flush();
+			versions.bump(budgets.getUserid(), ChangeEvent.Type.BUDGET, budgets.getId(), ChangeEvent.Operation.UPDATED);
 			
 			response.setData("Budget Updated successfully");
 			response.setErrors(null);
 		}
 		catch (DataIntegrityViolationException e) {
-			if (e.getMostSpecificCause().getMessage().contains("idx_budgets_user_category_month")) {
+			//idx_budgets_user_category_month is the unique key's name before the month_key migration
+			String cause = e.getMostSpecificCause().getMessage();
+			if (cause.contains("idx_budgets_user_month_category") || cause.contains("idx_budgets_user_category_month")) {
 				response.setErrors("Cannot have multiple budgets for same category");
 			}
 		}
@@ -10,7 +10,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.expenseTracker.entity.Budgets;
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ChangeEvent;
 import com.expenseTracker.entity.Categories;
 import com.expenseTracker.repository.CategoryRepository;
 import com.expenseTracker.resources.ResponseModel;
@@ -22,14 +23,17 @@ public class CategoryController {
 	
 	private CategoryServiceImpl cService;
 	private CategoryRepository cRepo;
+	private UserDataVersions versions;
 	
-	public CategoryController(CategoryServiceImpl cService, CategoryRepository cRepo) {
+	public CategoryController(CategoryServiceImpl cService, CategoryRepository cRepo, UserDataVersions versions) {
 		this.cService = cService;
 		this.cRepo = cRepo;
+		this.versions = versions;
 	}
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(CategoryController.class);
 	
+	@ConditionalGet
 	@GetMapping("/getCategories/{userId}")
 	public ResponseModel getCategories(@PathVariable String userId) {
 		ResponseModel response = new ResponseModel();
@@ -47,6 +51,7 @@ public class CategoryController {
 		ResponseModel response = new ResponseModel();
 		try {
 			cRepo.save(categories);
+			versions.bump(categories.getUserid(), ChangeEvent.Type.CATEGORY, categories.getId(), ChangeEvent.Operation.CREATED);
 
 			response.setData("Category Added successfully");
 			response.setErrors(null);
@@ -62,6 +67,7 @@ public class CategoryController {
 		ResponseModel response = new ResponseModel();
 		try {
 			cRepo.save(categories);
+			versions.bump(categories.getUserid(), ChangeEvent.Type.CATEGORY, categories.getId(), ChangeEvent.Operation.UPDATED);
 
 			response.setData("Category Updated successfully");
 			response.setErrors(null);
@@ -75,7 +81,9 @@ public class CategoryController {
 	public ResponseModel deleteCategory(@PathVariable Long id) {
 		ResponseModel response = new ResponseModel();
 		try {
+			String owner = cRepo.findById(id).map(Categories::getUserid).orElse(null);
 			cRepo.deleteById(id);
+			versions.bump(owner, ChangeEvent.Type.CATEGORY, id, ChangeEvent.Operation.DELETED);
 			response.setData("Expense Deleted successfully");
 			response.setErrors(null);
 		} catch (Exception e) {
@@ -0,0 +1,52 @@
+package com.expenseTracker.api;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.ChangeEventServiceImpl;
+import com.expenseTracker.service.StreamTicketService;
+
+@RestController
+@RequestMapping("/events")
+public class ChangeEventController {
+
+	private final ChangeEventServiceImpl ceService;
+	private final StreamTicketService ticketService;
+
+	public ChangeEventController(ChangeEventServiceImpl ceService, StreamTicketService ticketService) {
+		this.ceService = ceService;
+		this.ticketService = ticketService;
+	}
+
+	//The stream belongs to the user of the token, there is no userId to pass
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribe(Principal principal,
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+		return this.ceService.subscribe(principal.getName(), lastEventId);
+	}
+
+	//For clients that cannot set headers on the stream: GET /events?ticket=... with a fresh ticket
+	@PostMapping("/ticket")
+	public ResponseModel issueTicket(Principal principal) {
+		ResponseModel response = new ResponseModel();
+		try {
+			Map<String, Object> ticket = new LinkedHashMap<>();
+			ticket.put("ticket", this.ticketService.issue(principal.getName()));
+			ticket.put("expiresInSeconds", this.ticketService.getTtlSeconds());
+			response.setData(ticket);
+		} catch (Exception e) {
+			response.setErrors("Error while issuing event stream ticket: " + e.getMessage());
+		}
+		return response;
+	}
+}
@@ -0,0 +1,17 @@
+package com.expenseTracker.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read endpoint whose response depends only on the userId it is
+ * called with (path variable or request parameter), the request URL and the
+ * date. Such endpoints get an ETag from the user's data version and answer a
+ * matching If-None-Match with 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+}
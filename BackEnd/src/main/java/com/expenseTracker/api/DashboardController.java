@@ -0,0 +1,37 @@
+package com.expenseTracker.api;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.DashboardServiceImpl;
+
+@RestController
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+	private static final int MAX_RECENT = 50;
+
+	private final DashboardServiceImpl dService;
+
+	public DashboardController(DashboardServiceImpl dService) {
+		this.dService = dService;
+	}
+
+	@ConditionalGet
+	@GetMapping("/{userId}")
+	public ResponseModel getDashboard(@PathVariable String userId,
+			@RequestParam(defaultValue = "10") int recent) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.dService.getDashboard(userId, Math.max(1, Math.min(recent, MAX_RECENT)));
+		} catch (Exception e) {
+			response.setData(null);
+			response.setErrors("Error while getting dashboard: " + e.getMessage());
+		}
+		return response;
+	}
+}
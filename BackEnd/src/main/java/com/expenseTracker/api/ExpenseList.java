@@ -0,0 +1,16 @@
+package com.expenseTracker.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint whose data is a list of expense views. With
+ * shape=normalized the list, empty or not, is sent as a
+ * {@link com.expenseTracker.dto.NormalizedExpenses}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpenseList {
+}
@@ -1,21 +1,32 @@
 package com.expenseTracker.api;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.expenseTracker.dto.BulkRowResult;
+import com.expenseTracker.dto.ExpenseSearch;
+import com.expenseTracker.dto.ExpenseView;
 import com.expenseTracker.entity.Expenses;
-import com.expenseTracker.repository.ExpensesRepository;
 import com.expenseTracker.resources.Paging;
 import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.ExpenseExportServiceImpl;
 import com.expenseTracker.service.ExpensesServiceImpl;
+import com.expenseTracker.service.NotesSearchServiceImpl;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,11 +36,14 @@ import org.springframework.data.domain.Pageable;
 public class ExpensesController {
 	
 	private final ExpensesServiceImpl eService;
-	private final ExpensesRepository eRepo;
+	private final ExpenseExportServiceImpl exportService;
+	private final NotesSearchServiceImpl notesService;
 	
-	public ExpensesController(ExpensesServiceImpl eService, ExpensesRepository eRepo) {
+	public ExpensesController(ExpensesServiceImpl eService, ExpenseExportServiceImpl exportService,
+			NotesSearchServiceImpl notesService) {
 		this.eService = eService;
-		this.eRepo = eRepo;
+		this.exportService = exportService;
+		this.notesService = notesService;
 	}
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(ExpensesController.class);
@@ -39,7 +53,7 @@ public class ExpensesController {
 		LOGGER.info(expenses.toString());
 		ResponseModel response = new ResponseModel();
 		try {
-			eRepo.save(expenses);
+			eService.addExpense(expenses);
 
 			response.setData("Expense Added successfully");
 			response.setErrors(null);
@@ -49,11 +63,38 @@ public class ExpensesController {
 		return response;
 	}
     
+	@PostMapping("/addExpensesBulk")
+	public ResponseModel addExpensesBulk(@RequestBody List<Expenses> expenses) {
+		LOGGER.info("Bulk adding " + expenses.size() + " expenses");
+		ResponseModel response = new ResponseModel();
+		try {
+			List<BulkRowResult> results = eService.addExpensesBulk(expenses);
+			long added = results.stream().filter(result -> result.getError() == null).count();
+			
+			response.setData(results);
+			response.setInformations(added + " of " + results.size() + " expenses added");
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while adding expenses: " + e.getMessage());
+		}
+		return response;
+	}
+    
+	@ConditionalGet
+	@ExpenseList
 	@GetMapping("/getAllExpenses")
-	public ResponseModel getAllExpenses(@RequestParam String userId, Pageable pageable) {
+	public ResponseModel getAllExpenses(@RequestParam String userId, Pageable pageable,
+			@RequestParam(defaultValue = "offset") String mode,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "next") String direction,
+			@RequestParam(defaultValue = "true") boolean includeTotal) {
 		ResponseModel response = new ResponseModel();
 		try {
-			Page<Expenses> page = this.eService.getAllExpenses(userId, pageable);
+			if ("cursor".equalsIgnoreCase(mode) || cursor != null) {
+				return this.eService.getExpensesByCursor(userId, cursor, "prev".equalsIgnoreCase(direction),
+						pageable.getPageSize(), includeTotal);
+			}
+			Page<ExpenseView> page = this.eService.getAllExpenses(userId, pageable);
 			
 			Paging paging = new Paging();
 			paging.setPage(page.getNumber());
@@ -69,6 +110,41 @@ public class ExpensesController {
 		return response;
 	}
 	
+	@ConditionalGet
+	@ExpenseList
+	@GetMapping("/search")
+	public ResponseModel searchExpenses(@RequestParam String userId, @ModelAttribute ExpenseSearch search,
+			Pageable pageable,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "next") String direction,
+			@RequestParam(defaultValue = "false") boolean includeTotal) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.eService.searchExpenses(userId, search, cursor, "prev".equalsIgnoreCase(direction),
+					pageable.getPageSize(), includeTotal);
+		} catch (Exception e) {
+			response.setErrors("Error while getting searchExpenses: " + e.getMessage());
+		}
+		return response;
+	}
+	
+	@ConditionalGet
+	@ExpenseList
+	@GetMapping("/searchNotes")
+	public ResponseModel searchNotes(@RequestParam String userId, @RequestParam String q,
+			@ModelAttribute ExpenseSearch search, Pageable pageable) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.notesService.searchNotes(userId, q, search, pageable.getPageNumber(),
+					pageable.getPageSize());
+		} catch (Exception e) {
+			response.setErrors("Error while getting searchNotes: " + e.getMessage());
+		}
+		return response;
+	}
+	
+	@ConditionalGet
+	@ExpenseList
 	@GetMapping("/getSixMonthsExpenses/{userId}")
 	public ResponseModel getSixMonthsExpenses(@PathVariable String userId) {
 		ResponseModel response = new ResponseModel();
@@ -82,6 +158,8 @@ public class ExpensesController {
 		return response;
 	}
 	
+	@ConditionalGet
+	@ExpenseList
 	@GetMapping("/getCustomExpenses/{userId}/{duration}")
 	public ResponseModel getCustomExpenses(@PathVariable String userId, @PathVariable Integer duration) {
 		ResponseModel response = new ResponseModel();
@@ -95,6 +173,8 @@ public class ExpensesController {
 		return response;
 	}
 	
+	@ConditionalGet
+	@ExpenseList
 	@GetMapping("/getCurrentExpenses/{userId}")
 	public ResponseModel getCurrentExpenses(@PathVariable String userId) {
 		ResponseModel response = new ResponseModel();
@@ -108,12 +188,54 @@ public class ExpensesController {
 		return response;
 	}
 	
+	@ConditionalGet
+	@GetMapping("/getCurrentTotals/{userId}")
+	public ResponseModel getCurrentTotals(@PathVariable String userId) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.eService.getCurrentTotals(userId);
+			
+		} catch (Exception e) {
+			response.setData(null);
+			response.setErrors("Error while getting getCurrentTotals: " + e.getMessage());
+		}
+		return response;
+	}
+	
+	@ConditionalGet
+	@GetMapping("/getMonthlyTrend/{userId}/{duration}")
+	public ResponseModel getMonthlyTrend(@PathVariable String userId, @PathVariable Integer duration) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.eService.getMonthlyTrend(userId, duration);
+			
+		} catch (Exception e) {
+			response.setData(null);
+			response.setErrors("Error while getting getMonthlyTrend: " + e.getMessage());
+		}
+		return response;
+	}
+	
+	@GetMapping("/export/{userId}")
+	public ResponseEntity<StreamingResponseBody> exportExpenses(@PathVariable String userId,
+			@RequestParam(defaultValue = ExpenseExportServiceImpl.CSV) String format,
+			@RequestParam(defaultValue = "false") boolean gzip) {
+		boolean ndjson = ExpenseExportServiceImpl.NDJSON.equalsIgnoreCase(format);
+		String fileName = "expenses-" + userId + (ndjson ? ".ndjson" : ".csv") + (gzip ? ".gz" : "");
+		MediaType type = gzip ? MediaType.parseMediaType("application/gzip")
+				: ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv");
+		return ResponseEntity.ok()
+				.contentType(type)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(exportService.export(userId, format, gzip));
+	}
+	
 	@PostMapping("/updateExpense")
 	public ResponseModel updateExpense(@RequestBody Expenses expenses) {
 		LOGGER.info(expenses.toString());
 		ResponseModel response = new ResponseModel();
 		try {
-			eRepo.save(expenses);
+			eService.updateExpense(expenses);
 
 			response.setData("Expense Updated successfully");
 			response.setErrors(null);
@@ -127,7 +249,7 @@ public class ExpensesController {
 	public ResponseModel deleteExpense(@PathVariable Long id) {
 		ResponseModel response = new ResponseModel();
 		try {
-			eRepo.deleteById(id);
+			eService.deleteExpense(id);
 			response.setData("Expense Deleted successfully");
 			response.setErrors(null);
 		} catch (Exception e) {
@@ -0,0 +1,28 @@
+package com.expenseTracker.api;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.PerfServiceImpl;
+
+@RestController
+public class PerfController {
+
+	private final PerfServiceImpl perfService;
+
+	public PerfController(PerfServiceImpl perfService) {
+		this.perfService = perfService;
+	}
+
+	@GetMapping("/perf")
+	public ResponseModel getPerf() {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.perfService.getSummary();
+		} catch (Exception e) {
+			response.setErrors("Error while getting perf summary: " + e.getMessage());
+		}
+		return response;
+	}
+}
@@ -0,0 +1,79 @@
+package com.expenseTracker.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenseTracker.entity.RecurringExpenses;
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.RecurringExpensesServiceImpl;
+
+@RestController
+@RequestMapping("/recurring")
+public class RecurringExpensesController {
+
+	private RecurringExpensesServiceImpl rService;
+
+	public RecurringExpensesController(RecurringExpensesServiceImpl rService) {
+		this.rService = rService;
+	}
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecurringExpensesController.class);
+
+	@ConditionalGet
+	@GetMapping("/getRecurring/{userId}")
+	public ResponseModel getRecurring(@PathVariable String userId) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.rService.getRecurring(userId);
+		} catch (Exception e) {
+			response.setErrors("Error while getting recurring expenses: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@PostMapping("/addRecurring")
+	public ResponseModel addRecurring(@RequestBody RecurringExpenses rule) {
+		LOGGER.info(rule.toString());
+		ResponseModel response = new ResponseModel();
+		try {
+			response.setData(this.rService.addRecurring(rule));
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while adding recurring expense: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@PostMapping("/updateRecurring")
+	public ResponseModel updateRecurring(@RequestBody RecurringExpenses rule) {
+		LOGGER.info(rule.toString());
+		ResponseModel response = new ResponseModel();
+		try {
+			response.setData(this.rService.updateRecurring(rule));
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while updating recurring expense: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@DeleteMapping("/deleteRecurring/{id}")
+	public ResponseModel deleteRecurring(@PathVariable Long id) {
+		ResponseModel response = new ResponseModel();
+		try {
+			this.rService.deleteRecurring(id);
+			response.setData("Recurring expense deleted successfully");
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while deleting recurring expense: " + e.getMessage());
+		}
+		return response;
+	}
+}
@@ -0,0 +1,123 @@
+package com.expenseTracker.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.expenseTracker.dto.TagAssignment;
+import com.expenseTracker.entity.Tags;
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.service.TagsServiceImpl;
+
+@RestController
+@RequestMapping("/tags")
+public class TagsController {
+
+	private TagsServiceImpl tService;
+
+	public TagsController(TagsServiceImpl tService) {
+		this.tService = tService;
+	}
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TagsController.class);
+
+	@ConditionalGet
+	@GetMapping("/getTags/{userId}")
+	public ResponseModel getTags(@PathVariable String userId) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.tService.getTags(userId);
+		} catch (Exception e) {
+			response.setErrors("Error while getting tags: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@PostMapping("/addTag")
+	public ResponseModel addTag(@RequestBody Tags tag) {
+		LOGGER.info(tag.toString());
+		ResponseModel response = new ResponseModel();
+		try {
+			response.setData(this.tService.addTag(tag));
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while adding tag: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@PostMapping("/updateTag")
+	public ResponseModel updateTag(@RequestBody Tags tag) {
+		LOGGER.info(tag.toString());
+		ResponseModel response = new ResponseModel();
+		try {
+			response.setData(this.tService.updateTag(tag));
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while updating tag: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@DeleteMapping("/deleteTag/{id}")
+	public ResponseModel deleteTag(@PathVariable Long id) {
+		ResponseModel response = new ResponseModel();
+		try {
+			this.tService.deleteTag(id);
+			response.setData("Tag deleted successfully");
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while deleting tag: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@PostMapping("/attach")
+	public ResponseModel attach(@RequestBody TagAssignment assignment) {
+		LOGGER.info(assignment.toString());
+		ResponseModel response = new ResponseModel();
+		try {
+			this.tService.attach(assignment);
+			response.setData("Tags attached successfully");
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while attaching tags: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@PostMapping("/detach")
+	public ResponseModel detach(@RequestBody TagAssignment assignment) {
+		LOGGER.info(assignment.toString());
+		ResponseModel response = new ResponseModel();
+		try {
+			this.tService.detach(assignment);
+			response.setData("Tags detached successfully");
+			response.setErrors(null);
+		} catch (Exception e) {
+			response.setErrors("Error while detaching tags: " + e.getMessage());
+		}
+		return response;
+	}
+
+	@ConditionalGet
+	@ExpenseList
+	@GetMapping("/getExpenses")
+	public ResponseModel getExpenses(@RequestParam String userId, @RequestParam String q, Pageable pageable) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response = this.tService.getExpensesByTags(userId, q, pageable.getPageNumber(), pageable.getPageSize());
+		} catch (Exception e) {
+			response.setErrors("Error while getting expenses by tags: " + e.getMessage());
+		}
+		return response;
+	}
+}
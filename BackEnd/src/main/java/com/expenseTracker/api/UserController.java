@@ -1,6 +1,7 @@
 package com.expenseTracker.api;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,7 @@ import com.expenseTracker.dto.RegisterRequest;
 import com.expenseTracker.entity.User;
 import com.expenseTracker.repository.UserRepository;
 import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.security.UserPrincipalCache;
 import com.expenseTracker.service.JwtService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,15 +29,21 @@ public class UserController {
     private final UserRepository repo;
     private final PasswordEncoder encoder;
     private final JwtService jwtService;
+    private final UserPrincipalCache principalCache;
+    private final String adminRole;
 
     public UserController(AuthenticationManager authManager,
                           UserRepository repo,
                           PasswordEncoder encoder,
-                          JwtService jwtService) {
+                          JwtService jwtService,
+                          UserPrincipalCache principalCache,
+                          @Value("${security.admin-role:ADMIN}") String adminRole) {
         this.authManager = authManager;
         this.repo = repo;
         this.encoder = encoder;
         this.jwtService = jwtService;
+        this.principalCache = principalCache;
+        this.adminRole = adminRole;
     }
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserController.class);
@@ -50,6 +58,11 @@ public class UserController {
     		    response.setErrors("User ID already taken");
     		    return response;
     		}
+    		//Admins are granted in the database, never through sign up
+    		if (adminRole.equalsIgnoreCase(req.getRole())) {
+    		    response.setErrors("Role not allowed");
+    		    return response;
+    		}
 
     		
     		LOGGER.info("Registering user");
@@ -128,6 +141,7 @@ public class UserController {
             
             user.setPassword(encoder.encode(req.getNewPassword()));
             repo.save(user);
+            principalCache.invalidate(user.getUserid());
 
             response.setData("Password reset successful");
             response.setErrors(null);
@@ -169,6 +183,7 @@ public class UserController {
     		}
 
     		repo.save(u);
+    		principalCache.invalidate(u.getUserid());
     		response.setData("User updated successfully");
     		response.setErrors(null);
     		LOGGER.info("Updating successful for user " + req.getUsername());
@@ -0,0 +1,151 @@
+package com.expenseTracker.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small concurrent cache with a size bound and a time to live per entry.
+ * When full, the oldest inserted entries are evicted first.
+ */
+public class BoundedTtlCache<K, V> {
+
+	private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+	private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+	private final int maxSize;
+	private final long ttlNanos;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public BoundedTtlCache(int maxSize, long ttlMillis) {
+		this.maxSize = maxSize;
+		this.ttlNanos = ttlMillis * 1_000_000L;
+	}
+
+	public V get(K key) {
+		Entry<K, V> entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.isExpired(System.nanoTime())) {
+			if (entries.remove(key, entry)) {
+				evictions.increment();
+			}
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.value;
+	}
+
+	public V get(K key, Function<K, V> loader) {
+		V value = get(key);
+		if (value == null) {
+			value = loader.apply(key);
+			if (value != null) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+
+	public void put(K key, V value) {
+		insert(key, value, System.nanoTime() + ttlNanos);
+	}
+
+	//Entry expires at the earlier of the cache TTL and the given wall clock time
+	public void put(K key, V value, long expiresAtMillis) {
+		long remainingNanos = (expiresAtMillis - System.currentTimeMillis()) * 1_000_000L;
+		if (remainingNanos <= 0) {
+			return;
+		}
+		insert(key, value, System.nanoTime() + Math.min(ttlNanos, remainingNanos));
+	}
+
+	private void insert(K key, V value, long deadlineNanos) {
+		Entry<K, V> entry = new Entry<>(key, value, deadlineNanos);
+		entries.put(key, entry);
+		insertionOrder.add(entry);
+		while (entries.size() > maxSize) {
+			Entry<K, V> oldest = insertionOrder.poll();
+			if (oldest == null) {
+				break;
+			}
+			if (entries.remove(oldest.key, oldest)) {
+				evictions.increment();
+			}
+		}
+		//Replaced and invalidated entries stay queued until polled, keep the queue from growing past twice the bound
+		if (insertionOrder.size() > maxSize * 2) {
+			insertionOrder.removeIf(queued -> entries.get(queued.key) != queued);
+		}
+	}
+
+	//Removes and returns the entry, so of concurrent callers only one gets it
+	public V take(K key) {
+		Entry<K, V> entry = entries.remove(key);
+		if (entry == null || entry.isExpired(System.nanoTime())) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.value;
+	}
+
+	public void invalidate(K key) {
+		entries.remove(key);
+	}
+
+	public void invalidateAll() {
+		entries.clear();
+		insertionOrder.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", size());
+		stats.put("hits", getHits());
+		stats.put("misses", getMisses());
+		stats.put("evictions", getEvictions());
+		return stats;
+	}
+
+	private static final class Entry<K, V> {
+		private final K key;
+		private final V value;
+		private final long deadlineNanos;
+
+		private Entry(K key, V value, long deadlineNanos) {
+			this.key = key;
+			this.value = value;
+			this.deadlineNanos = deadlineNanos;
+		}
+
+		private boolean isExpired(long now) {
+			return now - deadlineNanos >= 0;
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package com.expenseTracker.cache;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.TimeBucket;
+
+/**
+ * One user's expenses as parallel primitive columns, ordered by day: epoch
+ * day, amount in minor units (hundredths), and dictionary indexes for
+ * category, payment method and currency. Aggregates over a date range are
+ * one binary search and a loop over the arrays, with the running sums kept
+ * in dense arrays indexed by the dictionary codes.
+ *
+ * Not thread safe except for {@link #markStale}; callers lock the instance.
+ * Committed writes mark their id stale, and the next reader replaces those
+ * rows with what the database holds now.
+ */
+public class ExpenseColumns {
+
+	//Bytes per row across the six columns
+	public static final int ROW_BYTES = 8 + 4 + 8 + 4 + 4 + 4;
+
+	//Above this many dimension combinations the dense sums cost more than the query they replace
+	private static final int MAX_GROUPS = 1 << 16;
+
+	//Nulls first, as the grouped query orders them
+	private static final Comparator<ExpenseAggregate> GROUP_ORDER = Comparator
+			.comparing(ExpenseAggregate::getCategoryId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+			.thenComparing(ExpenseAggregate::getPaymentMethod, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparing(ExpenseAggregate::getCurrency, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+	private long[] ids = new long[0];
+	private int[] days = new int[0];
+	private long[] cents = new long[0];
+	private int[] categories = new int[0];
+	private int[] methods = new int[0];
+	private int[] currencies = new int[0];
+	private int size;
+
+	private final Dictionary<Long> categoryDict = new Dictionary<>();
+	private final Dictionary<String> methodDict = new Dictionary<>();
+	private final Dictionary<String> currencyDict = new Dictionary<>();
+
+	private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+	private boolean built;
+	private boolean oversized;
+
+	public boolean isBuilt() {
+		return built;
+	}
+
+	public void setBuilt() {
+		built = true;
+	}
+
+	//Too many rows for the memory budget; kept as a marker so the rows are not read again for nothing
+	public boolean isOversized() {
+		return oversized;
+	}
+
+	public void setOversized() {
+		oversized = true;
+		ids = new long[0];
+		days = new int[0];
+		cents = new long[0];
+		categories = new int[0];
+		methods = new int[0];
+		currencies = new int[0];
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long sizeInBytes() {
+		return (long) ids.length * ROW_BYTES + 64L * (categoryDict.size() + methodDict.size() + currencyDict.size());
+	}
+
+	public void markStale(Long id) {
+		stale.add(id);
+	}
+
+	//Hands out the stale ids once; the caller reloads them and passes them to replace
+	public Set<Long> drainStale() {
+		if (stale.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<Long> drained = new HashSet<>();
+		for (Long id : stale) {
+			if (stale.remove(id)) {
+				drained.add(id);
+			}
+		}
+		return drained;
+	}
+
+	//Every currency the user has spent in, null for the user's default; never shrinks
+	public List<String> currencies() {
+		return Collections.unmodifiableList(currencyDict.values);
+	}
+
+	/**
+	 * Appends rows of (id, date, amount, category id, payment method,
+	 * currency) that come ordered by date after the rows already held. Rows
+	 * without a date cannot fall in a range and are skipped.
+	 */
+	public void append(List<Object[]> rows) {
+		ensureCapacity(size + rows.size());
+		for (Object[] row : rows) {
+			if (row[1] != null) {
+				set(size++, row);
+			}
+		}
+	}
+
+	//Drops the given ids and merges the reloaded rows of those that still exist in by day
+	public void replace(Set<Long> removed, List<Object[]> rows) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!removed.contains(ids[i])) {
+				move(i, kept++);
+			}
+		}
+		size = kept;
+
+		List<Object[]> added = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			if (row[1] != null) {
+				added.add(row);
+			}
+		}
+		if (added.isEmpty()) {
+			return;
+		}
+		added.sort(Comparator.comparingLong(row -> ((LocalDateTime) row[1]).toLocalDate().toEpochDay()));
+		ensureCapacity(size + added.size());
+		//Merged from the back, so nothing is overwritten before it has moved
+		int from = size - 1;
+		int to = size + added.size() - 1;
+		for (int a = added.size() - 1; a >= 0; a--) {
+			int day = (int) ((LocalDateTime) added.get(a)[1]).toLocalDate().toEpochDay();
+			while (from >= 0 && days[from] > day) {
+				move(from--, to--);
+			}
+			set(to--, added.get(a));
+		}
+		size += added.size();
+	}
+
+	/**
+	 * Same result as the grouped query it stands in for: one aggregate per
+	 * bucket and requested dimension values, for days from start to end
+	 * inclusive, sorted by period and then by the dimension values. Null when
+	 * the dimensions have too many combinations to sum densely.
+	 */
+	public List<ExpenseAggregate> aggregate(LocalDate start, LocalDate end, TimeBucket bucket,
+			Set<AggregateDimension> dimensions) {
+		boolean byCategory = dimensions.contains(AggregateDimension.CATEGORY);
+		boolean byMethod = dimensions.contains(AggregateDimension.PAYMENT_METHOD);
+		boolean byCurrency = dimensions.contains(AggregateDimension.CURRENCY);
+		int nMethods = byMethod ? methodDict.size() : 1;
+		int nCurrencies = byCurrency ? currencyDict.size() : 1;
+		long groups = (long) (byCategory ? categoryDict.size() : 1) * nMethods * nCurrencies;
+		if (groups > MAX_GROUPS) {
+			return null;
+		}
+
+		long[] sums = new long[(int) groups];
+		long[] counts = new long[(int) groups];
+		int[] touched = new int[(int) groups];
+		int nTouched = 0;
+
+		List<ExpenseAggregate> result = new ArrayList<>();
+		int i = firstOnOrAfter((int) start.toEpochDay());
+		int stop = firstOnOrAfter((int) end.toEpochDay() + 1);
+		LocalDate period = null;
+		int periodEnd = Integer.MIN_VALUE;
+		for (; i < stop; i++) {
+			int day = days[i];
+			if (day >= periodEnd) {
+				if (nTouched > 0) {
+					flush(result, period, sums, counts, touched, nTouched, byCategory, byMethod, byCurrency, nMethods,
+							nCurrencies);
+					nTouched = 0;
+				}
+				period = bucket.truncate(LocalDate.ofEpochDay(day));
+				periodEnd = (int) next(period, bucket).toEpochDay();
+			}
+			int group = ((byCategory ? categories[i] : 0) * nMethods + (byMethod ? methods[i] : 0)) * nCurrencies
+					+ (byCurrency ? currencies[i] : 0);
+			if (counts[group] == 0) {
+				touched[nTouched++] = group;
+			}
+			sums[group] += cents[i];
+			counts[group]++;
+		}
+		if (nTouched > 0) {
+			flush(result, period, sums, counts, touched, nTouched, byCategory, byMethod, byCurrency, nMethods,
+					nCurrencies);
+		}
+		return result;
+	}
+
+	//Turns the period's touched groups into aggregates and clears them for the next period
+	private void flush(List<ExpenseAggregate> result, LocalDate period, long[] sums, long[] counts, int[] touched,
+			int nTouched, boolean byCategory, boolean byMethod, boolean byCurrency, int nMethods, int nCurrencies) {
+		List<ExpenseAggregate> rows = new ArrayList<>(nTouched);
+		for (int t = 0; t < nTouched; t++) {
+			int group = touched[t];
+			int currency = group % nCurrencies;
+			int method = (group / nCurrencies) % nMethods;
+			int category = group / nCurrencies / nMethods;
+			rows.add(new ExpenseAggregate(period, byCategory ? categoryDict.get(category) : null,
+					byMethod ? methodDict.get(method) : null, byCurrency ? currencyDict.get(currency) : null,
+					BigDecimal.valueOf(sums[group], 2), counts[group]));
+			sums[group] = 0;
+			counts[group] = 0;
+		}
+		rows.sort(GROUP_ORDER);
+		result.addAll(rows);
+	}
+
+	private static LocalDate next(LocalDate period, TimeBucket bucket) {
+		switch (bucket) {
+		case DAY:
+			return period.plusDays(1);
+		case WEEK:
+			return period.plusWeeks(1);
+		case MONTH:
+			return period.plusMonths(1);
+		default:
+			return period.plusYears(1);
+		}
+	}
+
+	private int firstOnOrAfter(int day) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (days[mid] < day) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	//A null amount adds nothing to the sum but still counts, as SUM and COUNT do
+	private void set(int i, Object[] row) {
+		BigDecimal amount = (BigDecimal) row[2];
+		ids[i] = (Long) row[0];
+		days[i] = (int) ((LocalDateTime) row[1]).toLocalDate().toEpochDay();
+		cents[i] = amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+		categories[i] = categoryDict.code((Long) row[3]);
+		methods[i] = methodDict.code((String) row[4]);
+		currencies[i] = currencyDict.code((String) row[5]);
+	}
+
+	private void move(int from, int to) {
+		ids[to] = ids[from];
+		days[to] = days[from];
+		cents[to] = cents[from];
+		categories[to] = categories[from];
+		methods[to] = methods[from];
+		currencies[to] = currencies[from];
+	}
+
+	private void ensureCapacity(int needed) {
+		if (needed <= ids.length) {
+			return;
+		}
+		int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+		ids = Arrays.copyOf(ids, capacity);
+		days = Arrays.copyOf(days, capacity);
+		cents = Arrays.copyOf(cents, capacity);
+		categories = Arrays.copyOf(categories, capacity);
+		methods = Arrays.copyOf(methods, capacity);
+		currencies = Arrays.copyOf(currencies, capacity);
+	}
+
+	//Values in first-seen order; null is a value like any other
+	private static final class Dictionary<T> {
+		private final List<T> values = new ArrayList<>();
+		private final Map<T, Integer> codes = new HashMap<>();
+
+		int code(T value) {
+			Integer code = codes.get(value);
+			if (code == null) {
+				code = values.size();
+				values.add(value);
+				codes.put(value, code);
+			}
+			return code;
+		}
+
+		T get(int code) {
+			return values.get(code);
+		}
+
+		int size() {
+			return values.size();
+		}
+	}
+}
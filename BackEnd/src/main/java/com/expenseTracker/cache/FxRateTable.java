@@ -0,0 +1,110 @@
+package com.expenseTracker.cache;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the daily exchange rates. Each currency keeps its
+ * days as a sorted array of epoch days next to the rates, so a lookup is a
+ * binary search. The rate for a day is the latest one on or before it,
+ * which covers weekends and holidays; days before a currency's first rate
+ * have none.
+ *
+ * Rates are units of the currency per one unit of the base currency, so any
+ * two currencies convert through the base.
+ */
+public final class FxRateTable {
+
+	private final String base;
+	private final Map<String, Series> series;
+	private final int size;
+
+	private FxRateTable(String base, Map<String, Series> series, int size) {
+		this.base = base;
+		this.series = series;
+		this.size = size;
+	}
+
+	public static FxRateTable empty(String base) {
+		return new FxRateTable(base, Map.of(), 0);
+	}
+
+	//Rows are currency, date, units per base, ordered by currency and then date
+	public static FxRateTable of(String base, List<Object[]> rows) {
+		Map<String, Series> series = new HashMap<>();
+		int from = 0;
+		while (from < rows.size()) {
+			String currency = (String) rows.get(from)[0];
+			int to = from;
+			while (to < rows.size() && currency.equals(rows.get(to)[0])) {
+				to++;
+			}
+			int[] days = new int[to - from];
+			BigDecimal[] rates = new BigDecimal[to - from];
+			for (int i = from; i < to; i++) {
+				days[i - from] = (int) ((LocalDate) rows.get(i)[1]).toEpochDay();
+				rates[i - from] = (BigDecimal) rows.get(i)[2];
+			}
+			series.put(currency, new Series(days, rates));
+			from = to;
+		}
+		return new FxRateTable(base, series, rows.size());
+	}
+
+	public String getBase() {
+		return base;
+	}
+
+	//Units of the currency per unit of the base on the date, null when there is none
+	public BigDecimal rate(String currency, LocalDate date) {
+		if (base.equals(currency)) {
+			return BigDecimal.ONE;
+		}
+		Series s = series.get(currency);
+		return s == null ? null : s.on((int) date.toEpochDay());
+	}
+
+	//What one unit of from is worth in to on the date, null when either rate is missing
+	public BigDecimal factor(String from, String to, LocalDate date) {
+		if (from.equals(to)) {
+			return BigDecimal.ONE;
+		}
+		BigDecimal fromRate = rate(from, date);
+		BigDecimal toRate = rate(to, date);
+		if (fromRate == null || toRate == null) {
+			return null;
+		}
+		return toRate.divide(fromRate, MathContext.DECIMAL64);
+	}
+
+	public int currencies() {
+		return series.size();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private static final class Series {
+		private final int[] days;
+		private final BigDecimal[] rates;
+
+		Series(int[] days, BigDecimal[] rates) {
+			this.days = days;
+			this.rates = rates;
+		}
+
+		BigDecimal on(int day) {
+			int i = Arrays.binarySearch(days, day);
+			if (i < 0) {
+				i = -i - 2;
+			}
+			return i < 0 ? null : rates[i];
+		}
+	}
+}
@@ -0,0 +1,407 @@
+package com.expenseTracker.cache;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of ids laid out like a Roaring bitmap. Ids are grouped into
+ * chunks of 65536 by their high bits, and a chunk keeps its low 16 bits as a
+ * sorted char array while it holds up to 4096 ids and as a 65536 bit map
+ * above that, so neither form takes more than 8 KB. Set operations go chunk
+ * by chunk and skip id ranges that only one side has.
+ *
+ * Not thread safe. Ids must not be negative.
+ */
+public final class IdBitmap {
+
+	private static final int ARRAY_MAX = 4096;
+	private static final int WORDS = 1 << 10;
+
+	private long[] keys = new long[0];
+	private Chunk[] chunks = new Chunk[0];
+	private int size;
+	private long cardinality;
+
+	public boolean add(long id) {
+		int i = find(id >>> 16);
+		if (i < 0) {
+			i = -i - 1;
+			insert(i, id >>> 16, new Chunk());
+		}
+		boolean added = chunks[i].add((char) id);
+		if (added) {
+			cardinality++;
+		}
+		return added;
+	}
+
+	public boolean remove(long id) {
+		int i = find(id >>> 16);
+		if (i < 0 || !chunks[i].remove((char) id)) {
+			return false;
+		}
+		cardinality--;
+		if (chunks[i].cardinality == 0) {
+			System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+			System.arraycopy(chunks, i + 1, chunks, i, size - i - 1);
+			chunks[--size] = null;
+		}
+		return true;
+	}
+
+	public boolean contains(long id) {
+		int i = find(id >>> 16);
+		return i >= 0 && chunks[i].contains((char) id);
+	}
+
+	public long cardinality() {
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	public IdBitmap and(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (keys[i] > other.keys[j]) {
+				j++;
+			} else {
+				result.append(keys[i], Chunk.and(chunks[i], other.chunks[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public IdBitmap or(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+				result.append(keys[i], chunks[i].copy());
+				i++;
+			} else if (i == size || keys[i] > other.keys[j]) {
+				result.append(other.keys[j], other.chunks[j].copy());
+				j++;
+			} else {
+				result.append(keys[i], Chunk.or(chunks[i], other.chunks[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public IdBitmap andNot(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			while (j < other.size && other.keys[j] < keys[i]) {
+				j++;
+			}
+			result.append(keys[i], j < other.size && other.keys[j] == keys[i]
+					? Chunk.andNot(chunks[i], other.chunks[j])
+					: chunks[i].copy());
+		}
+		return result;
+	}
+
+	//The ids ranked skip to skip + limit - 1, counting down from the largest
+	public long[] descending(long skip, int limit) {
+		long[] out = new long[(int) Math.max(0, Math.min(limit, cardinality - skip))];
+		int filled = 0;
+		for (int i = size - 1; i >= 0 && filled < out.length; i--) {
+			if (skip >= chunks[i].cardinality) {
+				skip -= chunks[i].cardinality;
+				continue;
+			}
+			filled = chunks[i].descending(keys[i] << 16, (int) skip, out, filled);
+			skip = 0;
+		}
+		return out;
+	}
+
+	public long sizeInBytes() {
+		long bytes = keys.length * 8L + chunks.length * 8L;
+		for (int i = 0; i < size; i++) {
+			bytes += chunks[i].sizeInBytes();
+		}
+		return bytes;
+	}
+
+	private int find(long key) {
+		//Ids mostly arrive in ascending order, so check the last chunk first
+		if (size > 0 && keys[size - 1] == key) {
+			return size - 1;
+		}
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	private void insert(int i, long key, Chunk chunk) {
+		if (size == keys.length) {
+			int capacity = Math.max(4, size * 2);
+			keys = Arrays.copyOf(keys, capacity);
+			chunks = Arrays.copyOf(chunks, capacity);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(chunks, i, chunks, i + 1, size - i);
+		keys[i] = key;
+		chunks[i] = chunk;
+		size++;
+	}
+
+	//Set operations produce chunks in key order, and drop the empty ones
+	private void append(long key, Chunk chunk) {
+		if (chunk != null) {
+			insert(size, key, chunk);
+			cardinality += chunk.cardinality;
+		}
+	}
+
+	private static final class Chunk {
+		//Sorted low bits while the chunk is small, otherwise null and words is set
+		private char[] values = new char[4];
+		private long[] words;
+		private int cardinality;
+
+		boolean add(char v) {
+			if (words != null) {
+				long bit = 1L << v;
+				if ((words[v >>> 6] & bit) != 0) {
+					return false;
+				}
+				words[v >>> 6] |= bit;
+				cardinality++;
+				return true;
+			}
+			int i = Arrays.binarySearch(values, 0, cardinality, v);
+			if (i >= 0) {
+				return false;
+			}
+			if (cardinality == ARRAY_MAX) {
+				toWords();
+				return add(v);
+			}
+			i = -i - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+			}
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = v;
+			cardinality++;
+			return true;
+		}
+
+		boolean remove(char v) {
+			if (words != null) {
+				long bit = 1L << v;
+				if ((words[v >>> 6] & bit) == 0) {
+					return false;
+				}
+				words[v >>> 6] &= ~bit;
+				if (--cardinality <= ARRAY_MAX) {
+					toValues();
+				}
+				return true;
+			}
+			int i = Arrays.binarySearch(values, 0, cardinality, v);
+			if (i < 0) {
+				return false;
+			}
+			System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+			cardinality--;
+			return true;
+		}
+
+		boolean contains(char v) {
+			return words != null ? (words[v >>> 6] & (1L << v)) != 0
+					: Arrays.binarySearch(values, 0, cardinality, v) >= 0;
+		}
+
+		Chunk copy() {
+			Chunk copy = new Chunk();
+			copy.values = values != null ? Arrays.copyOf(values, cardinality) : null;
+			copy.words = words != null ? words.clone() : null;
+			copy.cardinality = cardinality;
+			return copy;
+		}
+
+		int descending(long base, int skip, long[] out, int filled) {
+			if (words == null) {
+				for (int i = cardinality - 1 - skip; i >= 0 && filled < out.length; i--) {
+					out[filled++] = base | values[i];
+				}
+				return filled;
+			}
+			for (int w = WORDS - 1; w >= 0 && filled < out.length; w--) {
+				long word = words[w];
+				while (word != 0 && filled < out.length) {
+					int bit = 63 - Long.numberOfLeadingZeros(word);
+					word &= ~(1L << bit);
+					if (skip > 0) {
+						skip--;
+					} else {
+						out[filled++] = base | ((long) w << 6) | bit;
+					}
+				}
+			}
+			return filled;
+		}
+
+		long sizeInBytes() {
+			return 16 + (words != null ? WORDS * 8L : values.length * 2L);
+		}
+
+		private void toWords() {
+			words = new long[WORDS];
+			for (int i = 0; i < cardinality; i++) {
+				words[values[i] >>> 6] |= 1L << values[i];
+			}
+			values = null;
+		}
+
+		private void toValues() {
+			char[] small = new char[Math.max(4, cardinality)];
+			int n = 0;
+			for (int w = 0; w < WORDS; w++) {
+				long word = words[w];
+				while (word != 0) {
+					small[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			values = small;
+			words = null;
+		}
+
+		private static Chunk ofWords(long[] words) {
+			Chunk chunk = new Chunk();
+			chunk.values = null;
+			chunk.words = words;
+			for (long word : words) {
+				chunk.cardinality += Long.bitCount(word);
+			}
+			if (chunk.cardinality == 0) {
+				return null;
+			}
+			if (chunk.cardinality <= ARRAY_MAX) {
+				chunk.toValues();
+			}
+			return chunk;
+		}
+
+		private static Chunk ofValues(char[] values, int cardinality) {
+			if (cardinality == 0) {
+				return null;
+			}
+			Chunk chunk = new Chunk();
+			chunk.values = values;
+			chunk.cardinality = cardinality;
+			if (cardinality > ARRAY_MAX) {
+				chunk.toWords();
+			}
+			return chunk;
+		}
+
+		static Chunk and(Chunk a, Chunk b) {
+			if (a.words != null && b.words != null) {
+				long[] words = new long[WORDS];
+				for (int w = 0; w < WORDS; w++) {
+					words[w] = a.words[w] & b.words[w];
+				}
+				return ofWords(words);
+			}
+			if (a.words != null) {
+				return and(b, a);
+			}
+			char[] values = new char[a.cardinality];
+			int n = 0;
+			if (b.words != null) {
+				for (int i = 0; i < a.cardinality; i++) {
+					if (b.contains(a.values[i])) {
+						values[n++] = a.values[i];
+					}
+				}
+				return ofValues(values, n);
+			}
+			int j = 0;
+			for (int i = 0; i < a.cardinality && j < b.cardinality;) {
+				if (a.values[i] < b.values[j]) {
+					i++;
+				} else if (a.values[i] > b.values[j]) {
+					j++;
+				} else {
+					values[n++] = a.values[i];
+					i++;
+					j++;
+				}
+			}
+			return ofValues(values, n);
+		}
+
+		static Chunk or(Chunk a, Chunk b) {
+			if (a.words == null && b.words == null) {
+				char[] values = new char[a.cardinality + b.cardinality];
+				int n = 0;
+				int i = 0;
+				int j = 0;
+				while (i < a.cardinality || j < b.cardinality) {
+					if (j == b.cardinality || (i < a.cardinality && a.values[i] < b.values[j])) {
+						values[n++] = a.values[i++];
+					} else if (i == a.cardinality || a.values[i] > b.values[j]) {
+						values[n++] = b.values[j++];
+					} else {
+						values[n++] = a.values[i++];
+						j++;
+					}
+				}
+				return ofValues(values, n);
+			}
+			if (a.words == null) {
+				return or(b, a);
+			}
+			long[] words = a.words.clone();
+			if (b.words != null) {
+				for (int w = 0; w < WORDS; w++) {
+					words[w] |= b.words[w];
+				}
+			} else {
+				for (int i = 0; i < b.cardinality; i++) {
+					words[b.values[i] >>> 6] |= 1L << b.values[i];
+				}
+			}
+			return ofWords(words);
+		}
+
+		static Chunk andNot(Chunk a, Chunk b) {
+			if (a.words == null) {
+				char[] values = new char[a.cardinality];
+				int n = 0;
+				for (int i = 0; i < a.cardinality; i++) {
+					if (!b.contains(a.values[i])) {
+						values[n++] = a.values[i];
+					}
+				}
+				return ofValues(values, n);
+			}
+			long[] words = a.words.clone();
+			if (b.words != null) {
+				for (int w = 0; w < WORDS; w++) {
+					words[w] &= ~b.words[w];
+				}
+			} else {
+				for (int i = 0; i < b.cardinality; i++) {
+					words[b.values[i] >>> 6] &= ~(1L << b.values[i]);
+				}
+			}
+			return ofWords(words);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package com.expenseTracker.cache;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over one user's expense notes: each term maps to the
+ * expenses containing it and how often. Terms are kept sorted, so a prefix is
+ * a range of the dictionary. Ranking is BM25, with a term that only starts
+ * with the query word counting for less than an exact one.
+ *
+ * Not thread safe except for {@link #markStale}; callers lock the index.
+ */
+public class NotesIndex {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final double PREFIX_WEIGHT = 0.5;
+
+	private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+	private final Map<Long, Doc> docs = new HashMap<>();
+	//Written by committing threads without the lock, reconciled by the next search
+	private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+	private long totalLength;
+	private boolean built;
+
+	//Lower case, accents dropped, split on anything that is not a letter or digit
+	public static List<String> tokenize(String text) {
+		if (text == null || text.isBlank()) {
+			return Collections.emptyList();
+		}
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		List<String> tokens = new ArrayList<>();
+		for (String token : SEPARATORS.split(folded)) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	public boolean isBuilt() {
+		return built;
+	}
+
+	public void setBuilt() {
+		built = true;
+	}
+
+	public int size() {
+		return docs.size();
+	}
+
+	public int terms() {
+		return postings.size();
+	}
+
+	public void markStale(Long id) {
+		stale.add(id);
+	}
+
+	//Hands out the stale ids once; the caller reloads them and puts or removes each
+	public Set<Long> drainStale() {
+		if (stale.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<Long> drained = new HashSet<>();
+		for (Long id : stale) {
+			if (stale.remove(id)) {
+				drained.add(id);
+			}
+		}
+		return drained;
+	}
+
+	public void put(Long id, LocalDateTime date, Long categoryId, String notes) {
+		remove(id);
+		List<String> tokens = tokenize(notes);
+		if (tokens.isEmpty()) {
+			return;
+		}
+		Map<String, Integer> counts = new HashMap<>();
+		for (String token : tokens) {
+			counts.merge(token, 1, Integer::sum);
+		}
+		for (Map.Entry<String, Integer> count : counts.entrySet()) {
+			postings.computeIfAbsent(count.getKey(), k -> new HashMap<>()).put(id, count.getValue());
+		}
+		docs.put(id, new Doc(date, categoryId, tokens.size(), counts.keySet().toArray(new String[0])));
+		totalLength += tokens.size();
+	}
+
+	public void remove(Long id) {
+		Doc doc = docs.remove(id);
+		if (doc == null) {
+			return;
+		}
+		totalLength -= doc.length;
+		for (String term : doc.terms) {
+			Map<Long, Integer> docsWithTerm = postings.get(term);
+			if (docsWithTerm != null) {
+				docsWithTerm.remove(id);
+				if (docsWithTerm.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Expenses whose notes contain every query word, as a whole term or as
+	 * the start of one, best first and newest first among equal scores.
+	 */
+	public List<Hit> search(String query, Predicate<Doc> filter) {
+		List<String> words = tokenize(query);
+		if (words.isEmpty() || docs.isEmpty()) {
+			return Collections.emptyList();
+		}
+		double averageLength = (double) totalLength / docs.size();
+		Map<Long, Double> scores = null;
+		for (String word : new LinkedHashSet<>(words)) {
+			Map<Long, Double> best = new HashMap<>();
+			for (Map.Entry<String, Map<Long, Integer>> term : postings
+					.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+				double weight = term.getKey().equals(word) ? 1.0 : PREFIX_WEIGHT;
+				int documentFrequency = term.getValue().size();
+				double idf = Math.log(1 + (docs.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+				for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+					if (scores != null ? !scores.containsKey(posting.getKey())
+							: !filter.test(docs.get(posting.getKey()))) {
+						continue;
+					}
+					int tf = posting.getValue();
+					double norm = K1 * (1 - B + B * docs.get(posting.getKey()).length / averageLength);
+					best.merge(posting.getKey(), weight * idf * tf * (K1 + 1) / (tf + norm), Math::max);
+				}
+			}
+			if (scores == null) {
+				scores = best;
+			} else {
+				Map<Long, Double> both = new HashMap<>();
+				for (Map.Entry<Long, Double> score : best.entrySet()) {
+					both.put(score.getKey(), scores.get(score.getKey()) + score.getValue());
+				}
+				scores = both;
+			}
+			if (scores.isEmpty()) {
+				return Collections.emptyList();
+			}
+		}
+
+		List<Hit> hits = new ArrayList<>(scores.size());
+		for (Map.Entry<Long, Double> score : scores.entrySet()) {
+			hits.add(new Hit(score.getKey(), score.getValue(), docs.get(score.getKey()).date));
+		}
+		hits.sort(Comparator.comparingDouble(Hit::getScore).reversed()
+				.thenComparing(Hit::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+				.thenComparing(Hit::getId, Comparator.reverseOrder()));
+		return hits;
+	}
+
+	public static final class Doc {
+		private final LocalDateTime date;
+		private final Long categoryId;
+		private final int length;
+		private final String[] terms;
+
+		Doc(LocalDateTime date, Long categoryId, int length, String[] terms) {
+			this.date = date;
+			this.categoryId = categoryId;
+			this.length = length;
+			this.terms = terms;
+		}
+
+		public LocalDateTime getDate() {
+			return date;
+		}
+
+		public Long getCategoryId() {
+			return categoryId;
+		}
+	}
+
+	public static final class Hit {
+		private final Long id;
+		private final double score;
+		private final LocalDateTime date;
+
+		Hit(Long id, double score, LocalDateTime date) {
+			this.id = id;
+			this.score = score;
+			this.date = date;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		public LocalDateTime getDate() {
+			return date;
+		}
+	}
+}
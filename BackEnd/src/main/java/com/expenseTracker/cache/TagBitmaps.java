@@ -0,0 +1,90 @@
+package com.expenseTracker.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * One user's tags as bitmaps of expense ids, plus a bitmap of all of their
+ * expenses that NOT filters are taken against.
+ *
+ * Not thread safe except for {@link #enqueue}; callers lock the instance.
+ * Committed writes enqueue their change, and the next reader applies the
+ * queue under the lock. Every change sets the final state of its ids, so
+ * applying one the build already read is harmless.
+ */
+public class TagBitmaps {
+
+	private static final IdBitmap EMPTY = new IdBitmap();
+
+	private final IdBitmap expenses = new IdBitmap();
+	private final Map<Long, IdBitmap> tags = new HashMap<>();
+	private final Queue<Consumer<TagBitmaps>> pending = new ConcurrentLinkedQueue<>();
+	private boolean built;
+
+	public boolean isBuilt() {
+		return built;
+	}
+
+	public void setBuilt() {
+		built = true;
+	}
+
+	public void enqueue(Consumer<TagBitmaps> change) {
+		pending.add(change);
+	}
+
+	public void applyPending() {
+		Consumer<TagBitmaps> change;
+		while ((change = pending.poll()) != null) {
+			change.accept(this);
+		}
+	}
+
+	public IdBitmap expenses() {
+		return expenses;
+	}
+
+	//Read only; an unknown or unused tag has the empty bitmap
+	public IdBitmap tag(Long tagId) {
+		return tags.getOrDefault(tagId, EMPTY);
+	}
+
+	public long count(Long tagId) {
+		return tag(tagId).cardinality();
+	}
+
+	public void addExpense(long expenseId) {
+		expenses.add(expenseId);
+	}
+
+	public void removeExpense(long expenseId) {
+		expenses.remove(expenseId);
+		tags.values().removeIf(bitmap -> bitmap.remove(expenseId) && bitmap.isEmpty());
+	}
+
+	public void tag(Long tagId, long expenseId) {
+		tags.computeIfAbsent(tagId, k -> new IdBitmap()).add(expenseId);
+	}
+
+	public void untag(Long tagId, long expenseId) {
+		IdBitmap bitmap = tags.get(tagId);
+		if (bitmap != null && bitmap.remove(expenseId) && bitmap.isEmpty()) {
+			tags.remove(tagId);
+		}
+	}
+
+	public void dropTag(Long tagId) {
+		tags.remove(tagId);
+	}
+
+	public long sizeInBytes() {
+		long bytes = expenses.sizeInBytes();
+		for (IdBitmap bitmap : tags.values()) {
+			bytes += bitmap.sizeInBytes();
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,102 @@
+package com.expenseTracker.cache;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.expenseTracker.dto.ChangeEvent;
+
+/**
+ * Per user data version behind the ETags of the read endpoints. Every write
+ * to a user's expenses, categories or budgets bumps it.
+ *
+ * Versions come from one counter that starts at the boot time in
+ * microseconds, so a value is never handed out twice, not even after a
+ * restart or after a user's entry was evicted. A lost entry only costs a
+ * full response. Versions are held in memory, so this assumes one instance.
+ *
+ * A bump that names the changed row also publishes a {@link ChangeEvent} once
+ * the write has committed, which feeds the /events streams.
+ */
+@Component
+public class UserDataVersions {
+
+	private final AtomicLong counter = new AtomicLong(System.currentTimeMillis() * 1000);
+	private final BoundedTtlCache<String, Long> versions;
+	private final ApplicationEventPublisher publisher;
+
+	public UserDataVersions(ApplicationEventPublisher publisher,
+			@Value("${etag.versions.max-size:100000}") int maxSize,
+			@Value("${etag.versions.ttl-seconds:86400}") long ttlSeconds) {
+		this.publisher = publisher;
+		this.versions = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+	}
+
+	//Highest version handed out so far, every later bump is above it
+	public long latest() {
+		return counter.get();
+	}
+
+	public long current(String userid) {
+		return versions.get(userid, k -> counter.incrementAndGet());
+	}
+
+	//The date is part of the tag since month and six month windows move with it
+	public String etag(String userid) {
+		return "\"" + Long.toString(current(userid), 36) + "-" + LocalDate.now().toEpochDay() + "\"";
+	}
+
+	/**
+	 * Inside a transaction the bump waits for it to finish, otherwise a reader
+	 * could pair the new version with data from before the commit.
+	 */
+	public void bump(String userid) {
+		bump(userid, null, null, null);
+	}
+
+	//Events only go out for committed writes, a rollback still moves the version
+	public void bump(String userid, ChangeEvent.Type type, Long id, ChangeEvent.Operation op) {
+		if (userid == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					long version = advance(userid);
+					if (status == STATUS_COMMITTED) {
+						publish(userid, type, id, op, version);
+					}
+				}
+			});
+		} else {
+			publish(userid, type, id, op, advance(userid));
+		}
+	}
+
+	//For changes that touch every user's responses, such as newly loaded exchange rates
+	public void bumpAll() {
+		versions.invalidateAll();
+	}
+
+	private long advance(String userid) {
+		long version = counter.incrementAndGet();
+		versions.put(userid, version);
+		return version;
+	}
+
+	private void publish(String userid, ChangeEvent.Type type, Long id, ChangeEvent.Operation op, long version) {
+		if (type != null) {
+			publisher.publishEvent(new ChangeEvent(userid, type, id, op, version));
+		}
+	}
+
+	public BoundedTtlCache<String, Long> getVersions() {
+		return versions;
+	}
+}
@@ -0,0 +1,128 @@
+package com.expenseTracker.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache bounded by the total weight of its values rather than their number,
+ * evicting the least recently used entries first. Values may change weight
+ * after they are put, callers then {@link #reweigh} them.
+ *
+ * Every operation takes the cache's lock, but only for map bookkeeping;
+ * weighing must be cheap. Entries are kept in insertion order and a hit moves
+ * its entry to the end, so only {@link #get} and {@link #put} count as a use.
+ */
+public class WeightedLruCache<K, V> {
+
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+	private final ToLongFunction<V> weigher;
+	private final long maxWeight;
+	private long weight;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	public synchronized V get(K key) {
+		Entry<V> entry = entries.remove(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		entries.put(key, entry);
+		hits.increment();
+		return entry.value;
+	}
+
+	//Looks the entry up without making it more recently used
+	public synchronized V peek(K key) {
+		Entry<V> entry = entries.get(key);
+		return entry != null ? entry.value : null;
+	}
+
+	public synchronized void put(K key, V value) {
+		remove(key);
+		Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value));
+		entries.put(key, entry);
+		weight += entry.weight;
+		evict();
+	}
+
+	//Takes in a new weight for the entry without moving it; a value heavier than the whole budget leaves the cache
+	public synchronized void reweigh(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			return;
+		}
+		long w = weigher.applyAsLong(entry.value);
+		weight += w - entry.weight;
+		entry.weight = w;
+		evict();
+	}
+
+	public synchronized void invalidate(K key) {
+		remove(key);
+	}
+
+	public synchronized void invalidateAll() {
+		entries.clear();
+		weight = 0;
+	}
+
+	private void remove(K key) {
+		Entry<V> entry = entries.remove(key);
+		if (entry != null) {
+			weight -= entry.weight;
+		}
+	}
+
+	private void evict() {
+		Iterator<Entry<V>> eldest = entries.values().iterator();
+		while (weight > maxWeight && eldest.hasNext()) {
+			weight -= eldest.next().weight;
+			eldest.remove();
+			evictions.increment();
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long weight() {
+		return weight;
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	private static final class Entry<V> {
+		private final V value;
+		private long weight;
+
+		Entry(V value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.expenseTracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * MVC async requests and @Async methods both run on Boot's
+ * applicationTaskExecutor, which uses virtual threads when
+ * spring.threads.virtual.enabled is set on a Java 21 runtime.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig implements WebMvcConfigurer {
+
+	//Streaming exports of long histories outlive the servlet container's default async timeout
+	@Value("${expenses.export.timeout-ms:600000}")
+	private long asyncTimeout;
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(asyncTimeout);
+	}
+}
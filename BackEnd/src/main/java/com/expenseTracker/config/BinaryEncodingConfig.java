@@ -0,0 +1,38 @@
+package com.expenseTracker.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Smile (application/x-jackson-smile) and CBOR (application/cbor) encodings of
+ * the same payloads, chosen by the Accept header. They are appended after the
+ * JSON converter, so clients that accept anything keep getting JSON. Both
+ * mappers come from Boot's builder and share its date and module settings.
+ */
+@Configuration
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+	private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+	public BinaryEncodingConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+		this.builders = builders;
+	}
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(new MappingJackson2SmileHttpMessageConverter(
+				builders.getObject().factory(new SmileFactory()).build()));
+		converters.add(new MappingJackson2CborHttpMessageConverter(
+				builders.getObject().factory(new CBORFactory()).build()));
+	}
+}
@@ -0,0 +1,108 @@
+package com.expenseTracker.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Caps the number of connections checked out at once. Each connection holds a
+ * permit until it is closed; callers over the limit wait in arrival order
+ * and fail after the timeout instead of piling onto the pool.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final int limit;
+	private final long timeoutMillis;
+
+	public ConcurrencyLimitedDataSource(DataSource target, int limit, long timeoutMillis) {
+		super(target);
+		this.permits = new Semaphore(limit, true);
+		this.limit = limit;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection());
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection(username, password));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	public int getWaiting() {
+		return permits.getQueueLength();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException("No database permit within " + timeoutMillis + " ms ("
+						+ limit + " in use, " + permits.getQueueLength() + " waiting)");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+		}
+	}
+
+	//Releases the permit on the first close, later closes only reach the pool
+	private Connection limited(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						break;
+					}
+					if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+						try {
+							connection.close();
+						} finally {
+							permits.release();
+						}
+						return null;
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+}
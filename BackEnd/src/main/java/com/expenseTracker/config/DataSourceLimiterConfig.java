@@ -0,0 +1,58 @@
+package com.expenseTracker.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Wraps the Hikari pool in a {@link ConcurrencyLimitedDataSource} sized to its
+ * maximum pool size. With virtual threads there is no thread pool left to
+ * bound how many requests reach the database, so this limiter does it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceLimiterConfig {
+
+	private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+	@Bean
+	public static BeanPostProcessor dataSourceLimiter(Environment environment) {
+		return new LimiterPostProcessor(environment);
+	}
+
+	private static final class LimiterPostProcessor implements BeanPostProcessor, Ordered {
+
+		private final Environment environment;
+
+		private LimiterPostProcessor(Environment environment) {
+			this.environment = environment;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (!(bean instanceof HikariDataSource hikari)) {
+				return bean;
+			}
+			//0 follows spring.datasource.hikari.maximum-pool-size
+			int permits = environment.getProperty("db.limiter.permits", Integer.class, 0);
+			long timeoutMillis = environment.getProperty("db.limiter.timeout-ms", Long.class,
+					hikari.getConnectionTimeout());
+			if (permits <= 0) {
+				//Hikari only resolves an unset pool size when the pool starts
+				permits = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+			}
+			return new ConcurrencyLimitedDataSource(hikari, permits, timeoutMillis);
+		}
+
+		//Last, so other post processors still see the Hikari pool itself
+		@Override
+		public int getOrder() {
+			return Ordered.LOWEST_PRECEDENCE;
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.expenseTracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.expenseTracker.cache.UserDataVersions;
+
+@Configuration
+public class ETagConfig implements WebMvcConfigurer {
+
+	private final UserDataVersions versions;
+
+	public ETagConfig(UserDataVersions versions) {
+		this.versions = versions;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new ETagInterceptor(versions));
+	}
+}
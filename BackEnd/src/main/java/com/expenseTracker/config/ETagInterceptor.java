@@ -0,0 +1,86 @@
+package com.expenseTracker.config;
+
+import java.util.Map;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.expenseTracker.api.ConditionalGet;
+import com.expenseTracker.cache.UserDataVersions;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers If-None-Match for {@link ConditionalGet} endpoints from the user's
+ * data version alone, so a 304 costs no query and no serialization. The tag
+ * is taken before the handler reads anything and left in a request attribute
+ * for {@link ETagResponseAdvice}.
+ */
+public class ETagInterceptor implements HandlerInterceptor {
+
+	static final String ETAG_ATTRIBUTE = ETagInterceptor.class.getName() + ".etag";
+
+	private final UserDataVersions versions;
+
+	public ETagInterceptor(UserDataVersions versions) {
+		this.versions = versions;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(ConditionalGet.class)
+				|| !"GET".equals(request.getMethod())) {
+			return true;
+		}
+		String userId = userId(request);
+		if (userId == null) {
+			return true;
+		}
+		String etag = representation(versions.etag(userId), request.getHeader("Accept"));
+		if (matches(request.getHeader("If-None-Match"), etag)) {
+			ETagResponseAdvice.cacheHeaders(response::setHeader, etag);
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return false;
+		}
+		request.setAttribute(ETAG_ATTRIBUTE, etag);
+		return true;
+	}
+
+	//Binary encodings get their own tag, a strong tag belongs to one representation
+	static String representation(String etag, String accept) {
+		if (accept == null) {
+			return etag;
+		}
+		String suffix = accept.contains("smile") ? "-smile" : accept.contains("cbor") ? "-cbor" : "";
+		return suffix.isEmpty() ? etag : etag.substring(0, etag.length() - 1) + suffix + "\"";
+	}
+
+	//If-None-Match uses the weak comparison, so a W/ prefix added by a proxy still matches
+	static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals(etag) || tag.equals("*")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String userId(HttpServletRequest request) {
+		Map<String, String> variables = (Map<String, String>) request
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		if (variables != null && variables.get("userId") != null) {
+			return variables.get("userId");
+		}
+		return request.getParameter("userId");
+	}
+}
@@ -0,0 +1,50 @@
+package com.expenseTracker.config;
+
+import java.util.function.BiConsumer;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.expenseTracker.api.ConditionalGet;
+import com.expenseTracker.resources.ResponseModel;
+
+/**
+ * Stamps the tag chosen by {@link ETagInterceptor} on successful responses.
+ * Responses carrying errors or warnings get no tag, so a failed or partial
+ * response is never revalidated into a 304.
+ */
+@ControllerAdvice
+public class ETagResponseAdvice implements ResponseBodyAdvice<Object> {
+
+	static void cacheHeaders(BiConsumer<String, String> headers, String etag) {
+		headers.accept("ETag", etag);
+		//Stored by the browser but revalidated on every use; per user data, so never in shared caches
+		headers.accept("Cache-Control", "private, no-cache");
+		headers.accept("Vary", "Accept");
+	}
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return returnType.hasMethodAnnotation(ConditionalGet.class);
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (request instanceof ServletServerHttpRequest servletRequest && body instanceof ResponseModel model
+				&& model.getErrors() == null && model.getWarnings() == null) {
+			Object etag = servletRequest.getServletRequest().getAttribute(ETagInterceptor.ETAG_ATTRIBUTE);
+			if (etag != null) {
+				cacheHeaders(response.getHeaders()::set, (String) etag);
+			}
+		}
+		return body;
+	}
+}
@@ -0,0 +1,126 @@
+package com.expenseTracker.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.cache.WeightedLruCache;
+import com.expenseTracker.security.UserPrincipalCache;
+import com.expenseTracker.service.ChangeEventServiceImpl;
+import com.expenseTracker.service.ExpenseColumnsServiceImpl;
+import com.expenseTracker.service.ExpensesServiceImpl;
+import com.expenseTracker.service.FxServiceImpl;
+import com.expenseTracker.service.JwtService;
+import com.expenseTracker.service.NotesSearchServiceImpl;
+import com.expenseTracker.service.StreamTicketService;
+import com.expenseTracker.service.TagsServiceImpl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Request timers (http.server.requests), repository timers
+ * (spring.data.repository.invocations) and Hikari gauges come from Spring Boot
+ * Actuator. This adds the in-process caches so their hit rates sit next to them.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+	@Bean
+	public MeterBinder cacheMetrics(UserPrincipalCache principalCache, JwtService jwtService,
+			ExpensesServiceImpl eService, UserDataVersions versions, NotesSearchServiceImpl notesService,
+			TagsServiceImpl tService, FxServiceImpl fxService, ExpenseColumnsServiceImpl columnsService,
+			StreamTicketService ticketService) {
+		return registry -> {
+			bind(registry, "principal", principalCache.getCache());
+			bind(registry, "jwt", jwtService.getVerifiedTokens());
+			bind(registry, "events-ticket", ticketService.getTickets());
+			bind(registry, "expense-count", eService.getCountCache());
+			bind(registry, "data-version", versions.getVersions());
+			bind(registry, "notes-index", notesService.getIndexes());
+			bind(registry, "tag-bitmaps", tService.getBitmaps());
+			bind(registry, "default-currency", fxService.getDefaultCurrencies());
+			FunctionCounter.builder("notes.index.builds", notesService, NotesSearchServiceImpl::getBuilds)
+					.description("Per-user notes indexes built from the database")
+					.register(registry);
+			bind(registry, "expense-columns", columnsService.getColumns());
+			FunctionCounter.builder("analytics.columns.builds", columnsService, ExpenseColumnsServiceImpl::getBuilds)
+					.description("Per-user analytics columns loaded from the database")
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder dbLimiterMetrics(DataSource dataSource) {
+		return registry -> {
+			if (dataSource instanceof ConcurrencyLimitedDataSource limiter) {
+				Gauge.builder("db.limiter.available", limiter, ConcurrencyLimitedDataSource::getAvailablePermits)
+						.description("Free permits for database connections")
+						.register(registry);
+				Gauge.builder("db.limiter.waiting", limiter, ConcurrencyLimitedDataSource::getWaiting)
+						.description("Threads waiting for a database permit")
+						.register(registry);
+			}
+		};
+	}
+
+	@Bean
+	public MeterBinder eventStreamMetrics(ChangeEventServiceImpl ceService) {
+		return registry -> {
+			Gauge.builder("events.connections", ceService, ChangeEventServiceImpl::getConnectionCount)
+					.description("Open /events streams")
+					.register(registry);
+			FunctionCounter.builder("events.dropped", ceService, ChangeEventServiceImpl::getDropped)
+					.description("Streams closed because their buffer was full")
+					.register(registry);
+		};
+	}
+
+	public static void bind(MeterRegistry registry, String name, BoundedTtlCache<?, ?> cache) {
+		FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::getHits)
+				.tag("cache", name).tag("result", "hit")
+				.description("Cache lookups that found a live entry")
+				.register(registry);
+		FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::getMisses)
+				.tag("cache", name).tag("result", "miss")
+				.description("Cache lookups that had to load")
+				.register(registry);
+		FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::getEvictions)
+				.tag("cache", name)
+				.description("Entries dropped for size or expiry")
+				.register(registry);
+		Gauge.builder("cache.size", cache, BoundedTtlCache::size)
+				.tag("cache", name)
+				.register(registry);
+	}
+
+	//Same meters as above, plus the bytes held against the cache's budget
+	public static void bind(MeterRegistry registry, String name, WeightedLruCache<?, ?> cache) {
+		FunctionCounter.builder("cache.gets", cache, WeightedLruCache::getHits)
+				.tag("cache", name).tag("result", "hit")
+				.description("Cache lookups that found a live entry")
+				.register(registry);
+		FunctionCounter.builder("cache.gets", cache, WeightedLruCache::getMisses)
+				.tag("cache", name).tag("result", "miss")
+				.description("Cache lookups that had to load")
+				.register(registry);
+		FunctionCounter.builder("cache.evictions", cache, WeightedLruCache::getEvictions)
+				.tag("cache", name)
+				.description("Entries dropped for size or expiry")
+				.register(registry);
+		Gauge.builder("cache.size", cache, WeightedLruCache::size)
+				.tag("cache", name)
+				.register(registry);
+		Gauge.builder("cache.bytes", cache, WeightedLruCache::weight)
+				.tag("cache", name)
+				.description("Estimated bytes held, bounded by the cache's budget")
+				.register(registry);
+	}
+}
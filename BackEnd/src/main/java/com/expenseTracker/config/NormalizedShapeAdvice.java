@@ -0,0 +1,52 @@
+package com.expenseTracker.config;
+
+import java.util.List;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.expenseTracker.api.ExpenseList;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.dto.NormalizedExpenses;
+import com.expenseTracker.resources.ResponseModel;
+
+/**
+ * With shape=normalized, the data of {@link ExpenseList} endpoints is sent as
+ * {@link NormalizedExpenses}: every category once, expenses pointing at it by
+ * id. Works with any encoding. Decided by the endpoint rather than the data,
+ * so an empty page has the same shape as a full one.
+ */
+@ControllerAdvice
+public class NormalizedShapeAdvice implements ResponseBodyAdvice<Object> {
+
+	static final String SHAPE_PARAMETER = "shape";
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return ResponseModel.class.isAssignableFrom(returnType.getParameterType())
+				&& returnType.hasMethodAnnotation(ExpenseList.class);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (body instanceof ResponseModel model && isNormalized(request)
+				&& model.getData() instanceof List<?> list) {
+			model.setData(NormalizedExpenses.of((List<ExpenseView>) list));
+		}
+		return body;
+	}
+
+	static boolean isNormalized(ServerHttpRequest request) {
+		return request instanceof ServletServerHttpRequest servletRequest
+				&& "normalized".equalsIgnoreCase(servletRequest.getServletRequest().getParameter(SHAPE_PARAMETER));
+	}
+}
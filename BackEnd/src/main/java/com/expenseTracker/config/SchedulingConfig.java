@@ -0,0 +1,10 @@
+package com.expenseTracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+//@Scheduled jobs run on Boot's taskScheduler (spring.task.scheduling.*)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,7 @@
 package com.expenseTracker.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.*;
@@ -17,10 +19,15 @@ import com.expenseTracker.security.JwtAuthFilter;
 @Configuration
 public class SecurityConfig {
 
+    //BCrypt cost of stored passwords, shared with PasswordEncoderBenchmark
+    public static final int BCRYPT_STRENGTH = 10;
+
     private final JwtAuthFilter jwtFilter;
+    private final String adminRole;
 
-    public SecurityConfig(JwtAuthFilter jwtFilter) {
+    public SecurityConfig(JwtAuthFilter jwtFilter, @Value("${security.admin-role:ADMIN}") String adminRole) {
         this.jwtFilter = jwtFilter;
+        this.adminRole = adminRole;
     }
 
     @Bean
@@ -48,6 +55,10 @@ public class SecurityConfig {
 
         http.authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/**").permitAll()
+                //Scraped without a JWT; served only on management.server.port, which listens on an internal address
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                //Figures across every user
+                .requestMatchers("/perf").hasAuthority(adminRole)
                 .anyRequest().authenticated()
         );
 
@@ -65,6 +76,6 @@ public class SecurityConfig {
 
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(BCRYPT_STRENGTH);
     }
 }
@@ -0,0 +1,24 @@
+package com.expenseTracker.dto;
+
+public enum AggregateDimension {
+	CATEGORY("category"), PAYMENT_METHOD("paymentMethod"), CURRENCY("currency");
+
+	private final String param;
+
+	AggregateDimension(String param) {
+		this.param = param;
+	}
+
+	public String getParam() {
+		return param;
+	}
+
+	public static AggregateDimension from(String value) {
+		for (AggregateDimension dimension : values()) {
+			if (dimension.param.equalsIgnoreCase(value.trim()) || dimension.name().equalsIgnoreCase(value.trim())) {
+				return dimension;
+			}
+		}
+		throw new IllegalArgumentException("Unknown group by dimension: " + value);
+	}
+}
@@ -0,0 +1,80 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+
+//Immutable budget row, serializes to the same JSON as Budgets
+public class BudgetView {
+	private final Long id;
+	private final String userid;
+	private final CategoryView category;
+	private final String month;
+	private final YearMonth yearMonth;
+	private final BigDecimal amount;
+	private final String currency;
+	private final BigDecimal carriedOver;
+	private final Boolean rollOverEnabled;
+	private final Timestamp createdAt;
+
+	public BudgetView(Long id, String userid, Long categoryId, String categoryName, String colorCode,
+			Integer categoryIcon, String categoryUserid, String month, YearMonth yearMonth, BigDecimal amount,
+			String currency, BigDecimal carriedOver, Boolean rollOverEnabled, Timestamp createdAt) {
+		this.id = id;
+		this.userid = userid;
+		this.category = new CategoryView(categoryId, categoryName, colorCode, categoryIcon, categoryUserid);
+		this.month = month;
+		this.yearMonth = yearMonth;
+		this.amount = amount;
+		this.currency = currency;
+		this.carriedOver = carriedOver;
+		this.rollOverEnabled = rollOverEnabled;
+		this.createdAt = createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public CategoryView getCategory() {
+		return category;
+	}
+
+	public String getMonth() {
+		return month;
+	}
+
+	public YearMonth getYearMonth() {
+		return yearMonth;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public BigDecimal getCarriedOver() {
+		return carriedOver;
+	}
+
+	public Boolean getRollOverEnabled() {
+		return rollOverEnabled;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+
+	@Override
+	public String toString() {
+		return "BudgetView [id=" + id + ", userid=" + userid + ", category=" + category + ", month=" + month
+				+ ", amount=" + amount + ", currency=" + currency + ", rollOverEnabled=" + rollOverEnabled + "]";
+	}
+}
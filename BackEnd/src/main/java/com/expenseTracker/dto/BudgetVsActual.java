@@ -0,0 +1,52 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+//A month's budget for one category next to what was spent in it
+public class BudgetVsActual {
+	private final YearMonth yearMonth;
+	private final Long categoryId;
+	private final String categoryName;
+	private final BigDecimal budget;
+	private final String currency;
+	private final BigDecimal spent;
+
+	public BudgetVsActual(YearMonth yearMonth, Long categoryId, String categoryName, BigDecimal budget,
+			String currency, BigDecimal spent) {
+		this.yearMonth = yearMonth;
+		this.categoryId = categoryId;
+		this.categoryName = categoryName;
+		this.budget = budget;
+		this.currency = currency;
+		this.spent = spent;
+	}
+
+	public YearMonth getYearMonth() {
+		return yearMonth;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public String getCategoryName() {
+		return categoryName;
+	}
+
+	public BigDecimal getBudget() {
+		return budget;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public BigDecimal getSpent() {
+		return spent;
+	}
+
+	public BigDecimal getRemaining() {
+		return budget != null ? budget.subtract(spent) : null;
+	}
+}
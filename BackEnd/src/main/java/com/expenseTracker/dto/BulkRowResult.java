@@ -0,0 +1,49 @@
+package com.expenseTracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRowResult {
+	private int index;
+	private Long id;
+	private String error;
+
+	public BulkRowResult() {
+	}
+
+	public BulkRowResult(int index, Long id, String error) {
+		super();
+		this.index = index;
+		this.id = id;
+		this.error = error;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkRowResult [index=" + index + ", id=" + id + ", error=" + error + "]";
+	}
+}
@@ -0,0 +1,81 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+
+//Category row with this month's budget, same JSON shape as Categories
+public class CategoryBudgetView {
+	private Long id;
+	private String name;
+	private String colorCode;
+	private Integer categoryIcon;
+	private String userid;
+	private BigDecimal budget;
+
+	public CategoryBudgetView() {
+	}
+
+	public CategoryBudgetView(Long id, String name, String colorCode, Integer categoryIcon, String userid,
+			BigDecimal budget) {
+		super();
+		this.id = id;
+		this.name = name;
+		this.colorCode = colorCode;
+		this.categoryIcon = categoryIcon;
+		this.userid = userid;
+		this.budget = budget;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getColorCode() {
+		return colorCode;
+	}
+
+	public void setColorCode(String colorCode) {
+		this.colorCode = colorCode;
+	}
+
+	public Integer getCategoryIcon() {
+		return categoryIcon;
+	}
+
+	public void setCategoryIcon(Integer categoryIcon) {
+		this.categoryIcon = categoryIcon;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public void setUserid(String userid) {
+		this.userid = userid;
+	}
+
+	public BigDecimal getBudget() {
+		return budget;
+	}
+
+	public void setBudget(BigDecimal budget) {
+		this.budget = budget;
+	}
+
+	@Override
+	public String toString() {
+		return "CategoryBudgetView [id=" + id + ", name=" + name + ", colorCode=" + colorCode + ", categoryIcon="
+				+ categoryIcon + ", userid=" + userid + ", budget=" + budget + "]";
+	}
+}
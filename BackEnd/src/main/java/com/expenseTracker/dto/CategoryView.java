@@ -0,0 +1,44 @@
+package com.expenseTracker.dto;
+
+//Read only category nested in expense and budget views
+public class CategoryView {
+	private final Long id;
+	private final String name;
+	private final String colorCode;
+	private final Integer categoryIcon;
+	private final String userid;
+
+	public CategoryView(Long id, String name, String colorCode, Integer categoryIcon, String userid) {
+		this.id = id;
+		this.name = name;
+		this.colorCode = colorCode;
+		this.categoryIcon = categoryIcon;
+		this.userid = userid;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getColorCode() {
+		return colorCode;
+	}
+
+	public Integer getCategoryIcon() {
+		return categoryIcon;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	@Override
+	public String toString() {
+		return "CategoryView [id=" + id + ", name=" + name + ", colorCode=" + colorCode + ", categoryIcon="
+				+ categoryIcon + ", userid=" + userid + "]";
+	}
+}
@@ -0,0 +1,56 @@
+package com.expenseTracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One committed write, pushed to the owner's open event streams. The version
+ * is the user's new data version, the same value behind the read ETags. The id
+ * is left out when a write touched several rows.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+
+	public enum Type {
+		EXPENSE, BUDGET, CATEGORY, RECURRING, TAG
+	}
+
+	public enum Operation {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final String userid;
+	private final Type type;
+	private final Long id;
+	private final Operation op;
+	private final long version;
+
+	public ChangeEvent(String userid, Type type, Long id, Operation op, long version) {
+		this.userid = userid;
+		this.type = type;
+		this.id = id;
+		this.op = op;
+		this.version = version;
+	}
+
+	@JsonIgnore
+	public String getUserid() {
+		return userid;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Operation getOp() {
+		return op;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+}
@@ -0,0 +1,89 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseAggregate {
+	private LocalDate period;
+	private Long categoryId;
+	private String paymentMethod;
+	private String currency;
+	private BigDecimal total;
+	private long count;
+
+	public ExpenseAggregate() {
+	}
+
+	public ExpenseAggregate(LocalDate period, Long categoryId, String paymentMethod, String currency, BigDecimal total,
+			long count) {
+		super();
+		this.period = period;
+		this.categoryId = categoryId;
+		this.paymentMethod = paymentMethod;
+		this.currency = currency;
+		this.total = total;
+		this.count = count;
+	}
+
+	public void add(BigDecimal amount, long count) {
+		this.total = this.total == null ? amount : amount == null ? this.total : this.total.add(amount);
+		this.count += count;
+	}
+
+	public LocalDate getPeriod() {
+		return period;
+	}
+
+	public void setPeriod(LocalDate period) {
+		this.period = period;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public String getPaymentMethod() {
+		return paymentMethod;
+	}
+
+	public void setPaymentMethod(String paymentMethod) {
+		this.paymentMethod = paymentMethod;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public void setTotal(BigDecimal total) {
+		this.total = total;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpenseAggregate [period=" + period + ", categoryId=" + categoryId + ", paymentMethod=" + paymentMethod
+				+ ", currency=" + currency + ", total=" + total + ", count=" + count + "]";
+	}
+}
@@ -0,0 +1,78 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An expense in the normalized shape: the category is referenced by id and
+ * the user is given once for the whole list.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseRow {
+	private final Long id;
+	private final Long categoryId;
+	private final BigDecimal amount;
+	private final String currency;
+	private final LocalDateTime date;
+	private final String paymentMethod;
+	private final String notes;
+	private final Timestamp createdAt;
+	private final Timestamp updatedAt;
+	private final Boolean isRecurring;
+
+	public ExpenseRow(ExpenseView view) {
+		this.id = view.getId();
+		this.categoryId = view.getCategory() != null ? view.getCategory().getId() : null;
+		this.amount = view.getAmount();
+		this.currency = view.getCurrency();
+		this.date = view.getDate();
+		this.paymentMethod = view.getPaymentMethod();
+		this.notes = view.getNotes();
+		this.createdAt = view.getCreatedAt();
+		this.updatedAt = view.getUpdatedAt();
+		this.isRecurring = view.getIsRecurring();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	public String getPaymentMethod() {
+		return paymentMethod;
+	}
+
+	public String getNotes() {
+		return notes;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+
+	public Timestamp getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public Boolean getIsRecurring() {
+		return isRecurring;
+	}
+}
@@ -0,0 +1,102 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filters of an expense search, bound from query parameters. Filters left
+ * empty are not applied; list filters match any of their values. Both dates
+ * are inclusive whole days.
+ */
+public class ExpenseSearch {
+
+	private List<Long> categoryIds;
+	private List<String> paymentMethods;
+	private String currency;
+	private BigDecimal minAmount;
+	private BigDecimal maxAmount;
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate dateFrom;
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate dateTo;
+	private Boolean recurring;
+
+	public ExpenseSearch() {
+	}
+
+	public List<Long> getCategoryIds() {
+		return categoryIds;
+	}
+
+	public void setCategoryIds(List<Long> categoryIds) {
+		this.categoryIds = categoryIds;
+	}
+
+	public List<String> getPaymentMethods() {
+		return paymentMethods;
+	}
+
+	public void setPaymentMethods(List<String> paymentMethods) {
+		this.paymentMethods = paymentMethods;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public BigDecimal getMinAmount() {
+		return minAmount;
+	}
+
+	public void setMinAmount(BigDecimal minAmount) {
+		this.minAmount = minAmount;
+	}
+
+	public BigDecimal getMaxAmount() {
+		return maxAmount;
+	}
+
+	public void setMaxAmount(BigDecimal maxAmount) {
+		this.maxAmount = maxAmount;
+	}
+
+	public LocalDate getDateFrom() {
+		return dateFrom;
+	}
+
+	public void setDateFrom(LocalDate dateFrom) {
+		this.dateFrom = dateFrom;
+	}
+
+	public LocalDate getDateTo() {
+		return dateTo;
+	}
+
+	public void setDateTo(LocalDate dateTo) {
+		this.dateTo = dateTo;
+	}
+
+	public Boolean getRecurring() {
+		return recurring;
+	}
+
+	public void setRecurring(Boolean recurring) {
+		this.recurring = recurring;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpenseSearch [categoryIds=" + categoryIds + ", paymentMethods=" + paymentMethods + ", currency="
+				+ currency + ", minAmount=" + minAmount + ", maxAmount=" + maxAmount + ", dateFrom=" + dateFrom
+				+ ", dateTo=" + dateTo + ", recurring=" + recurring + "]";
+	}
+}
@@ -0,0 +1,91 @@
+package com.expenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable expense row for list endpoints, built straight from a JPQL
+ * constructor expression so no managed entity or dirty checking snapshot is
+ * created. Serializes to the same JSON as {@link com.expenseTracker.entity.Expenses}.
+ */
+public class ExpenseView {
+	private final Long id;
+	private final String userid;
+	private final CategoryView category;
+	private final BigDecimal amount;
+	private final String currency;
+	private final LocalDateTime date;
+	private final String paymentMethod;
+	private final String notes;
+	private final Timestamp createdAt;
+	private final Timestamp updatedAt;
+	private final Boolean isRecurring;
+
+	public ExpenseView(Long id, String userid, Long categoryId, String categoryName, String colorCode,
+			Integer categoryIcon, String categoryUserid, BigDecimal amount, String currency, LocalDateTime date,
+			String paymentMethod, String notes, Timestamp createdAt, Timestamp updatedAt, Boolean isRecurring) {
+		this.id = id;
+		this.userid = userid;
+		this.category = new CategoryView(categoryId, categoryName, colorCode, categoryIcon, categoryUserid);
+		this.amount = amount;
+		this.currency = currency;
+		this.date = date;
+		this.paymentMethod = paymentMethod;
+		this.notes = notes;
+		this.createdAt = createdAt;
+		this.updatedAt = updatedAt;
+		this.isRecurring = isRecurring;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public CategoryView getCategory() {
+		return category;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	public String getPaymentMethod() {
+		return paymentMethod;
+	}
+
+	public String getNotes() {
+		return notes;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+
+	public Timestamp getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public Boolean getIsRecurring() {
+		return isRecurring;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpenseView [id=" + id + ", userid=" + userid + ", category=" + category + ", amount=" + amount
+				+ ", currency=" + currency + ", date=" + date + ", paymentMethod=" + paymentMethod + ", notes="
+				+ notes + ", isRecurring=" + isRecurring + "]";
+	}
+}
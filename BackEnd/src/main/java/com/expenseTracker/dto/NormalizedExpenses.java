@@ -0,0 +1,46 @@
+package com.expenseTracker.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expense list with each category sent once. Requested with shape=normalized.
+ */
+public class NormalizedExpenses {
+	private final String userid;
+	private final List<CategoryView> categories;
+	private final List<ExpenseRow> expenses;
+
+	private NormalizedExpenses(String userid, List<CategoryView> categories, List<ExpenseRow> expenses) {
+		this.userid = userid;
+		this.categories = categories;
+		this.expenses = expenses;
+	}
+
+	public static NormalizedExpenses of(List<ExpenseView> views) {
+		Map<Long, CategoryView> categories = new LinkedHashMap<>();
+		List<ExpenseRow> expenses = new ArrayList<>(views.size());
+		for (ExpenseView view : views) {
+			if (view.getCategory() != null) {
+				categories.putIfAbsent(view.getCategory().getId(), view.getCategory());
+			}
+			expenses.add(new ExpenseRow(view));
+		}
+		String userid = views.isEmpty() ? null : views.get(0).getUserid();
+		return new NormalizedExpenses(userid, new ArrayList<>(categories.values()), expenses);
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public List<CategoryView> getCategories() {
+		return categories;
+	}
+
+	public List<ExpenseRow> getExpenses() {
+		return expenses;
+	}
+}
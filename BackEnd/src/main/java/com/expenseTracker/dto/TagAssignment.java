@@ -0,0 +1,46 @@
+package com.expenseTracker.dto;
+
+import java.util.List;
+
+/**
+ * Body of a bulk tag or untag request: every listed tag is put on, or taken
+ * off, every listed expense. All of them must belong to the user.
+ */
+public class TagAssignment {
+
+	private String userid;
+	private List<Long> expenseIds;
+	private List<Long> tagIds;
+
+	public TagAssignment() {
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public void setUserid(String userid) {
+		this.userid = userid;
+	}
+
+	public List<Long> getExpenseIds() {
+		return expenseIds;
+	}
+
+	public void setExpenseIds(List<Long> expenseIds) {
+		this.expenseIds = expenseIds;
+	}
+
+	public List<Long> getTagIds() {
+		return tagIds;
+	}
+
+	public void setTagIds(List<Long> tagIds) {
+		this.tagIds = tagIds;
+	}
+
+	@Override
+	public String toString() {
+		return "TagAssignment [userid=" + userid + ", expenseIds=" + expenseIds + ", tagIds=" + tagIds + "]";
+	}
+}
@@ -0,0 +1,29 @@
+package com.expenseTracker.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public enum TimeBucket {
+	DAY, WEEK, MONTH, YEAR;
+
+	public static TimeBucket from(String value) {
+		if (value == null || value.isBlank()) {
+			return MONTH;
+		}
+		return TimeBucket.valueOf(value.trim().toUpperCase());
+	}
+
+	//First day of the bucket the given date falls into, weeks start on Monday
+	public LocalDate truncate(LocalDate date) {
+		switch (this) {
+		case DAY:
+			return date;
+		case WEEK:
+			return date.with(DayOfWeek.MONDAY);
+		case MONTH:
+			return date.withDayOfMonth(1);
+		default:
+			return date.withDayOfYear(1);
+		}
+	}
+}
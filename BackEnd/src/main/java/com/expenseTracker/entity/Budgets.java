@@ -2,16 +2,21 @@ package com.expenseTracker.entity;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.YearMonth;
 
+import com.expenseTracker.resources.BudgetMonth;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
@@ -27,9 +32,18 @@ public class Budgets {
 	@JoinColumn(name="category_id", referencedColumnName="id")
 	private Categories category;
 	private String month;
+	
+	//yyyymm in the database, the indexed form of month
+	@Convert(converter = YearMonthKeyConverter.class)
+	@Column(name="month_key", nullable = false)
+	private YearMonth yearMonth;
 	private BigDecimal amount;
 	private String currency;
 	
+	//Part of amount carried over from last month's unspent budget
+	@Column(name="carried_over")
+	private BigDecimal carriedOver;
+	
 	@Column(name="rollover_enabled")
 	private Boolean rollOverEnabled;
 	
@@ -101,6 +115,14 @@ public class Budgets {
 		this.month = month;
 	}
 
+	public YearMonth getYearMonth() {
+		return yearMonth;
+	}
+
+	public void setYearMonth(YearMonth yearMonth) {
+		this.yearMonth = yearMonth;
+	}
+
 	public BigDecimal getAmount() {
 		return amount;
 	}
@@ -109,6 +131,14 @@ public class Budgets {
 		this.amount = amount;
 	}
 
+	public BigDecimal getCarriedOver() {
+		return carriedOver;
+	}
+
+	public void setCarriedOver(BigDecimal carriedOver) {
+		this.carriedOver = carriedOver;
+	}
+
 	public Boolean getRollOverEnabled() {
 		return rollOverEnabled;
 	}
@@ -125,6 +155,23 @@ public class Budgets {
 		this.createdAt = createdAt;
 	}
 
+	//Clients may send either form; yearMonth wins and the label is rewritten from it
+	@PrePersist
+	@PreUpdate
+	void syncMonth() {
+		if (yearMonth == null) {
+			yearMonth = BudgetMonth.parse(month);
+		}
+		if (yearMonth == null) {
+			throw new IllegalArgumentException("Unrecognised budget month: " + month);
+		}
+		month = BudgetMonth.label(yearMonth);
+		//An amount set by hand is all base, nothing in it is carried
+		if (carriedOver == null) {
+			carriedOver = BigDecimal.ZERO;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "Budgets [id=" + id + ", userid=" + userid + ", category=" + category + ", month=" + month + ", amount="
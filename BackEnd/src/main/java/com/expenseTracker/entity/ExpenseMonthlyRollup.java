@@ -0,0 +1,123 @@
+package com.expenseTracker.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "expense_monthly_rollup")
+@IdClass(ExpenseMonthlyRollupId.class)
+public class ExpenseMonthlyRollup {
+
+	@Id
+	@Column(name = "userid", nullable = false)
+	private String userid;
+
+	//Calendar month as yyyymm, e.g. 202602
+	@Id
+	@Column(name = "month_key", nullable = false)
+	private Integer monthKey;
+
+	@Id
+	@Column(name = "category_id", nullable = false)
+	private Long categoryId;
+
+	//Empty string when the expense has no payment method, key columns cannot be null
+	@Id
+	@Column(name = "payment_method", nullable = false)
+	private String paymentMethod;
+
+	//Empty string when the expense has no currency, which counts as the user's default currency
+	@Id
+	@Column(name = "currency", nullable = false)
+	private String currency;
+
+	@Column(name = "total_amount", precision = 38, scale = 2)
+	private BigDecimal totalAmount;
+
+	@Column(name = "expense_count")
+	private Long expenseCount;
+
+	public ExpenseMonthlyRollup() {
+	}
+
+	public ExpenseMonthlyRollup(String userid, Integer monthKey, Long categoryId, String paymentMethod,
+			String currency, BigDecimal totalAmount, Long expenseCount) {
+		super();
+		this.userid = userid;
+		this.monthKey = monthKey;
+		this.categoryId = categoryId;
+		this.paymentMethod = paymentMethod;
+		this.currency = currency;
+		this.totalAmount = totalAmount;
+		this.expenseCount = expenseCount;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public void setUserid(String userid) {
+		this.userid = userid;
+	}
+
+	public Integer getMonthKey() {
+		return monthKey;
+	}
+
+	public void setMonthKey(Integer monthKey) {
+		this.monthKey = monthKey;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public String getPaymentMethod() {
+		return paymentMethod;
+	}
+
+	public void setPaymentMethod(String paymentMethod) {
+		this.paymentMethod = paymentMethod;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	public void setTotalAmount(BigDecimal totalAmount) {
+		this.totalAmount = totalAmount;
+	}
+
+	public Long getExpenseCount() {
+		return expenseCount;
+	}
+
+	public void setExpenseCount(Long expenseCount) {
+		this.expenseCount = expenseCount;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpenseMonthlyRollup [userid=" + userid + ", monthKey=" + monthKey + ", categoryId=" + categoryId
+				+ ", paymentMethod=" + paymentMethod + ", currency=" + currency + ", totalAmount=" + totalAmount
+				+ ", expenseCount="
+				+ expenseCount + "]";
+	}
+}
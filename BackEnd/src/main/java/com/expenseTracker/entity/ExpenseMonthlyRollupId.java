@@ -0,0 +1,41 @@
+package com.expenseTracker.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ExpenseMonthlyRollupId implements Serializable {
+
+    private String userid;
+    private Integer monthKey;
+    private Long categoryId;
+    private String paymentMethod;
+    private String currency;
+
+    public ExpenseMonthlyRollupId() {}
+
+    public ExpenseMonthlyRollupId(String userid, Integer monthKey, Long categoryId, String paymentMethod,
+            String currency) {
+        this.userid = userid;
+        this.monthKey = monthKey;
+        this.categoryId = categoryId;
+        this.paymentMethod = paymentMethod;
+        this.currency = currency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExpenseMonthlyRollupId)) return false;
+        ExpenseMonthlyRollupId that = (ExpenseMonthlyRollupId) o;
+        return Objects.equals(userid, that.userid) &&
+               Objects.equals(monthKey, that.monthKey) &&
+               Objects.equals(categoryId, that.categoryId) &&
+               Objects.equals(paymentMethod, that.paymentMethod) &&
+               Objects.equals(currency, that.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userid, monthKey, categoryId, paymentMethod, currency);
+    }
+}
@@ -5,12 +5,12 @@ import java.util.Objects;
 
 public class ExpenseTagId implements Serializable {
 
-    private String expenseId;
+    private Long expenseId;
     private Long tagId;
 
     public ExpenseTagId() {}
 
-    public ExpenseTagId(String expenseId, Long tagId) {
+    public ExpenseTagId(Long expenseId, Long tagId) {
         this.expenseId = expenseId;
         this.tagId = tagId;
     }
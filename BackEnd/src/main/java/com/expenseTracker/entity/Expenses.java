@@ -2,6 +2,7 @@ package com.expenseTracker.entity;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.UpdateTimestamp;
@@ -47,6 +48,15 @@ public class Expenses {
 	@Column(name="is_recurring")
 	private Boolean isRecurring;
 	
+	//Set on expenses added by a recurring rule, unique together so an occurrence is added once; never read from requests
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Column(name="recurring_id", updatable = false)
+	private Long recurringId;
+	
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Column(name="occurrence", updatable = false)
+	private LocalDate occurrence;
+	
 	//Jackson mapping: categoryId -> Categories.id
     @JsonProperty("categoryId")
     public void setCategoryId(Long categoryId) {
@@ -163,6 +173,22 @@ public class Expenses {
 		this.isRecurring = isRecurring;
 	}
 
+	public Long getRecurringId() {
+		return recurringId;
+	}
+
+	public void setRecurringId(Long recurringId) {
+		this.recurringId = recurringId;
+	}
+
+	public LocalDate getOccurrence() {
+		return occurrence;
+	}
+
+	public void setOccurrence(LocalDate occurrence) {
+		this.occurrence = occurrence;
+	}
+
 	@Override
 	public String toString() {
 		return "Expenses [id=" + id + ", userid=" + userid + ", category=" + category + ", amount=" + amount
@@ -0,0 +1,68 @@
+package com.expenseTracker.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "fx_rates")
+@IdClass(FxRateId.class)
+public class FxRate {
+
+	//ISO 4217 code, upper case
+	@Id
+	@Column(name = "currency", nullable = false, length = 3)
+	private String currency;
+
+	@Id
+	@Column(name = "rate_date", nullable = false)
+	private LocalDate rateDate;
+
+	//Units of this currency per one unit of the base currency (fx.base-currency)
+	@Column(name = "units_per_base", nullable = false, precision = 20, scale = 8)
+	private BigDecimal unitsPerBase;
+
+	public FxRate() {
+	}
+
+	public FxRate(String currency, LocalDate rateDate, BigDecimal unitsPerBase) {
+		super();
+		this.currency = currency;
+		this.rateDate = rateDate;
+		this.unitsPerBase = unitsPerBase;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public LocalDate getRateDate() {
+		return rateDate;
+	}
+
+	public void setRateDate(LocalDate rateDate) {
+		this.rateDate = rateDate;
+	}
+
+	public BigDecimal getUnitsPerBase() {
+		return unitsPerBase;
+	}
+
+	public void setUnitsPerBase(BigDecimal unitsPerBase) {
+		this.unitsPerBase = unitsPerBase;
+	}
+
+	@Override
+	public String toString() {
+		return "FxRate [currency=" + currency + ", rateDate=" + rateDate + ", unitsPerBase=" + unitsPerBase + "]";
+	}
+}
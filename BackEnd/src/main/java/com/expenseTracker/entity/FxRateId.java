@@ -0,0 +1,32 @@
+package com.expenseTracker.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class FxRateId implements Serializable {
+
+    private String currency;
+    private LocalDate rateDate;
+
+    public FxRateId() {}
+
+    public FxRateId(String currency, LocalDate rateDate) {
+        this.currency = currency;
+        this.rateDate = rateDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FxRateId)) return false;
+        FxRateId that = (FxRateId) o;
+        return Objects.equals(currency, that.currency) &&
+               Objects.equals(rateDate, that.rateDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(currency, rateDate);
+    }
+}
@@ -0,0 +1,228 @@
+package com.expenseTracker.entity;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.expenseTracker.resources.Recurrence;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * A rule that adds the same expense every intervalMonths months on
+ * dayOfMonth, from startDate until endDate. nextDue is the first occurrence
+ * not yet added, null once the rule has ended.
+ */
+@Entity
+@Table(name="recurring_expenses")
+public class RecurringExpenses {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	private String userid;
+
+	@ManyToOne
+	@JoinColumn(name="category_id", referencedColumnName="id")
+	private Categories category;
+	private BigDecimal amount;
+	private String currency;
+
+	@Column(name="payment_method")
+	private String paymentMethod;
+	private String notes;
+
+	@Column(name="interval_months")
+	private Integer intervalMonths;
+
+	@Column(name="day_of_month")
+	private Integer dayOfMonth;
+
+	@Column(name="start_date")
+	private LocalDate startDate;
+
+	@Column(name="end_date")
+	private LocalDate endDate;
+
+	@Column(name="next_due")
+	private LocalDate nextDue;
+
+	@Column(name="created_at", insertable = false, updatable = false)
+	private Timestamp createdAt;
+
+	@UpdateTimestamp
+	@Column(name="updated_at")
+	private Timestamp updatedAt;
+
+	//Jackson mapping: categoryId -> Categories.id
+	@JsonProperty("categoryId")
+	public void setCategoryId(Long categoryId) {
+		if (this.category == null) {
+			this.category = new Categories();
+		}
+		this.category.setId(categoryId);
+	}
+
+	public RecurringExpenses() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public void setUserid(String userid) {
+		this.userid = userid;
+	}
+
+	public Categories getCategory() {
+		return category;
+	}
+
+	public void setCategory(Categories category) {
+		this.category = category;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public void setAmount(BigDecimal amount) {
+		this.amount = amount;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public String getPaymentMethod() {
+		return paymentMethod;
+	}
+
+	public void setPaymentMethod(String paymentMethod) {
+		this.paymentMethod = paymentMethod;
+	}
+
+	public String getNotes() {
+		return notes;
+	}
+
+	public void setNotes(String notes) {
+		this.notes = notes;
+	}
+
+	public Integer getIntervalMonths() {
+		return intervalMonths;
+	}
+
+	public void setIntervalMonths(Integer intervalMonths) {
+		this.intervalMonths = intervalMonths;
+	}
+
+	public Integer getDayOfMonth() {
+		return dayOfMonth;
+	}
+
+	public void setDayOfMonth(Integer dayOfMonth) {
+		this.dayOfMonth = dayOfMonth;
+	}
+
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(LocalDate startDate) {
+		this.startDate = startDate;
+	}
+
+	public LocalDate getEndDate() {
+		return endDate;
+	}
+
+	public void setEndDate(LocalDate endDate) {
+		this.endDate = endDate;
+	}
+
+	public LocalDate getNextDue() {
+		return nextDue;
+	}
+
+	public void setNextDue(LocalDate nextDue) {
+		this.nextDue = nextDue;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Timestamp createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Timestamp getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Timestamp updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	//Fills in the defaults and the first due date, and ends the rule once it is past endDate
+	@PrePersist
+	@PreUpdate
+	void schedule() {
+		if (amount == null) {
+			throw new IllegalArgumentException("amount is required");
+		}
+		if (startDate == null) {
+			startDate = LocalDate.now();
+		}
+		if (intervalMonths == null) {
+			intervalMonths = 1;
+		}
+		if (dayOfMonth == null) {
+			dayOfMonth = startDate.getDayOfMonth();
+		}
+		if (intervalMonths < 1 || dayOfMonth < 1 || dayOfMonth > 31) {
+			throw new IllegalArgumentException("Invalid recurrence: every " + intervalMonths + " months on day "
+					+ dayOfMonth);
+		}
+		if (id == null && nextDue == null) {
+			nextDue = Recurrence.firstOnOrAfter(startDate, dayOfMonth);
+		}
+		if (nextDue != null && endDate != null && nextDue.isAfter(endDate)) {
+			nextDue = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RecurringExpenses [id=" + id + ", userid=" + userid + ", category=" + category + ", amount=" + amount
+				+ ", currency=" + currency + ", paymentMethod=" + paymentMethod + ", notes=" + notes
+				+ ", intervalMonths=" + intervalMonths + ", dayOfMonth=" + dayOfMonth + ", startDate=" + startDate
+				+ ", endDate=" + endDate + ", nextDue=" + nextDue + "]";
+	}
+}
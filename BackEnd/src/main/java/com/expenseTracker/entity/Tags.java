@@ -0,0 +1,82 @@
+package com.expenseTracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+@Entity
+@Table(name = "tags")
+public class Tags {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	private String name;
+
+	@Column(name = "color_code")
+	private String colorCode;
+	private String userid;
+
+	@Transient
+	private Long expenseCount;
+
+	public Tags() {
+	}
+
+	public Tags(Long id, String name, String colorCode, String userid) {
+		super();
+		this.id = id;
+		this.name = name;
+		this.colorCode = colorCode;
+		this.userid = userid;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getColorCode() {
+		return colorCode;
+	}
+
+	public void setColorCode(String colorCode) {
+		this.colorCode = colorCode;
+	}
+
+	public String getUserid() {
+		return userid;
+	}
+
+	public void setUserid(String userid) {
+		this.userid = userid;
+	}
+
+	public Long getExpenseCount() {
+		return expenseCount;
+	}
+
+	public void setExpenseCount(Long expenseCount) {
+		this.expenseCount = expenseCount;
+	}
+
+	@Override
+	public String toString() {
+		return "Tags [id=" + id + ", name=" + name + ", colorCode=" + colorCode + ", userid=" + userid + "]";
+	}
+}
@@ -0,0 +1,23 @@
+package com.expenseTracker.entity;
+
+import java.time.YearMonth;
+
+import com.expenseTracker.resources.BudgetMonth;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+//Stores a YearMonth as an int yyyymm, so month ranges are plain integer ranges
+@Converter
+public class YearMonthKeyConverter implements AttributeConverter<YearMonth, Integer> {
+
+	@Override
+	public Integer convertToDatabaseColumn(YearMonth month) {
+		return month != null ? BudgetMonth.key(month) : null;
+	}
+
+	@Override
+	public YearMonth convertToEntityAttribute(Integer key) {
+		return key != null ? BudgetMonth.fromKey(key) : null;
+	}
+}
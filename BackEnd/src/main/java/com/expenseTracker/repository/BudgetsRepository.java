@@ -1,21 +1,72 @@
 package com.expenseTracker.repository;
 
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.expenseTracker.dto.BudgetView;
 import com.expenseTracker.entity.Budgets;
 
 @Repository
-public interface BudgetsRepository extends JpaRepository<Budgets, Long>{
+public interface BudgetsRepository extends JpaRepository<Budgets, Long>, BudgetsRepositoryCustom {
+
+	String BUDGET_VIEW = "select new com.expenseTracker.dto.BudgetView(b.id, b.userid, c.id, c.name, c.colorCode, "
+			+ "c.categoryIcon, c.userid, b.month, b.yearMonth, b.amount, b.currency, b.carriedOver, b.rollOverEnabled, "
+			+ "b.createdAt) from Budgets b join b.category c ";
 
 	List<Budgets> findByUserid(String userId);
 
 	Budgets findByCategory_IdAndUserid(Long id, String userid);
 
-	List<Budgets> findByUseridAndMonth(String userId, String currentMonth);
+	List<Budgets> findByUseridAndYearMonth(String userId, YearMonth month);
+
+	Budgets findByCategory_IdAndUseridAndYearMonth(Long id, String userid, YearMonth month);
+
+	@Query(BUDGET_VIEW + "where b.userid = :userId and b.yearMonth = :month")
+	List<BudgetView> findViewsByUseridAndYearMonth(String userId, YearMonth month);
+
+	//One range scan of idx_budgets_user_month_category
+	@Query(BUDGET_VIEW + "where b.userid = :userId and b.yearMonth between :fromMonth and :toMonth "
+			+ "order by b.yearMonth, c.id")
+	List<BudgetView> findViewsByUseridAndYearMonthBetween(String userId, YearMonth fromMonth, YearMonth toMonth);
+
+	/**
+	 * The budget side of budget against spend, one range scan of
+	 * (userid, month_key, category_id). Spend comes from the rollup separately
+	 * since it has to be converted per currency first. Rows are month_key,
+	 * category_id, category name, budget, currency.
+	 */
+	@Query(value = "SELECT b.month_key, b.category_id, c.name, b.amount, b.currency FROM budgets b "
+			+ "JOIN categories c ON c.id = b.category_id "
+			+ "WHERE b.userid = :userId AND b.month_key BETWEEN :fromKey AND :toKey "
+			+ "ORDER BY b.month_key, b.category_id", nativeQuery = true)
+	List<Object[]> findBudgetVsActual(@Param("userId") String userId, @Param("fromKey") int fromKey,
+			@Param("toKey") int toKey);
+
+	//Users with a budget in the month that the month close has not checkpointed yet
+	@Query(value = "SELECT DISTINCT b.userid FROM budgets b WHERE b.month_key = :monthKey AND NOT EXISTS "
+			+ "(SELECT 1 FROM budget_rollover_checkpoint k WHERE k.month_key = :monthKey AND k.userid = b.userid) "
+			+ "ORDER BY b.userid", nativeQuery = true)
+	List<String> findUseridsToRollOver(@Param("monthKey") int monthKey);
 
-	Budgets findByCategory_IdAndUseridAndMonth(Long id, String userid, String currentMonth);
+	/**
+	 * The month's budgets of the given users with what was spent against
+	 * them, one row per currency spent in. Rows are userid, category_id,
+	 * amount, carried_over, currency, rollover_enabled, spent currency ('' for
+	 * the user's default, null when nothing was spent), spent.
+	 */
+	@Query(value = "SELECT b.userid, b.category_id, b.amount, b.carried_over, b.currency, b.rollover_enabled, "
+			+ "r.currency, COALESCE(SUM(r.total_amount), 0) FROM budgets b "
+			+ "LEFT JOIN expense_monthly_rollup r ON r.userid = b.userid AND r.month_key = b.month_key "
+			+ "AND r.category_id = b.category_id "
+			+ "WHERE b.month_key = :monthKey AND b.userid IN (:userids) "
+			+ "GROUP BY b.id, b.userid, b.category_id, b.amount, b.carried_over, b.currency, b.rollover_enabled, "
+			+ "r.currency ORDER BY b.id",
+			nativeQuery = true)
+	List<Object[]> findWithSpentForUsers(@Param("monthKey") int monthKey, @Param("userids") List<String> userids);
 
 }
@@ -0,0 +1,13 @@
+package com.expenseTracker.repository;
+
+import java.util.List;
+
+import com.expenseTracker.entity.Budgets;
+
+public interface BudgetsRepositoryCustom {
+
+	//JDBC batches; a budget whose (userid, month_key, category_id) already exists is left as it is
+	void insertIfAbsent(List<Budgets> budgets, int batchSize);
+
+	void markRolledOver(int monthKey, List<String> userids);
+}
@@ -0,0 +1,52 @@
+package com.expenseTracker.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.expenseTracker.entity.Budgets;
+import com.expenseTracker.resources.BudgetMonth;
+
+/**
+ * Spring Data fragment for {@link BudgetsRepository} with the month close
+ * writes. Both are idempotent, so a chunk replayed after a crash is harmless.
+ */
+public class BudgetsRepositoryImpl implements BudgetsRepositoryCustom {
+
+	//The no-op update keeps a budget the user already set for the month
+	private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO budgets (userid, category_id, month, month_key, "
+			+ "amount, carried_over, currency, rollover_enabled) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+			+ "ON DUPLICATE KEY UPDATE id = id";
+
+	private static final String CHECKPOINT_SQL = "INSERT INTO budget_rollover_checkpoint (month_key, userid) "
+			+ "VALUES (?, ?) ON DUPLICATE KEY UPDATE userid = userid";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public BudgetsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void insertIfAbsent(List<Budgets> budgets, int batchSize) {
+		jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, budgets, batchSize, (ps, budget) -> {
+			ps.setString(1, budget.getUserid());
+			ps.setLong(2, budget.getCategory().getId());
+			ps.setString(3, BudgetMonth.label(budget.getYearMonth()));
+			ps.setInt(4, BudgetMonth.key(budget.getYearMonth()));
+			ps.setBigDecimal(5, budget.getAmount());
+			ps.setBigDecimal(6, budget.getCarriedOver() != null ? budget.getCarriedOver() : BigDecimal.ZERO);
+			ps.setString(7, budget.getCurrency());
+			ps.setBoolean(8, Boolean.TRUE.equals(budget.getRollOverEnabled()));
+		});
+	}
+
+	@Override
+	public void markRolledOver(int monthKey, List<String> userids) {
+		jdbcTemplate.batchUpdate(CHECKPOINT_SQL, userids, userids.size(), (ps, userid) -> {
+			ps.setInt(1, monthKey);
+			ps.setString(2, userid);
+		});
+	}
+}
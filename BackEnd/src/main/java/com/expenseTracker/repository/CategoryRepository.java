@@ -1,10 +1,14 @@
 package com.expenseTracker.repository;
 
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.expenseTracker.dto.CategoryBudgetView;
 import com.expenseTracker.entity.Categories;
 
 @Repository
@@ -12,5 +16,12 @@ public interface CategoryRepository extends JpaRepository<Categories, Long> {
 
 	List<Categories> findByUserid(String userId);
 
-	
+	@Query("select new com.expenseTracker.dto.CategoryBudgetView(c.id, c.name, c.colorCode, c.categoryIcon, c.userid, b.amount) "
+			+ "from Categories c left join Budgets b on b.category.id = c.id and b.userid = c.userid and b.yearMonth = :month "
+			+ "where c.userid = :userId order by c.id")
+	List<CategoryBudgetView> findWithBudgetByUserid(String userId, YearMonth month);
+
+	//Pairs of (id, userid) for ownership checks
+	@Query("select c.id, c.userid from Categories c where c.id in :ids")
+	List<Object[]> findOwners(Collection<Long> ids);
 }
@@ -0,0 +1,55 @@
+package com.expenseTracker.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.expenseTracker.entity.ExpenseMonthlyRollup;
+import com.expenseTracker.entity.ExpenseMonthlyRollupId;
+
+public interface ExpenseRollupRepository extends JpaRepository<ExpenseMonthlyRollup, ExpenseMonthlyRollupId> {
+
+	//Empty string stands for the user's default currency
+	@Query("select distinct r.currency from ExpenseMonthlyRollup r "
+			+ "where r.userid = :userId and r.monthKey between :fromKey and :toKey")
+	List<String> findCurrencies(@Param("userId") String userId, @Param("fromKey") Integer fromKey,
+			@Param("toKey") Integer toKey);
+
+	List<ExpenseMonthlyRollup> findByUseridAndMonthKeyBetweenOrderByMonthKey(String userid, Integer fromMonth,
+			Integer toMonth);
+
+	@Modifying
+	@Query(value = "INSERT INTO expense_monthly_rollup (userid, month_key, category_id, payment_method, currency, "
+			+ "total_amount, expense_count) VALUES (:userid, :monthKey, :categoryId, :paymentMethod, :currency, :amount, :count) "
+			+ "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), "
+			+ "expense_count = expense_count + VALUES(expense_count)", nativeQuery = true)
+	int applyDelta(@Param("userid") String userid, @Param("monthKey") Integer monthKey,
+			@Param("categoryId") Long categoryId, @Param("paymentMethod") String paymentMethod,
+			@Param("currency") String currency, @Param("amount") BigDecimal amount, @Param("count") Long count);
+
+	@Modifying
+	@Query(value = "DELETE FROM expense_monthly_rollup WHERE userid = :userid AND month_key = :monthKey "
+			+ "AND category_id = :categoryId AND payment_method = :paymentMethod AND currency = :currency "
+			+ "AND expense_count <= 0", nativeQuery = true)
+	int deleteIfEmpty(@Param("userid") String userid, @Param("monthKey") Integer monthKey,
+			@Param("categoryId") Long categoryId, @Param("paymentMethod") String paymentMethod,
+			@Param("currency") String currency);
+
+	@Modifying
+	@Query(value = "DELETE FROM expense_monthly_rollup WHERE userid = :userid", nativeQuery = true)
+	int deleteByUserid(@Param("userid") String userid);
+
+	@Modifying
+	@Query(value = "INSERT INTO expense_monthly_rollup (userid, month_key, category_id, payment_method, currency, "
+			+ "total_amount, expense_count) "
+			+ "SELECT userid, YEAR(date) * 100 + MONTH(date), category_id, COALESCE(payment_method, ''), "
+			+ "COALESCE(currency, ''), COALESCE(SUM(amount), 0), COUNT(*) FROM expenses "
+			+ "WHERE userid = :userid AND date IS NOT NULL "
+			+ "GROUP BY userid, YEAR(date) * 100 + MONTH(date), category_id, COALESCE(payment_method, ''), "
+			+ "COALESCE(currency, '')", nativeQuery = true)
+	int rebuildForUser(@Param("userid") String userid);
+}
@@ -0,0 +1,17 @@
+package com.expenseTracker.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.expenseTracker.entity.ExpenseTag;
+import com.expenseTracker.entity.ExpenseTagId;
+
+public interface ExpenseTagsRepository extends JpaRepository<ExpenseTag, ExpenseTagId>, ExpenseTagsRepositoryCustom {
+
+	//(tag id, expense id) in ascending order, so each tag's bitmap is filled from its lowest id up
+	@Query("select et.tagId, et.expenseId from ExpenseTag et, Tags t where t.id = et.tagId and t.userid = :userId "
+			+ "order by et.tagId, et.expenseId")
+	List<Object[]> findPairsByUserid(String userId);
+}
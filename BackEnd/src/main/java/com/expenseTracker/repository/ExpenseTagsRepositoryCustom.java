@@ -0,0 +1,11 @@
+package com.expenseTracker.repository;
+
+import java.util.List;
+
+public interface ExpenseTagsRepositoryCustom {
+
+	//Puts every tag on every expense; pairs that already exist are left alone
+	void attach(List<Long> expenseIds, List<Long> tagIds, int batchSize);
+
+	void detach(List<Long> expenseIds, List<Long> tagIds, int batchSize);
+}
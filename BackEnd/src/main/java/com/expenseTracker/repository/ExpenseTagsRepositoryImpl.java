@@ -0,0 +1,47 @@
+package com.expenseTracker.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Spring Data fragment for {@link ExpenseTagsRepository} with the bulk tag
+ * writes, one JDBC batch per request instead of a persist per pair.
+ */
+public class ExpenseTagsRepositoryImpl implements ExpenseTagsRepositoryCustom {
+
+	private static final String ATTACH_SQL = "INSERT INTO expense_tags (expense_id, tag_id) VALUES (?, ?) "
+			+ "ON DUPLICATE KEY UPDATE tag_id = tag_id";
+
+	private static final String DETACH_SQL = "DELETE FROM expense_tags WHERE expense_id = ? AND tag_id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ExpenseTagsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void attach(List<Long> expenseIds, List<Long> tagIds, int batchSize) {
+		write(ATTACH_SQL, expenseIds, tagIds, batchSize);
+	}
+
+	@Override
+	public void detach(List<Long> expenseIds, List<Long> tagIds, int batchSize) {
+		write(DETACH_SQL, expenseIds, tagIds, batchSize);
+	}
+
+	private void write(String sql, List<Long> expenseIds, List<Long> tagIds, int batchSize) {
+		List<long[]> pairs = new ArrayList<>(expenseIds.size() * tagIds.size());
+		for (Long expenseId : expenseIds) {
+			for (Long tagId : tagIds) {
+				pairs.add(new long[] { expenseId, tagId });
+			}
+		}
+		jdbcTemplate.batchUpdate(sql, pairs, batchSize, (ps, pair) -> {
+			ps.setLong(1, pair[0]);
+			ps.setLong(2, pair[1]);
+		});
+	}
+}
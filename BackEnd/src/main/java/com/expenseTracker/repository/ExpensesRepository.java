@@ -1,15 +1,18 @@
 package com.expenseTracker.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.expenseTracker.dto.ExpenseView;
 import com.expenseTracker.entity.Expenses;
 
-public interface ExpensesRepository extends JpaRepository<Expenses, Long> {
+public interface ExpensesRepository extends JpaRepository<Expenses, Long>, ExpensesRepositoryCustom {
     List<Expenses> findByUserid(String userid);
 
 	Page<Expenses> findByUserid(String userId, Pageable pageable);
@@ -17,4 +20,64 @@ public interface ExpensesRepository extends JpaRepository<Expenses, Long> {
 	List<Expenses> findByUseridAndDateAfter(String userId, LocalDateTime sixMonthsAgo);
 
 	List<Expenses> findByUseridAndDateBetween(String userId, LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+	//Read model projection: one query with the category joined, no managed entities
+	String EXPENSE_VIEW = "select new com.expenseTracker.dto.ExpenseView(e.id, e.userid, c.id, c.name, c.colorCode, "
+			+ "c.categoryIcon, c.userid, e.amount, e.currency, e.date, e.paymentMethod, e.notes, e.createdAt, "
+			+ "e.updatedAt, e.isRecurring) from Expenses e join e.category c ";
+
+	@Query(EXPENSE_VIEW + "where e.userid = :userId and e.date > :after")
+	List<ExpenseView> findViewsByUseridAndDateAfter(String userId, LocalDateTime after);
+
+	@Query(EXPENSE_VIEW + "where e.userid = :userId and e.date between :startDate and :endDate")
+	List<ExpenseView> findViewsByUseridAndDateBetween(String userId, LocalDateTime startDate, LocalDateTime endDate);
+
+	@Query(EXPENSE_VIEW + "where e.userid = :userId order by e.date desc, e.id desc")
+	List<ExpenseView> findViewPage(String userId, Pageable pageable);
+
+	@Query(EXPENSE_VIEW + "where e.userid = :userId and e.date is not null order by e.date desc, e.id desc")
+	List<ExpenseView> findFirstViewPage(String userId, Pageable limit);
+
+	//Keyset seeks on (userid, date, id), which idx_expenses_user_date covers since InnoDB appends the primary key
+	@Query(EXPENSE_VIEW + "where e.userid = :userId and (e.date < :date or (e.date = :date and e.id < :id)) "
+			+ "order by e.date desc, e.id desc")
+	List<ExpenseView> findPageAfter(String userId, LocalDateTime date, Long id, Pageable limit);
+
+	@Query(EXPENSE_VIEW + "where e.userid = :userId and (e.date > :date or (e.date = :date and e.id > :id)) "
+			+ "order by e.date asc, e.id asc")
+	List<ExpenseView> findPageBefore(String userId, LocalDateTime date, Long id, Pageable limit);
+
+	@Query(EXPENSE_VIEW + "where e.userid = :userId and e.id in :ids")
+	List<ExpenseView> findViewsByUseridAndIds(String userId, Collection<Long> ids);
+
+	//(id, date, category id, notes) rows for the notes index
+	@Query("select e.id, e.date, e.category.id, e.notes from Expenses e where e.userid = :userId and e.notes is not null")
+	List<Object[]> findNotesByUserid(String userId);
+
+	@Query("select e.id, e.date, e.category.id, e.notes from Expenses e where e.userid = :userId and e.id in :ids")
+	List<Object[]> findNotesByUseridAndIds(String userId, Collection<Long> ids);
+
+	//(id, date, amount, category id, payment method, currency) rows for the analytics columns, oldest first
+	@Query("select e.id, e.date, e.amount, e.category.id, e.paymentMethod, e.currency from Expenses e "
+			+ "where e.userid = :userId and e.date is not null order by e.date, e.id")
+	List<Object[]> findColumnsByUserid(String userId);
+
+	@Query("select e.id, e.date, e.amount, e.category.id, e.paymentMethod, e.currency from Expenses e "
+			+ "where e.userid = :userId and e.id in :ids")
+	List<Object[]> findColumnsByUseridAndIds(String userId, Collection<Long> ids);
+
+	long countByUserid(String userId);
+
+	//Every expense and those with a date, in one pass over idx_expenses_user_date
+	@Query("select count(e), count(e.date) from Expenses e where e.userid = :userId")
+	List<Object[]> countAllAndDatedByUserid(String userId);
+
+	//Every id of the user's expenses, read from idx_expenses_user_date alone
+	@Query("select e.id from Expenses e where e.userid = :userId order by e.id")
+	List<Long> findIdsByUserid(String userId);
+
+	long countByUseridAndIdIn(String userId, Collection<Long> ids);
+
+	@Query("select distinct e.userid from Expenses e where e.userid is not null")
+	List<String> findDistinctUserids();
+}
\ No newline at end of file
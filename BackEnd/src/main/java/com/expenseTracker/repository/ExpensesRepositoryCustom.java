@@ -0,0 +1,33 @@
+package com.expenseTracker.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.ExpenseSearch;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.resources.PageCursor;
+
+public interface ExpensesRepositoryCustom {
+
+	List<ExpenseAggregate> aggregate(String userId, LocalDateTime startDate, LocalDateTime endDate, TimeBucket bucket,
+			Set<AggregateDimension> dimensions);
+
+	//One page in (date desc, id desc) order, seeking from the cursor when there is one
+	List<ExpenseView> search(String userId, ExpenseSearch search, PageCursor from, boolean backward, int limit);
+
+	long countSearch(String userId, ExpenseSearch search);
+
+	//Inserts through JDBC batches and sets the generated ids on the given expenses; the recurring rule
+	//and occurrence are only written when occurrences is set, for expenses a rule added
+	void batchInsert(List<Expenses> expenses, int batchSize, boolean occurrences);
+
+	//Must run inside a transaction; each row is detached once the consumer returns. On MySQL the rows
+	//stream one at a time and fetchSize is not used, so the consumer must not run queries
+	void forEachByUserid(String userId, int fetchSize, Consumer<Expenses> consumer);
+}
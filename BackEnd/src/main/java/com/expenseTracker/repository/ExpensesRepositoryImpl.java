@@ -0,0 +1,277 @@
+package com.expenseTracker.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.ExpenseSearch;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.resources.PageCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Spring Data fragment for {@link ExpensesRepository}. Builds the GROUP BY
+ * dynamically so only the requested dimensions reach the database and the
+ * range predicate stays on idx_expenses_user_date.
+ *
+ * Searches likewise only carry the filters that were set, so each filter
+ * combination is its own statement and the database can pick the index that
+ * fits it: idx_expenses_user_category_date for a category, the payment method
+ * one for a method, idx_expenses_user_date otherwise.
+ */
+public class ExpensesRepositoryImpl implements ExpensesRepositoryCustom {
+
+	private static final String INSERT_SQL = "INSERT INTO expenses (userid, category_id, amount, currency, date, "
+			+ "payment_method, notes, is_recurring, recurring_id, occurrence, updated_at) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	//Connector/J's row by row streaming mode
+	private static final int MYSQL_STREAMING = Integer.MIN_VALUE;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ExpensesRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public List<ExpenseAggregate> aggregate(String userId, LocalDateTime startDate, LocalDateTime endDate,
+			TimeBucket bucket, Set<AggregateDimension> dimensions) {
+		List<String> keys = new ArrayList<>();
+		keys.add("extract(year from e.date)");
+		if (bucket != TimeBucket.YEAR) {
+			keys.add("extract(month from e.date)");
+		}
+		//Weeks can straddle months and years, so they are grouped per day and folded below
+		if (bucket == TimeBucket.DAY || bucket == TimeBucket.WEEK) {
+			keys.add("extract(day from e.date)");
+		}
+		if (dimensions.contains(AggregateDimension.CATEGORY)) {
+			keys.add("e.category.id");
+		}
+		if (dimensions.contains(AggregateDimension.PAYMENT_METHOD)) {
+			keys.add("e.paymentMethod");
+		}
+		if (dimensions.contains(AggregateDimension.CURRENCY)) {
+			keys.add("e.currency");
+		}
+
+		String groupBy = String.join(", ", keys);
+		String jpql = "select " + groupBy + ", sum(e.amount), count(e) from Expenses e"
+				+ " where e.userid = :userId and e.date >= :startDate and e.date < :endDate"
+				+ " group by " + groupBy + " order by " + groupBy;
+
+		List<Object[]> rows = em.createQuery(jpql, Object[].class)
+				.setParameter("userId", userId)
+				.setParameter("startDate", startDate)
+				.setParameter("endDate", endDate)
+				.getResultList();
+
+		return fold(rows, bucket, dimensions);
+	}
+
+	/**
+	 * Turns grouped rows (date keys, then the requested dimensions, then sum and
+	 * count) into one aggregate per bucket, merging rows that share a bucket.
+	 */
+	public static List<ExpenseAggregate> fold(List<Object[]> rows, TimeBucket bucket,
+			Set<AggregateDimension> dimensions) {
+		int dateKeys = bucket == TimeBucket.YEAR ? 1 : bucket == TimeBucket.MONTH ? 2 : 3;
+		Map<List<Object>, ExpenseAggregate> result = new LinkedHashMap<>();
+		for (Object[] row : rows) {
+			int year = ((Number) row[0]).intValue();
+			int month = dateKeys > 1 ? ((Number) row[1]).intValue() : 1;
+			int day = dateKeys > 2 ? ((Number) row[2]).intValue() : 1;
+			LocalDate period = bucket.truncate(LocalDate.of(year, month, day));
+
+			int col = dateKeys;
+			Long categoryId = dimensions.contains(AggregateDimension.CATEGORY) ? (Long) row[col++] : null;
+			String paymentMethod = dimensions.contains(AggregateDimension.PAYMENT_METHOD) ? (String) row[col++] : null;
+			String currency = dimensions.contains(AggregateDimension.CURRENCY) ? (String) row[col++] : null;
+			BigDecimal total = (BigDecimal) row[col++];
+			long count = ((Number) row[col]).longValue();
+
+			List<Object> key = Arrays.asList(period, categoryId, paymentMethod, currency);
+			result.computeIfAbsent(key,
+					k -> new ExpenseAggregate(period, categoryId, paymentMethod, currency, BigDecimal.ZERO, 0))
+					.add(total, count);
+		}
+		return new ArrayList<>(result.values());
+	}
+
+	@Override
+	public List<ExpenseView> search(String userId, ExpenseSearch search, PageCursor from, boolean backward,
+			int limit) {
+		Map<String, Object> params = new LinkedHashMap<>();
+		StringBuilder where = where(userId, search, params);
+		if (from != null) {
+			where.append(backward ? " and (e.date > :cursorDate or (e.date = :cursorDate and e.id > :cursorId))"
+					: " and (e.date < :cursorDate or (e.date = :cursorDate and e.id < :cursorId))");
+			params.put("cursorDate", from.getDate());
+			params.put("cursorId", from.getId());
+		}
+		String order = backward ? " order by e.date asc, e.id asc" : " order by e.date desc, e.id desc";
+		TypedQuery<ExpenseView> query = em.createQuery(ExpensesRepository.EXPENSE_VIEW + where + order,
+				ExpenseView.class);
+		params.forEach(query::setParameter);
+		return query.setMaxResults(limit).getResultList();
+	}
+
+	@Override
+	public long countSearch(String userId, ExpenseSearch search) {
+		Map<String, Object> params = new LinkedHashMap<>();
+		StringBuilder where = where(userId, search, params);
+		TypedQuery<Long> query = em.createQuery("select count(e) from Expenses e " + where, Long.class);
+		params.forEach(query::setParameter);
+		return query.getSingleResult();
+	}
+
+	//Dates are required for the (date, id) cursor, as in the cursor paged list
+	private static StringBuilder where(String userId, ExpenseSearch search, Map<String, Object> params) {
+		StringBuilder where = new StringBuilder("where e.userid = :userId and e.date is not null");
+		params.put("userId", userId);
+		if (search.getCategoryIds() != null && !search.getCategoryIds().isEmpty()) {
+			where.append(" and e.category.id in :categoryIds");
+			params.put("categoryIds", search.getCategoryIds());
+		}
+		if (search.getPaymentMethods() != null && !search.getPaymentMethods().isEmpty()) {
+			where.append(" and e.paymentMethod in :paymentMethods");
+			params.put("paymentMethods", search.getPaymentMethods());
+		}
+		if (search.getCurrency() != null && !search.getCurrency().isEmpty()) {
+			where.append(" and e.currency = :currency");
+			params.put("currency", search.getCurrency());
+		}
+		if (search.getMinAmount() != null) {
+			where.append(" and e.amount >= :minAmount");
+			params.put("minAmount", search.getMinAmount());
+		}
+		if (search.getMaxAmount() != null) {
+			where.append(" and e.amount <= :maxAmount");
+			params.put("maxAmount", search.getMaxAmount());
+		}
+		if (search.getDateFrom() != null) {
+			where.append(" and e.date >= :dateFrom");
+			params.put("dateFrom", search.getDateFrom().atStartOfDay());
+		}
+		if (search.getDateTo() != null) {
+			where.append(" and e.date < :dateTo");
+			params.put("dateTo", search.getDateTo().plusDays(1).atStartOfDay());
+		}
+		if (Boolean.TRUE.equals(search.getRecurring())) {
+			where.append(" and e.isRecurring = true");
+		} else if (Boolean.FALSE.equals(search.getRecurring())) {
+			where.append(" and (e.isRecurring = false or e.isRecurring is null)");
+		}
+		return where;
+	}
+
+	@Override
+	public void forEachByUserid(String userId, int fetchSize, Consumer<Expenses> consumer) {
+		//Read only entities skip the dirty checking snapshot, the category join avoids a select per category
+		try (Stream<Expenses> rows = em.createQuery(
+				"select e from Expenses e join fetch e.category where e.userid = :userId order by e.date desc, e.id desc",
+				Expenses.class)
+				.setParameter("userId", userId)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, isMySql() ? MYSQL_STREAMING : fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream()) {
+			rows.forEach(expense -> {
+				consumer.accept(expense);
+				em.detach(expense);
+			});
+		}
+	}
+
+	/**
+	 * Connector/J buffers a whole result set unless told otherwise. A fetch size
+	 * of Integer.MIN_VALUE makes it stream this one statement row by row, which
+	 * leaves the pool's driver settings and every other query alone. The
+	 * connection cannot run another statement until the rows are read, so the
+	 * consumer must not query.
+	 */
+	private boolean isMySql() {
+		return em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices()
+				.getDialect() instanceof MySQLDialect;
+	}
+
+	//IDENTITY ids stop Hibernate from batching inserts, so bulk loads go through plain JDBC batches
+	@Override
+	public void batchInsert(List<Expenses> expenses, int batchSize, boolean occurrences) {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		for (int from = 0; from < expenses.size(); from += batchSize) {
+			List<Expenses> batch = expenses.subList(from, Math.min(from + batchSize, expenses.size()));
+			KeyHolder keys = new GeneratedKeyHolder();
+			jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							Expenses expense = batch.get(i);
+							ps.setString(1, expense.getUserid());
+							ps.setLong(2, expense.getCategory().getId());
+							ps.setBigDecimal(3, expense.getAmount());
+							ps.setString(4, expense.getCurrency());
+							ps.setTimestamp(5, expense.getDate() != null ? Timestamp.valueOf(expense.getDate()) : null);
+							ps.setString(6, expense.getPaymentMethod());
+							ps.setString(7, expense.getNotes());
+							if (expense.getIsRecurring() != null) {
+								ps.setBoolean(8, expense.getIsRecurring());
+							} else {
+								ps.setNull(8, Types.BOOLEAN);
+							}
+							if (occurrences && expense.getRecurringId() != null) {
+								ps.setLong(9, expense.getRecurringId());
+							} else {
+								ps.setNull(9, Types.BIGINT);
+							}
+							ps.setDate(10, occurrences && expense.getOccurrence() != null
+									? Date.valueOf(expense.getOccurrence())
+									: null);
+							ps.setTimestamp(11, now);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return batch.size();
+						}
+					}, keys);
+			List<Map<String, Object>> generated = keys.getKeyList();
+			for (int i = 0; i < batch.size() && i < generated.size(); i++) {
+				Object id = generated.get(i).values().iterator().next();
+				batch.get(i).setId(((Number) id).longValue());
+			}
+		}
+	}
+}
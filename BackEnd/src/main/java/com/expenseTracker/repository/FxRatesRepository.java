@@ -0,0 +1,16 @@
+package com.expenseTracker.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.expenseTracker.entity.FxRate;
+import com.expenseTracker.entity.FxRateId;
+
+public interface FxRatesRepository extends JpaRepository<FxRate, FxRateId>, FxRatesRepositoryCustom {
+
+	//Rows are currency, rate date, units per base, in the order the rate table is built in
+	@Query("select r.currency, r.rateDate, r.unitsPerBase from FxRate r order by r.currency, r.rateDate")
+	List<Object[]> findAllOrdered();
+}
@@ -0,0 +1,11 @@
+package com.expenseTracker.repository;
+
+import java.util.List;
+
+import com.expenseTracker.entity.FxRate;
+
+public interface FxRatesRepositoryCustom {
+
+	//Inserts the rates, replacing the ones already stored for the same currency and day
+	void upsert(List<FxRate> rates, int batchSize);
+}
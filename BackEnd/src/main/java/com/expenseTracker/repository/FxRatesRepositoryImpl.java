@@ -0,0 +1,33 @@
+package com.expenseTracker.repository;
+
+import java.sql.Date;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.expenseTracker.entity.FxRate;
+
+/**
+ * Spring Data fragment for {@link FxRatesRepository}. A rates file holds
+ * years of days for every currency, so it goes in as JDBC batches.
+ */
+public class FxRatesRepositoryImpl implements FxRatesRepositoryCustom {
+
+	private static final String UPSERT_SQL = "INSERT INTO fx_rates (currency, rate_date, units_per_base) "
+			+ "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE units_per_base = VALUES(units_per_base)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public FxRatesRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void upsert(List<FxRate> rates, int batchSize) {
+		jdbcTemplate.batchUpdate(UPSERT_SQL, rates, batchSize, (ps, rate) -> {
+			ps.setString(1, rate.getCurrency());
+			ps.setDate(2, Date.valueOf(rate.getRateDate()));
+			ps.setBigDecimal(3, rate.getUnitsPerBase());
+		});
+	}
+}
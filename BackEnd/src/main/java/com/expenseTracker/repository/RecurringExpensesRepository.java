@@ -0,0 +1,25 @@
+package com.expenseTracker.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.expenseTracker.entity.RecurringExpenses;
+
+public interface RecurringExpensesRepository extends JpaRepository<RecurringExpenses, Long>, RecurringExpensesRepositoryCustom {
+
+	@Query("select r from RecurringExpenses r join fetch r.category where r.userid = :userId order by r.id")
+	List<RecurringExpenses> findByUserid(String userId);
+
+	//Range scan on idx_recurring_next_due; ended rules have no due date and are never read
+	@Query("select r from RecurringExpenses r join fetch r.category where r.nextDue <= :today order by r.nextDue, r.id")
+	List<RecurringExpenses> findDue(LocalDate today, Pageable limit);
+
+	//The due rules after (afterDue, afterId), so rules a run could not add stay behind it
+	@Query("select r from RecurringExpenses r join fetch r.category where r.nextDue <= :today "
+			+ "and (r.nextDue > :afterDue or (r.nextDue = :afterDue and r.id > :afterId)) order by r.nextDue, r.id")
+	List<RecurringExpenses> findDueAfter(LocalDate today, LocalDate afterDue, Long afterId, Pageable limit);
+}
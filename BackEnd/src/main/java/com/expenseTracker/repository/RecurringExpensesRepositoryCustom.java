@@ -0,0 +1,12 @@
+package com.expenseTracker.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.expenseTracker.entity.RecurringExpenses;
+
+public interface RecurringExpensesRepositoryCustom {
+
+	//Moves each rule from its current nextDue to the given date; 0 for a rule another run already moved
+	int[] advance(List<RecurringExpenses> rules, List<LocalDate> nextDue);
+}
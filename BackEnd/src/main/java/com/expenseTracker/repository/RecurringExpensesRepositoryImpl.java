@@ -0,0 +1,51 @@
+package com.expenseTracker.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.expenseTracker.entity.RecurringExpenses;
+
+/**
+ * Spring Data fragment for {@link RecurringExpensesRepository}. The update
+ * only matches while next_due still holds the value that was read, so of two
+ * runs claiming the same occurrence only one gets a row count.
+ */
+public class RecurringExpensesRepositoryImpl implements RecurringExpensesRepositoryCustom {
+
+	private static final String ADVANCE_SQL = "UPDATE recurring_expenses SET next_due = ? WHERE id = ? AND next_due = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public RecurringExpensesRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public int[] advance(List<RecurringExpenses> rules, List<LocalDate> nextDue) {
+		return jdbcTemplate.batchUpdate(ADVANCE_SQL, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				LocalDate next = nextDue.get(i);
+				if (next != null) {
+					ps.setDate(1, Date.valueOf(next));
+				} else {
+					ps.setNull(1, Types.DATE);
+				}
+				ps.setLong(2, rules.get(i).getId());
+				ps.setDate(3, Date.valueOf(rules.get(i).getNextDue()));
+			}
+
+			@Override
+			public int getBatchSize() {
+				return rules.size();
+			}
+		});
+	}
+}
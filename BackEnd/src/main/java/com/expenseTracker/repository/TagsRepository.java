@@ -0,0 +1,19 @@
+package com.expenseTracker.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.expenseTracker.entity.Tags;
+
+public interface TagsRepository extends JpaRepository<Tags, Long> {
+
+	List<Tags> findByUseridOrderByName(String userId);
+
+	boolean existsByUseridAndNameAndIdNot(String userId, String name, Long id);
+
+	boolean existsByUseridAndName(String userId, String name);
+
+	long countByUseridAndIdIn(String userId, Collection<Long> ids);
+}
@@ -1,11 +1,21 @@
 package com.expenseTracker.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.expenseTracker.entity.User;
 
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUserid(String userid);
+
+    @Query("select u.defaultCurrency from User u where u.userid = :userid")
+    String findDefaultCurrencyByUserid(String userid);
+
+    //Rows are userid, default currency
+    @Query("select u.userid, u.defaultCurrency from User u where u.userid in :userids")
+    List<Object[]> findDefaultCurrencies(Collection<String> userids);
 }
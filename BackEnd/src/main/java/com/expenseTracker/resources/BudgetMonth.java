@@ -0,0 +1,50 @@
+package com.expenseTracker.resources;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Budget months as yyyymm keys and as the "MMMM yyyy" labels the client shows.
+ * Labels are always English, whatever the server locale.
+ */
+public final class BudgetMonth {
+
+	private static final DateTimeFormatter LABEL = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+
+	//"February 2026", "Feb 2026" or "2026-02", case-insensitive
+	private static final DateTimeFormatter PARSER = new DateTimeFormatterBuilder().parseCaseInsensitive()
+			.appendOptional(LABEL)
+			.appendOptional(DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH))
+			.appendOptional(DateTimeFormatter.ofPattern("yyyy-MM"))
+			.toFormatter(Locale.ENGLISH);
+
+	private BudgetMonth() {
+	}
+
+	public static String label(YearMonth month) {
+		return month.format(LABEL);
+	}
+
+	//Null when the text is not a month
+	public static YearMonth parse(String text) {
+		if (text == null || text.isBlank()) {
+			return null;
+		}
+		try {
+			return YearMonth.parse(text.trim(), PARSER);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	public static int key(YearMonth month) {
+		return month.getYear() * 100 + month.getMonthValue();
+	}
+
+	public static YearMonth fromKey(int key) {
+		return YearMonth.of(key / 100, key % 100);
+	}
+}
@@ -0,0 +1,50 @@
+package com.expenseTracker.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.expenseTracker.dto.ExpenseView;
+
+/**
+ * Position of an expense in (date, id) order, handed to clients as an opaque
+ * base64url string so the next page can seek instead of skip.
+ */
+public final class PageCursor {
+
+	private final LocalDateTime date;
+	private final Long id;
+
+	public PageCursor(LocalDateTime date, Long id) {
+		this.date = date;
+		this.id = id;
+	}
+
+	public static PageCursor of(ExpenseView expense) {
+		return new PageCursor(expense.getDate(), expense.getId());
+	}
+
+	public static PageCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = raw.lastIndexOf('|');
+			return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+					Long.valueOf(raw.substring(separator + 1)));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+
+	public String encode() {
+		String raw = date + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	public Long getId() {
+		return id;
+	}
+}
@@ -1,11 +1,19 @@
 package com.expenseTracker.resources;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class Paging {
 	private int page;
     private int size;
     private long totalElements;
     private int totalPages;
     
+    //Only set for cursor paging, -1 totals mean the count was not requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String prevCursor;
+    
     public Paging() {
     }
     
@@ -41,4 +49,16 @@ public class Paging {
 	public void setTotalPages(int totalPages) {
 		this.totalPages = totalPages;
 	}
+	public String getNextCursor() {
+		return nextCursor;
+	}
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+	public String getPrevCursor() {
+		return prevCursor;
+	}
+	public void setPrevCursor(String prevCursor) {
+		this.prevCursor = prevCursor;
+	}
 }
@@ -0,0 +1,29 @@
+package com.expenseTracker.resources;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Due dates of a monthly recurrence: every intervalMonths months on
+ * dayOfMonth. A day past the end of a short month falls on its last day, and
+ * the following months go back to the rule's own day.
+ */
+public final class Recurrence {
+
+	private Recurrence() {
+	}
+
+	public static LocalDate on(YearMonth month, int dayOfMonth) {
+		return month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+	}
+
+	//First due date on or after the given date
+	public static LocalDate firstOnOrAfter(LocalDate from, int dayOfMonth) {
+		LocalDate due = on(YearMonth.from(from), dayOfMonth);
+		return due.isBefore(from) ? on(YearMonth.from(from).plusMonths(1), dayOfMonth) : due;
+	}
+
+	public static LocalDate next(LocalDate due, int intervalMonths, int dayOfMonth) {
+		return on(YearMonth.from(due).plusMonths(intervalMonths), dayOfMonth);
+	}
+}
@@ -0,0 +1,240 @@
+package com.expenseTracker.resources;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.expenseTracker.cache.IdBitmap;
+
+/**
+ * A boolean filter over tag names, such as
+ * {@code travel AND (food OR taxi) AND NOT reimbursed}.
+ *
+ * AND, OR and NOT are case insensitive and may also be written as &amp;, |
+ * and !. Tags written next to each other are ANDed, AND binds tighter than
+ * OR, and a name with spaces or operator characters goes in double quotes.
+ */
+public final class TagExpression {
+
+	private static final int MAX_LENGTH = 1000;
+
+	private final Node root;
+	private final Set<String> names;
+
+	private TagExpression(Node root, Set<String> names) {
+		this.root = root;
+		this.names = names;
+	}
+
+	public static TagExpression parse(String text) {
+		if (text == null || text.isBlank()) {
+			throw new IllegalArgumentException("Tag expression is empty");
+		}
+		if (text.length() > MAX_LENGTH) {
+			throw new IllegalArgumentException("Tag expression is longer than " + MAX_LENGTH + " characters");
+		}
+		Parser parser = new Parser(tokenize(text));
+		Node root = parser.or();
+		if (parser.pos < parser.tokens.size()) {
+			throw new IllegalArgumentException("Unexpected " + parser.tokens.get(parser.pos) + " in tag expression");
+		}
+		return new TagExpression(root, parser.names);
+	}
+
+	public Set<String> names() {
+		return names;
+	}
+
+	/**
+	 * Evaluates against a bitmap per tag name and the bitmap of all of the
+	 * user's expenses, which NOT is taken against.
+	 */
+	public IdBitmap evaluate(Function<String, IdBitmap> tag, IdBitmap all) {
+		return root.evaluate(tag, all);
+	}
+
+	private interface Node {
+		IdBitmap evaluate(Function<String, IdBitmap> tag, IdBitmap all);
+	}
+
+	private static final class Name implements Node {
+		private final String name;
+
+		Name(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public IdBitmap evaluate(Function<String, IdBitmap> tag, IdBitmap all) {
+			return tag.apply(name);
+		}
+	}
+
+	private static final class Not implements Node {
+		private final Node operand;
+
+		Not(Node operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		public IdBitmap evaluate(Function<String, IdBitmap> tag, IdBitmap all) {
+			return all.andNot(operand.evaluate(tag, all));
+		}
+	}
+
+	//Negated operands are subtracted from the others instead of complemented first
+	private static final class And implements Node {
+		private final List<Node> operands;
+
+		And(List<Node> operands) {
+			this.operands = operands;
+		}
+
+		@Override
+		public IdBitmap evaluate(Function<String, IdBitmap> tag, IdBitmap all) {
+			IdBitmap result = null;
+			List<Node> negated = new ArrayList<>();
+			for (Node operand : operands) {
+				if (operand instanceof Not not) {
+					negated.add(not.operand);
+				} else {
+					IdBitmap bitmap = operand.evaluate(tag, all);
+					result = result == null ? bitmap : result.and(bitmap);
+				}
+			}
+			if (result == null) {
+				result = all;
+			}
+			for (Node operand : negated) {
+				result = result.andNot(operand.evaluate(tag, all));
+			}
+			return result;
+		}
+	}
+
+	private static final class Or implements Node {
+		private final List<Node> operands;
+
+		Or(List<Node> operands) {
+			this.operands = operands;
+		}
+
+		@Override
+		public IdBitmap evaluate(Function<String, IdBitmap> tag, IdBitmap all) {
+			IdBitmap result = operands.get(0).evaluate(tag, all);
+			for (int i = 1; i < operands.size(); i++) {
+				result = result.or(operands.get(i).evaluate(tag, all));
+			}
+			return result;
+		}
+	}
+
+	//Operators come out as AND, OR, NOT, ( and ); names as "name"
+	private static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		int i = 0;
+		while (i < text.length()) {
+			char c = text.charAt(i);
+			if (Character.isWhitespace(c)) {
+				i++;
+			} else if (c == '(' || c == ')') {
+				tokens.add(String.valueOf(c));
+				i++;
+			} else if (c == '&' || c == '|') {
+				tokens.add(c == '&' ? "AND" : "OR");
+				i += i + 1 < text.length() && text.charAt(i + 1) == c ? 2 : 1;
+			} else if (c == '!') {
+				tokens.add("NOT");
+				i++;
+			} else if (c == '"') {
+				int end = text.indexOf('"', i + 1);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unclosed quote in tag expression");
+				}
+				tokens.add("\"" + text.substring(i + 1, end));
+				i = end + 1;
+			} else {
+				int end = i;
+				while (end < text.length() && !Character.isWhitespace(text.charAt(end))
+						&& "()&|!\"".indexOf(text.charAt(end)) < 0) {
+					end++;
+				}
+				String word = text.substring(i, end);
+				String keyword = word.toUpperCase(Locale.ROOT);
+				tokens.add(keyword.equals("AND") || keyword.equals("OR") || keyword.equals("NOT") ? keyword : "\"" + word);
+				i = end;
+			}
+		}
+		return tokens;
+	}
+
+	private static final class Parser {
+		private final List<String> tokens;
+		private final Set<String> names = new LinkedHashSet<>();
+		private int pos;
+
+		Parser(List<String> tokens) {
+			this.tokens = tokens;
+		}
+
+		Node or() {
+			List<Node> operands = new ArrayList<>();
+			operands.add(and());
+			while (accept("OR")) {
+				operands.add(and());
+			}
+			return operands.size() == 1 ? operands.get(0) : new Or(operands);
+		}
+
+		Node and() {
+			List<Node> operands = new ArrayList<>();
+			operands.add(unary());
+			while (accept("AND") || startsOperand()) {
+				operands.add(unary());
+			}
+			return operands.size() == 1 ? operands.get(0) : new And(operands);
+		}
+
+		Node unary() {
+			if (accept("NOT")) {
+				Node operand = unary();
+				return operand instanceof Not not ? not.operand : new Not(operand);
+			}
+			if (accept("(")) {
+				Node inner = or();
+				if (!accept(")")) {
+					throw new IllegalArgumentException("Missing ) in tag expression");
+				}
+				return inner;
+			}
+			if (pos < tokens.size() && tokens.get(pos).startsWith("\"")) {
+				String name = tokens.get(pos++).substring(1).trim();
+				if (name.isEmpty()) {
+					throw new IllegalArgumentException("Empty tag name in tag expression");
+				}
+				names.add(name);
+				return new Name(name);
+			}
+			throw new IllegalArgumentException(pos < tokens.size()
+					? "Unexpected " + tokens.get(pos) + " in tag expression"
+					: "Tag expression ends too early");
+		}
+
+		private boolean startsOperand() {
+			return pos < tokens.size() && (tokens.get(pos).equals("NOT") || tokens.get(pos).equals("(")
+					|| tokens.get(pos).startsWith("\""));
+		}
+
+		private boolean accept(String token) {
+			if (pos < tokens.size() && tokens.get(pos).equals(token)) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -8,7 +8,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 
 import com.expenseTracker.service.JwtService;
-import com.expenseTracker.service.UserLoginImpl;
+import com.expenseTracker.service.StreamTicketService;
 
 import java.io.IOException;
 
@@ -16,11 +16,14 @@ import java.io.IOException;
 public class JwtAuthFilter extends GenericFilter {
 
 	private final JwtService jwtService;
-	private final UserLoginImpl userDetailsService;
+	private final UserPrincipalCache principalCache;
+	private final StreamTicketService ticketService;
 
-	public JwtAuthFilter(JwtService jwtService, UserLoginImpl userDetailsService) {
+	public JwtAuthFilter(JwtService jwtService, UserPrincipalCache principalCache,
+			StreamTicketService ticketService) {
 		this.jwtService = jwtService;
-		this.userDetailsService = userDetailsService;
+		this.principalCache = principalCache;
+		this.ticketService = ticketService;
 	}
 
 	@Override
@@ -33,11 +36,14 @@ public class JwtAuthFilter extends GenericFilter {
 		String auth = request.getHeader("Authorization");
 
 		try {
-			if (auth != null && auth.startsWith("Bearer ")) {
-				String token = auth.substring(7);
-				String username = jwtService.extractUsername(token);
-
-				var userDetails = userDetailsService.loadUserByUsername(username);
+			String username = jwtService.resolveUsername(auth);
+			//A browser EventSource cannot set headers, so the event stream also takes a single use ticket
+			if (username == null && auth == null && "GET".equals(request.getMethod())
+					&& (request.getContextPath() + "/events").equals(request.getRequestURI())) {
+				username = ticketService.redeem(request.getParameter("ticket"));
+			}
+			if (username != null) {
+				var userDetails = principalCache.load(username);
 
 				var authToken = new UsernamePasswordAuthenticationToken(userDetails, null,
 						userDetails.getAuthorities());
@@ -0,0 +1,59 @@
+package com.expenseTracker.security;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.service.UserLoginImpl;
+
+/**
+ * Principals resolved by {@link JwtAuthFilter}, so an authenticated request
+ * does not need a users SELECT. Entries are dropped when the user is changed
+ * through UserController and otherwise expire after the TTL.
+ */
+@Component
+public class UserPrincipalCache {
+
+	private final UserLoginImpl userDetailsService;
+	private final BoundedTtlCache<String, UserDetails> cache;
+
+	public UserPrincipalCache(UserLoginImpl userDetailsService,
+			@Value("${security.principal-cache.max-size:10000}") int maxSize,
+			@Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+		this.userDetailsService = userDetailsService;
+		this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+	}
+
+	public UserDetails load(String userid) {
+		return cache.get(userid, userDetailsService::loadUserByUsername);
+	}
+
+	public void invalidate(String userid) {
+		if (userid != null) {
+			cache.invalidate(userid);
+		}
+	}
+
+	public BoundedTtlCache<String, UserDetails> getCache() {
+		return cache;
+	}
+
+	public long getHits() {
+		return cache.getHits();
+	}
+
+	public long getMisses() {
+		return cache.getMisses();
+	}
+
+	public long getEvictions() {
+		return cache.getEvictions();
+	}
+
+	public Map<String, Object> stats() {
+		return cache.stats();
+	}
+}
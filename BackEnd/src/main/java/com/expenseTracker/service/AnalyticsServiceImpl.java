@@ -0,0 +1,103 @@
+package com.expenseTracker.service;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.repository.ExpensesRepository;
+import com.expenseTracker.resources.ResponseModel;
+
+@Service
+public class AnalyticsServiceImpl {
+
+	private final ExpensesRepository eRepo;
+	private final ExpenseRollupServiceImpl rollupService;
+	private final FxServiceImpl fxService;
+	private final ExpenseColumnsServiceImpl columnsService;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+	public AnalyticsServiceImpl(ExpensesRepository eRepo, ExpenseRollupServiceImpl rollupService,
+			FxServiceImpl fxService, ExpenseColumnsServiceImpl columnsService) {
+		this.eRepo = eRepo;
+		this.rollupService = rollupService;
+		this.fxService = fxService;
+		this.columnsService = columnsService;
+	}
+
+	@Transactional(readOnly = true)
+	public ResponseModel getAggregates(String userId, String bucket, List<String> groupBy, LocalDate startDate,
+			LocalDate endDate) {
+		ResponseModel response = new ResponseModel();
+		try {
+			TimeBucket timeBucket = TimeBucket.from(bucket);
+			Set<AggregateDimension> dimensions = EnumSet.noneOf(AggregateDimension.class);
+			if (groupBy != null) {
+				for (String dimension : groupBy) {
+					dimensions.add(AggregateDimension.from(dimension));
+				}
+			}
+			//Defaults to the six months window the dashboard shows, end date is inclusive
+			LocalDate start = startDate != null ? startDate : LocalDate.now().minusMonths(5).withDayOfMonth(1);
+			LocalDate end = endDate != null ? endDate : LocalDate.now();
+			if (end.isBefore(start)) {
+				response.setErrors("End date cannot be before start date");
+				return response;
+			}
+
+			response.setData(aggregate(userId, start, end, timeBucket, dimensions));
+		} catch (Exception e) {
+			response.setErrors("Failed in getAggregates: " + e);
+			LOGGER.error("Failed in getAggregates: " + e);
+		}
+		return response;
+	}
+
+	/**
+	 * Grouped by currency the amounts stay as they were spent. Otherwise they
+	 * are summed in the user's default currency: the rollup tells whether the
+	 * range has anything else in it, and only then is it read per day and
+	 * converted at each day's rate.
+	 */
+	private List<ExpenseAggregate> aggregate(String userId, LocalDate start, LocalDate end, TimeBucket bucket,
+			Set<AggregateDimension> dimensions) {
+		if (dimensions.contains(AggregateDimension.CURRENCY)) {
+			return read(userId, start, end, bucket, dimensions);
+		}
+		String currency = fxService.defaultCurrency(userId);
+		List<String> spentIn = columnsService.getCurrencies(userId);
+		if (spentIn == null) {
+			spentIn = rollupService.getCurrencies(userId, start.withDayOfMonth(1), end.withDayOfMonth(1));
+		}
+		if (FxServiceImpl.allIn(spentIn, currency, currency)) {
+			List<ExpenseAggregate> aggregates = read(userId, start, end, bucket, dimensions);
+			for (ExpenseAggregate aggregate : aggregates) {
+				aggregate.setCurrency(currency);
+			}
+			return aggregates;
+		}
+		Set<AggregateDimension> byCurrency = EnumSet.of(AggregateDimension.CURRENCY);
+		byCurrency.addAll(dimensions);
+		List<ExpenseAggregate> days = read(userId, start, end, TimeBucket.DAY, byCurrency);
+		return fxService.convert(days, currency, currency, bucket);
+	}
+
+	//From the in-memory columns when they can answer, otherwise one grouped query
+	private List<ExpenseAggregate> read(String userId, LocalDate start, LocalDate end, TimeBucket bucket,
+			Set<AggregateDimension> dimensions) {
+		List<ExpenseAggregate> aggregates = columnsService.aggregate(userId, start, end, bucket, dimensions);
+		if (aggregates != null) {
+			return aggregates;
+		}
+		return eRepo.aggregate(userId, start.atStartOfDay(), end.plusDays(1).atStartOfDay(), bucket, dimensions);
+	}
+}
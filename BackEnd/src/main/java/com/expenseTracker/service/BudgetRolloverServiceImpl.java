@@ -0,0 +1,256 @@
+package com.expenseTracker.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ChangeEvent;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.entity.Budgets;
+import com.expenseTracker.entity.Categories;
+import com.expenseTracker.repository.BudgetsRepository;
+import com.expenseTracker.resources.BudgetMonth;
+
+/**
+ * Month close: every budget of the closing month is copied into the next
+ * month, and where rollover is enabled the unspent part is carried with it.
+ *
+ * Users are taken in chunks, several chunks at a time. A chunk's new budgets
+ * and its checkpoint rows commit together, so after a restart the run picks
+ * up with the users that have no checkpoint yet. Next-month budgets the user
+ * already created are kept as they are.
+ */
+@Service
+public class BudgetRolloverServiceImpl {
+
+	private final BudgetsRepository bRepo;
+	private final ExpensesServiceImpl eService;
+	private final FxServiceImpl fxService;
+	private final UserDataVersions versions;
+	private final TransactionTemplate txTemplate;
+	private final int threads;
+	private final int chunkSize;
+	private final int batchSize;
+	private final boolean catchUpOnStartup;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BudgetRolloverServiceImpl.class);
+
+	public BudgetRolloverServiceImpl(BudgetsRepository bRepo, ExpensesServiceImpl eService, FxServiceImpl fxService,
+			UserDataVersions versions, PlatformTransactionManager txManager,
+			@Value("${budgets.rollover.threads:4}") int threads,
+			@Value("${budgets.rollover.chunk-size:200}") int chunkSize,
+			@Value("${budgets.rollover.batch-size:500}") int batchSize,
+			@Value("${budgets.rollover.catch-up-on-startup:true}") boolean catchUpOnStartup) {
+		this.bRepo = bRepo;
+		this.eService = eService;
+		this.fxService = fxService;
+		this.versions = versions;
+		this.txTemplate = new TransactionTemplate(txManager);
+		this.threads = threads;
+		this.chunkSize = chunkSize;
+		this.batchSize = batchSize;
+		this.catchUpOnStartup = catchUpOnStartup;
+	}
+
+	//Early on the 1st, closing the month that just ended
+	@Scheduled(cron = "${budgets.rollover.cron:0 5 0 1 * *}")
+	public void closeLastMonth() {
+		closeMonth(YearMonth.now().minusMonths(1));
+	}
+
+	//Finishes a close that a restart interrupted or a downtime skipped; checkpointed users cost nothing
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void catchUp() {
+		if (catchUpOnStartup) {
+			closeLastMonth();
+		}
+	}
+
+	//Returns the number of users rolled over, -1 when a close is already running
+	public int closeMonth(YearMonth month) {
+		if (!running.compareAndSet(false, true)) {
+			LOGGER.info("Budget rollover for {} skipped, a run is in progress", month);
+			return -1;
+		}
+		try {
+			int monthKey = BudgetMonth.key(month);
+			List<String> userids = bRepo.findUseridsToRollOver(monthKey);
+			if (userids.isEmpty()) {
+				return 0;
+			}
+			List<List<String>> chunks = new ArrayList<>();
+			for (int from = 0; from < userids.size(); from += chunkSize) {
+				chunks.add(userids.subList(from, Math.min(from + chunkSize, userids.size())));
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, chunks.size())));
+			int done = 0;
+			try {
+				List<Future<?>> futures = new ArrayList<>(chunks.size());
+				for (List<String> chunk : chunks) {
+					futures.add(executor.submit(() -> closeChunk(month, chunk)));
+				}
+				for (int i = 0; i < futures.size(); i++) {
+					try {
+						futures.get(i).get();
+						done += chunks.get(i).size();
+					} catch (Exception e) {
+						LOGGER.error("Budget rollover for " + month + " failed for users " + chunks.get(i).get(0)
+								+ " to " + chunks.get(i).get(chunks.get(i).size() - 1) + ": " + e);
+					}
+				}
+			} finally {
+				executor.shutdown();
+			}
+			LOGGER.info("Rolled {} budgets over to {} for {} of {} users", month, month.plusMonths(1), done,
+					userids.size());
+			return done;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	private void closeChunk(YearMonth month, List<String> userids) {
+		int monthKey = BudgetMonth.key(month);
+		txTemplate.executeWithoutResult(status -> {
+			List<Object[]> rows = bRepo.findWithSpentForUsers(monthKey, userids);
+			SpentInBudgetCurrency spent = new SpentInBudgetCurrency(month, userids);
+			List<Budgets> next = new ArrayList<>(rows.size());
+			//A budget's rows are consecutive, one per currency spent in
+			int from = 0;
+			while (from < rows.size()) {
+				Object[] row = rows.get(from);
+				int to = from + 1;
+				while (to < rows.size() && row[0].equals(rows.get(to)[0])
+						&& ((Number) row[1]).longValue() == ((Number) rows.get(to)[1]).longValue()) {
+					to++;
+				}
+				Long categoryId = ((Number) row[1]).longValue();
+				next.add(nextBudget(month.plusMonths(1), (String) row[0], categoryId, (BigDecimal) row[2],
+						(BigDecimal) row[3], (String) row[4], toBoolean(row[5]),
+						spent.of((String) row[0], categoryId, (String) row[4], rows.subList(from, to))));
+				from = to;
+			}
+			bRepo.insertIfAbsent(next, batchSize);
+			bRepo.markRolledOver(monthKey, userids);
+			for (String userid : userids) {
+				versions.bump(userid, ChangeEvent.Type.BUDGET, null, ChangeEvent.Operation.CREATED);
+			}
+		});
+	}
+
+	/**
+	 * Next month keeps this month's base amount. With rollover the unspent
+	 * part of the whole budget, carry included, is added on top; overspending
+	 * never lowers the next budget.
+	 */
+	static Budgets nextBudget(YearMonth nextMonth, String userid, Long categoryId, BigDecimal amount,
+			BigDecimal carriedOver, String currency, boolean rollOverEnabled, BigDecimal spent) {
+		BigDecimal total = amount != null ? amount : BigDecimal.ZERO;
+		BigDecimal base = total.subtract(carriedOver != null ? carriedOver : BigDecimal.ZERO);
+		BigDecimal unspent = total.subtract(spent != null ? spent : BigDecimal.ZERO).max(BigDecimal.ZERO);
+		BigDecimal carry = rollOverEnabled ? unspent : BigDecimal.ZERO;
+
+		Categories category = new Categories();
+		category.setId(categoryId);
+		Budgets budget = new Budgets();
+		budget.setUserid(userid);
+		budget.setCategory(category);
+		budget.setYearMonth(nextMonth);
+		budget.setAmount(base.add(carry));
+		budget.setCarriedOver(carry);
+		budget.setCurrency(currency);
+		budget.setRollOverEnabled(rollOverEnabled);
+		return budget;
+	}
+
+	/**
+	 * What was spent against a budget, in the budget's currency. Spend all in
+	 * that currency is summed as read; anything else goes through the user's
+	 * converted monthly totals, fetched once per user and currency.
+	 */
+	private final class SpentInBudgetCurrency {
+		private final YearMonth month;
+		private final List<String> userids;
+		private final Map<List<Object>, Map<Long, BigDecimal>> converted = new HashMap<>();
+		private Map<String, String> defaults;
+
+		SpentInBudgetCurrency(YearMonth month, List<String> userids) {
+			this.month = month;
+			this.userids = userids;
+		}
+
+		//Rows hold the spent currency at 6 and the amount at 7
+		BigDecimal of(String userid, Long categoryId, String budgetCurrency, List<Object[]> rows) {
+			String target = FxServiceImpl.normalize(budgetCurrency);
+			BigDecimal sum = BigDecimal.ZERO;
+			List<String> currencies = new ArrayList<>(rows.size());
+			boolean same = true;
+			for (Object[] row : rows) {
+				if (row[6] == null) {
+					continue;
+				}
+				String currency = FxServiceImpl.normalize((String) row[6]);
+				currencies.add(currency);
+				same &= Objects.equals(currency, target);
+				sum = sum.add((BigDecimal) row[7]);
+			}
+			if (same) {
+				return sum;
+			}
+			if (defaults == null) {
+				defaults = fxService.defaultCurrencies(userids);
+			}
+			String defaultCurrency = defaults.get(userid);
+			String currency = target != null ? target : defaultCurrency;
+			if (FxServiceImpl.allIn(currencies, defaultCurrency, currency)) {
+				return sum;
+			}
+			return converted.computeIfAbsent(Arrays.asList(userid, currency), k -> byCategory(userid, currency))
+					.getOrDefault(categoryId, BigDecimal.ZERO);
+		}
+
+		//Spend with no rate into the currency is left out rather than added in the wrong unit
+		private Map<Long, BigDecimal> byCategory(String userid, String currency) {
+			Map<Long, BigDecimal> spent = new HashMap<>();
+			for (ExpenseAggregate total : eService.getMonthlyTotals(userid, month.atDay(1), month.atDay(1),
+					currency)) {
+				if (currency.equals(total.getCurrency())) {
+					spent.merge(total.getCategoryId(), total.getTotal(), BigDecimal::add);
+				}
+			}
+			return spent;
+		}
+	}
+
+	//tinyint(1) reads as Boolean on MySQL and as a number on some drivers
+	private static boolean toBoolean(Object value) {
+		if (value instanceof Boolean b) {
+			return b;
+		}
+		return value instanceof Number n && n.intValue() != 0;
+	}
+}
@@ -1,35 +1,45 @@
 package com.expenseTracker.service;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.expenseTracker.entity.Budgets;
+import com.expenseTracker.dto.BudgetView;
+import com.expenseTracker.dto.BudgetVsActual;
+import com.expenseTracker.dto.ExpenseAggregate;
 import com.expenseTracker.repository.BudgetsRepository;
+import com.expenseTracker.resources.BudgetMonth;
 import com.expenseTracker.resources.ResponseModel;
 
 @Service
 public class BudgetsServiceImpl {
 
 	private BudgetsRepository bRepo;
+	private ExpensesServiceImpl eService;
+	private FxServiceImpl fxService;
 	
-	public BudgetsServiceImpl(BudgetsRepository bRepo) {
+	public BudgetsServiceImpl(BudgetsRepository bRepo, ExpensesServiceImpl eService, FxServiceImpl fxService) {
 		this.bRepo = bRepo;
+		this.eService = eService;
+		this.fxService = fxService;
 	}
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(BudgetsServiceImpl.class);
 
+	@Transactional(readOnly = true)
 	public ResponseModel getBudgets(String userId) {
 		ResponseModel response = new ResponseModel();
 		try {
-			String currentMonth = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH));
-
-		    List<Budgets> budgets = bRepo.findByUseridAndMonth(userId, currentMonth);
+		    List<BudgetView> budgets = bRepo.findViewsByUseridAndYearMonth(userId, YearMonth.now());
 			response.setData(budgets);
 		} catch (Exception e) {
 			response.setErrors("Failed in getBudgets: " + e);
@@ -38,4 +48,68 @@ public class BudgetsServiceImpl {
 		return response;
 	}
 	
+	//Current month and the duration months before it, oldest first
+	@Transactional(readOnly = true)
+	public ResponseModel getBudgetHistory(String userId, Integer duration) {
+		ResponseModel response = new ResponseModel();
+		try {
+			YearMonth currentMonth = YearMonth.now();
+			response.setData(bRepo.findViewsByUseridAndYearMonthBetween(userId, currentMonth.minusMonths(duration),
+					currentMonth));
+		} catch (Exception e) {
+			response.setErrors("Failed in getBudgetHistory: " + e);
+			LOGGER.error("Failed in getBudgetHistory: " + e);
+		}
+		return response;
+	}
+	
+	@Transactional(readOnly = true)
+	public ResponseModel getBudgetVsActual(String userId, Integer duration) {
+		ResponseModel response = new ResponseModel();
+		try {
+			YearMonth currentMonth = YearMonth.now();
+			YearMonth fromMonth = currentMonth.minusMonths(duration);
+			List<Object[]> rows = bRepo.findBudgetVsActual(userId, BudgetMonth.key(fromMonth),
+					BudgetMonth.key(currentMonth));
+			String currency = fxService.defaultCurrency(userId);
+			Map<List<Object>, BigDecimal> spent = spentByMonthAndCategory(userId, fromMonth, currentMonth, currency);
+			List<BudgetVsActual> result = new ArrayList<>(rows.size());
+			for (Object[] row : rows) {
+				YearMonth month = BudgetMonth.fromKey(((Number) row[0]).intValue());
+				Long categoryId = ((Number) row[1]).longValue();
+				//Budgets are converted at the rate of the month's first day; one with no rate stays as set
+				BigDecimal budget = (BigDecimal) row[3];
+				String budgetCurrency = FxServiceImpl.normalize((String) row[4]);
+				if (budgetCurrency != null && !budgetCurrency.equals(currency)) {
+					BigDecimal converted = fxService.convert(budget, budgetCurrency, currency, month.atDay(1));
+					if (converted != null) {
+						budget = converted;
+						budgetCurrency = currency;
+					}
+				}
+				result.add(new BudgetVsActual(month, categoryId, (String) row[2], budget,
+						budgetCurrency != null ? budgetCurrency : currency,
+						spent.getOrDefault(Arrays.asList(month.atDay(1), categoryId), BigDecimal.ZERO)));
+			}
+			response.setData(result);
+		} catch (Exception e) {
+			response.setErrors("Failed in getBudgetVsActual: " + e);
+			LOGGER.error("Failed in getBudgetVsActual: " + e);
+		}
+		return response;
+	}
+
+	//Spend with no rate into the currency is left out rather than added in the wrong unit
+	private Map<List<Object>, BigDecimal> spentByMonthAndCategory(String userId, YearMonth fromMonth,
+			YearMonth toMonth, String currency) {
+		Map<List<Object>, BigDecimal> spent = new HashMap<>();
+		for (ExpenseAggregate total : eService.getMonthlyTotals(userId, fromMonth.atDay(1), toMonth.atDay(1),
+				currency)) {
+			if (currency.equals(total.getCurrency())) {
+				spent.merge(Arrays.asList(total.getPeriod(), total.getCategoryId()), total.getTotal(), BigDecimal::add);
+			}
+		}
+		return spent;
+	}
+	
 }
@@ -1,17 +1,13 @@
 package com.expenseTracker.service;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Locale;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.expenseTracker.entity.Budgets;
-import com.expenseTracker.entity.Categories;
-import com.expenseTracker.repository.BudgetsRepository;
+import com.expenseTracker.dto.CategoryBudgetView;
 import com.expenseTracker.repository.CategoryRepository;
 import com.expenseTracker.resources.ResponseModel;
 
@@ -19,11 +15,9 @@ import com.expenseTracker.resources.ResponseModel;
 public class CategoryServiceImpl {
 
 	private CategoryRepository cRepo;
-	private BudgetsRepository bRepo;
 	
-	public CategoryServiceImpl(CategoryRepository cRepo, BudgetsRepository bRepo) {
+	public CategoryServiceImpl(CategoryRepository cRepo) {
 		this.cRepo = cRepo;
-		this.bRepo = bRepo;
 	}
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(CategoryServiceImpl.class);
@@ -31,14 +25,7 @@ public class CategoryServiceImpl {
 	public ResponseModel getCategories(String userId) {
 		ResponseModel response = new ResponseModel();
 		try {
-			List<Categories> categories = this.cRepo.findByUserid(userId);
-			for (Categories cat : categories) {
-				String currentMonth = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH));
-			    Budgets budget = bRepo.findByCategory_IdAndUseridAndMonth(cat.getId(), cat.getUserid(), currentMonth);
-			    if (budget != null) {
-			        cat.setBudget(budget.getAmount());
-			    }
-			}
+			List<CategoryBudgetView> categories = this.cRepo.findWithBudgetByUserid(userId, YearMonth.now());
 			response.setData(categories);
 		} catch (Exception e) {
 			response.setErrors("Failed in getCategories: " + e);
@@ -0,0 +1,286 @@
+package com.expenseTracker.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed writes to the owner's open /events streams.
+ *
+ * Connections are async requests, so an idle one holds no thread. Each has a
+ * small queue drained by a shared sender pool; a writer never waits on a slow
+ * client, and a client that lets its queue fill up is disconnected. It
+ * reconnects with Last-Event-ID and is replayed from the per user history, or
+ * told to reset when the history no longer reaches back that far.
+ */
+@Service
+public class ChangeEventServiceImpl {
+
+	private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+	private final UserDataVersions versions;
+	private final ObjectMapper mapper;
+	private final int bufferSize;
+	private final int maxConnectionsPerUser;
+	private final int replaySize;
+	private final long timeoutMillis;
+	private final ThreadPoolExecutor sender;
+	private final ScheduledExecutorService heartbeat;
+	private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+	private final BoundedTtlCache<String, History> histories;
+	private final AtomicLong dropped = new AtomicLong();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ChangeEventServiceImpl.class);
+
+	public ChangeEventServiceImpl(UserDataVersions versions, ObjectMapper mapper,
+			@Value("${events.buffer-size:32}") int bufferSize,
+			@Value("${events.max-connections-per-user:8}") int maxConnectionsPerUser,
+			@Value("${events.replay-size:100}") int replaySize,
+			@Value("${events.timeout-minutes:30}") long timeoutMinutes,
+			@Value("${events.heartbeat-seconds:25}") long heartbeatSeconds,
+			@Value("${events.send-threads:4}") int sendThreads,
+			@Value("${events.history.max-size:10000}") int historyMaxSize,
+			@Value("${events.history.ttl-seconds:86400}") long historyTtlSeconds) {
+		this.versions = versions;
+		this.mapper = mapper;
+		this.bufferSize = bufferSize;
+		this.maxConnectionsPerUser = maxConnectionsPerUser;
+		this.replaySize = replaySize;
+		this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+		this.histories = new BoundedTtlCache<>(historyMaxSize, historyTtlSeconds * 1000);
+		//At most one queued drain per connection, so the queue is bounded by the connection count
+		this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), new CustomizableThreadFactory("events-send-"));
+		this.heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("events-heartbeat-"));
+		this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+	}
+
+	public SseEmitter subscribe(String userid, String lastEventId) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Connection connection = new Connection(userid, emitter);
+		emitter.onCompletion(() -> remove(connection));
+		emitter.onTimeout(() -> remove(connection));
+		emitter.onError(e -> remove(connection));
+
+		History history = histories.get(userid, k -> new History(versions.latest()));
+		//Added inside compute so a concurrent remove cannot drop the list it is added to
+		List<Connection> open = connections.compute(userid, (k, list) -> {
+			List<Connection> result = list != null ? list : new CopyOnWriteArrayList<>();
+			result.add(connection);
+			return result;
+		});
+		//A user reopening tabs should not pile up streams, the oldest one goes
+		while (open.size() > maxConnectionsPerUser) {
+			Connection oldest = open.remove(0);
+			oldest.close();
+		}
+
+		//Registered before the replay is read, so a write in between is sent twice rather than lost
+		Long lastId = parseId(lastEventId);
+		List<ChangeEvent> missed = lastId != null ? history.after(lastId, versions.latest()) : null;
+		if (lastId == null || missed == null) {
+			//The id is the newest version overall, so resuming from it skips nothing
+			long version = versions.current(userid);
+			String name = lastId == null ? "ready" : "reset";
+			connection.offer(SseEmitter.event().name(name).id(Long.toString(versions.latest()))
+					.data("{\"version\":" + version + "}").build());
+		} else {
+			for (ChangeEvent event : missed) {
+				connection.offer(encode(event));
+			}
+		}
+		return emitter;
+	}
+
+	@EventListener
+	public void onChange(ChangeEvent event) {
+		histories.get(event.getUserid(), k -> new History(versions.latest())).add(event, replaySize);
+		List<Connection> open = connections.get(event.getUserid());
+		if (open == null || open.isEmpty()) {
+			return;
+		}
+		Set<DataWithMediaType> encoded = encode(event);
+		for (Connection connection : open) {
+			connection.offer(encoded);
+		}
+	}
+
+	public int getConnectionCount() {
+		int count = 0;
+		for (List<Connection> open : connections.values()) {
+			count += open.size();
+		}
+		return count;
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	//Serialized once per event, every connection of the user writes the same text
+	private Set<DataWithMediaType> encode(ChangeEvent event) {
+		try {
+			return SseEmitter.event().name("change").id(Long.toString(event.getVersion()))
+					.data(mapper.writeValueAsString(event)).build();
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed in encode: " + e, e);
+		}
+	}
+
+	private void sendHeartbeats() {
+		for (List<Connection> open : connections.values()) {
+			for (Connection connection : open) {
+				connection.offer(HEARTBEAT);
+			}
+		}
+	}
+
+	private void remove(Connection connection) {
+		connections.computeIfPresent(connection.userid, (k, open) -> {
+			open.remove(connection);
+			return open.isEmpty() ? null : open;
+		});
+	}
+
+	private static Long parseId(String lastEventId) {
+		if (lastEventId == null || lastEventId.isBlank()) {
+			return null;
+		}
+		try {
+			return Long.parseLong(lastEventId.trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		heartbeat.shutdownNow();
+		for (List<Connection> open : connections.values()) {
+			for (Connection connection : open) {
+				connection.close();
+			}
+		}
+		sender.shutdown();
+	}
+
+	/**
+	 * Recent events of one user, ordered by version. Versions below the floor
+	 * are unknown: the history started after them or they were trimmed.
+	 */
+	private static final class History {
+		private final TreeMap<Long, ChangeEvent> events = new TreeMap<>();
+		private long floor;
+
+		History(long floor) {
+			this.floor = floor;
+		}
+
+		synchronized void add(ChangeEvent event, int maxSize) {
+			events.put(event.getVersion(), event);
+			while (events.size() > maxSize) {
+				floor = events.pollFirstEntry().getKey();
+			}
+		}
+
+		//Null when events after lastId may be missing, or lastId was never handed out
+		synchronized List<ChangeEvent> after(long lastId, long latest) {
+			if (lastId < floor || lastId > latest) {
+				return null;
+			}
+			return new ArrayList<>(events.tailMap(lastId, false).values());
+		}
+	}
+
+	private final class Connection {
+		private final String userid;
+		private final SseEmitter emitter;
+		private final BlockingQueue<Set<DataWithMediaType>> queue;
+		private final AtomicBoolean draining = new AtomicBoolean();
+		private volatile boolean closing;
+
+		Connection(String userid, SseEmitter emitter) {
+			this.userid = userid;
+			this.emitter = emitter;
+			this.queue = new ArrayBlockingQueue<>(bufferSize);
+		}
+
+		void offer(Set<DataWithMediaType> item) {
+			if (closing) {
+				return;
+			}
+			if (!queue.offer(item)) {
+				dropped.incrementAndGet();
+				LOGGER.debug("Event buffer full for {}, closing its stream", userid);
+				close();
+				return;
+			}
+			schedule();
+		}
+
+		//The sender completes the emitter, so a caller never blocks behind a write in progress
+		void close() {
+			closing = true;
+			queue.clear();
+			schedule();
+		}
+
+		private void schedule() {
+			if (draining.compareAndSet(false, true)) {
+				sender.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				Set<DataWithMediaType> item;
+				while (!closing && (item = queue.poll()) != null) {
+					emitter.send(item);
+				}
+				if (closing) {
+					emitter.complete();
+				}
+			} catch (IOException | IllegalStateException e) {
+				//The client went away, the container reports it and onError removes the connection
+				closing = true;
+				queue.clear();
+				remove(this);
+			} finally {
+				draining.set(false);
+			}
+			if (!closing && !queue.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.expenseTracker.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.expenseTracker.resources.ResponseModel;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Everything the dashboard page shows in one response. The sections are
+ * independent queries, so they run side by side on a small fixed pool and the
+ * page waits for the slowest one instead of the sum. A section that fails or
+ * misses the deadline comes back as null and is named in the warnings.
+ */
+@Service
+public class DashboardServiceImpl {
+
+	private static final int TREND_MONTHS = 6;
+
+	private final ExpensesServiceImpl eService;
+	private final CategoryServiceImpl cService;
+	private final ThreadPoolExecutor executor;
+	private final long sectionTimeoutMillis;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+	public DashboardServiceImpl(ExpensesServiceImpl eService, CategoryServiceImpl cService,
+			@Value("${dashboard.threads:8}") int threads,
+			@Value("${dashboard.queue-capacity:200}") int queueCapacity,
+			@Value("${dashboard.section-timeout-ms:3000}") long sectionTimeoutMillis) {
+		this.eService = eService;
+		this.cService = cService;
+		this.sectionTimeoutMillis = sectionTimeoutMillis;
+		//Bounded queue, a full pool fails the section instead of queueing without limit
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("dashboard-"));
+	}
+
+	public ResponseModel getDashboard(String userId, int recentSize) {
+		ResponseModel response = new ResponseModel();
+		Map<String, Future<ResponseModel>> sections = new LinkedHashMap<>();
+		sections.put("currentTotals", submit(() -> eService.getCurrentTotals(userId)));
+		sections.put("trend", submit(() -> eService.getMonthlyTrend(userId, TREND_MONTHS - 1)));
+		sections.put("categories", submit(() -> cService.getCategories(userId)));
+		sections.put("recent", submit(() -> eService.getRecentExpenses(userId, recentSize)));
+
+		//One deadline for all sections, they started together
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+		Map<String, Object> data = new LinkedHashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (Map.Entry<String, Future<ResponseModel>> section : sections.entrySet()) {
+			String name = section.getKey();
+			Object sectionData = null;
+			try {
+				ResponseModel result = section.getValue().get(Math.max(0, deadline - System.nanoTime()),
+						TimeUnit.NANOSECONDS);
+				if (result.getErrors() != null) {
+					missing.add(name + " failed");
+				} else {
+					sectionData = result.getData();
+				}
+			} catch (TimeoutException e) {
+				section.getValue().cancel(true);
+				missing.add(name + " timed out");
+				LOGGER.warn("Dashboard section {} timed out for user {}", name, userId);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				missing.add(name + " interrupted");
+			} catch (Exception e) {
+				missing.add(name + " failed");
+				LOGGER.error("Dashboard section " + name + " failed: " + e);
+			}
+			data.put(name, sectionData);
+		}
+		response.setData(data);
+		if (!missing.isEmpty()) {
+			response.setWarnings("Partial dashboard: " + String.join(", ", missing));
+		}
+		return response;
+	}
+
+	private Future<ResponseModel> submit(Callable<ResponseModel> section) {
+		try {
+			return executor.submit(section);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
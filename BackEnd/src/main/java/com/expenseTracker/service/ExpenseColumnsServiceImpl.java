@@ -0,0 +1,176 @@
+package com.expenseTracker.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenseTracker.cache.ExpenseColumns;
+import com.expenseTracker.cache.WeightedLruCache;
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ChangeEvent;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.repository.ExpensesRepository;
+
+/**
+ * Optional in-memory analytics store (analytics.columns.enabled). Each
+ * user's expenses are held as {@link ExpenseColumns}, so repeated aggregate
+ * reads over the same history are answered by loops over arrays instead of
+ * grouped queries.
+ *
+ * The columns of all users share one byte budget (analytics.columns.max-bytes)
+ * and the least recently read are evicted first. A user whose expenses alone
+ * would not fit is left to the database. Committed expense writes mark their
+ * id stale and the next read reloads those rows; writes that touch many rows
+ * at once drop the user's columns instead.
+ *
+ * Rows are loaded in a transaction of their own. The caller's may have read
+ * before a write it would then reload as the old row, or miss if it is new.
+ */
+@Service
+public class ExpenseColumnsServiceImpl {
+
+	private final ExpensesRepository eRepo;
+	private final TransactionTemplate loader;
+	private final boolean enabled;
+	private final long maxBytes;
+	private final WeightedLruCache<String, ExpenseColumns> columns;
+	private final LongAdder builds = new LongAdder();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseColumnsServiceImpl.class);
+
+	public ExpenseColumnsServiceImpl(ExpensesRepository eRepo, PlatformTransactionManager txManager,
+			@Value("${analytics.columns.enabled:false}") boolean enabled,
+			@Value("${analytics.columns.max-bytes:67108864}") long maxBytes) {
+		this.eRepo = eRepo;
+		this.loader = new TransactionTemplate(txManager);
+		this.loader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.loader.setReadOnly(true);
+		this.enabled = enabled;
+		this.maxBytes = maxBytes;
+		this.columns = new WeightedLruCache<>(maxBytes, ExpenseColumns::sizeInBytes);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * The grouped sums eRepo.aggregate would return for start to end
+	 * inclusive, or null when the cache is off or cannot answer for this user,
+	 * in which case the caller runs the query.
+	 */
+	public List<ExpenseAggregate> aggregate(String userId, LocalDate start, LocalDate end, TimeBucket bucket,
+			Set<AggregateDimension> dimensions) {
+		if (!enabled) {
+			return null;
+		}
+		ExpenseColumns userColumns = columns(userId);
+		synchronized (userColumns) {
+			if (!prepare(userId, userColumns)) {
+				return null;
+			}
+			return userColumns.aggregate(start, end, bucket, dimensions);
+		}
+	}
+
+	//Currencies the user has spent in, null for the default; null when the cache cannot answer
+	public List<String> getCurrencies(String userId) {
+		if (!enabled) {
+			return null;
+		}
+		ExpenseColumns userColumns = columns(userId);
+		synchronized (userColumns) {
+			return prepare(userId, userColumns) ? new ArrayList<>(userColumns.currencies()) : null;
+		}
+	}
+
+	//Registered before it is built, so writes committed during the build are marked stale on it
+	private ExpenseColumns columns(String userId) {
+		synchronized (columns) {
+			ExpenseColumns userColumns = columns.get(userId);
+			if (userColumns == null) {
+				userColumns = new ExpenseColumns();
+				columns.put(userId, userColumns);
+			}
+			return userColumns;
+		}
+	}
+
+	//Builds or refreshes the columns under their lock; false when the user is too large to hold
+	private boolean prepare(String userId, ExpenseColumns userColumns) {
+		if (!userColumns.isBuilt()) {
+			loader.executeWithoutResult(status -> build(userId, userColumns));
+		} else {
+			Set<Long> stale = userColumns.drainStale();
+			if (!stale.isEmpty() && !userColumns.isOversized()) {
+				try {
+					List<Object[]> rows = loader.execute(status -> eRepo.findColumnsByUseridAndIds(userId, stale));
+					userColumns.replace(stale, rows);
+				} catch (RuntimeException e) {
+					//Still to be reloaded by the next read
+					stale.forEach(userColumns::markStale);
+					throw e;
+				}
+			}
+		}
+		columns.reweigh(userId);
+		return !userColumns.isOversized();
+	}
+
+	private void build(String userId, ExpenseColumns userColumns) {
+		long start = System.nanoTime();
+		if (eRepo.countByUserid(userId) * ExpenseColumns.ROW_BYTES > maxBytes) {
+			userColumns.setOversized();
+		} else {
+			userColumns.append(eRepo.findColumnsByUserid(userId));
+		}
+		userColumns.setBuilt();
+		builds.increment();
+		LOGGER.debug("Loaded {} expense rows into columns for {} in {} ms", userColumns.size(), userId,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	//Runs after commit on the writing thread, so it only touches loaded columns and takes no columns lock
+	@EventListener
+	public void onChange(ChangeEvent event) {
+		if (!enabled) {
+			return;
+		}
+		boolean expenses = event.getType() == ChangeEvent.Type.EXPENSE;
+		//Deleting a category cascades to its expenses
+		boolean categoryDeleted = event.getType() == ChangeEvent.Type.CATEGORY
+				&& event.getOp() == ChangeEvent.Operation.DELETED;
+		if (!expenses && !categoryDeleted) {
+			return;
+		}
+		ExpenseColumns userColumns = columns.peek(event.getUserid());
+		if (userColumns == null) {
+			return;
+		}
+		if (expenses && event.getId() != null) {
+			userColumns.markStale(event.getId());
+		} else {
+			columns.invalidate(event.getUserid());
+		}
+	}
+
+	public WeightedLruCache<String, ExpenseColumns> getColumns() {
+		return columns;
+	}
+
+	public long getBuilds() {
+		return builds.sum();
+	}
+}
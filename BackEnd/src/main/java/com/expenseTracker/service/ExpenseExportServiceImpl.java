@@ -0,0 +1,146 @@
+package com.expenseTracker.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.repository.ExpensesRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a user's full expense history straight from a database cursor to the
+ * response, so memory use does not depend on how many rows the user has.
+ */
+@Service
+public class ExpenseExportServiceImpl {
+
+	public static final String CSV = "csv";
+	public static final String NDJSON = "ndjson";
+
+	private static final String CSV_HEADER = "id,date,categoryId,category,amount,currency,paymentMethod,notes,isRecurring";
+
+	private final ExpensesRepository eRepo;
+	private final ObjectMapper mapper;
+	private final TransactionTemplate readOnlyTx;
+	private final int fetchSize;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseExportServiceImpl.class);
+
+	public ExpenseExportServiceImpl(ExpensesRepository eRepo, ObjectMapper mapper,
+			PlatformTransactionManager txManager,
+			@Value("${expenses.export.fetch-size:500}") int fetchSize) {
+		this.eRepo = eRepo;
+		this.mapper = mapper;
+		this.readOnlyTx = new TransactionTemplate(txManager);
+		this.readOnlyTx.setReadOnly(true);
+		this.fetchSize = fetchSize;
+	}
+
+	public StreamingResponseBody export(String userId, String format, boolean gzip) {
+		boolean ndjson = NDJSON.equalsIgnoreCase(format);
+		return outputStream -> {
+			OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+			try {
+				if (ndjson) {
+					writeNdjson(userId, writer);
+				} else {
+					writeCsv(userId, writer);
+				}
+				writer.flush();
+				if (gzip) {
+					((GZIPOutputStream) out).finish();
+				}
+			} catch (UncheckedIOException e) {
+				LOGGER.error("Export aborted for user " + userId + ": " + e.getCause());
+				throw e.getCause();
+			}
+		};
+	}
+
+	private void writeCsv(String userId, Writer writer) throws IOException {
+		writer.write(CSV_HEADER);
+		writer.write('\n');
+		readOnlyTx.executeWithoutResult(status -> eRepo.forEachByUserid(userId, fetchSize, expense -> {
+			try {
+				writer.write(String.valueOf(expense.getId()));
+				writer.write(',');
+				writer.write(expense.getDate() != null ? expense.getDate().toString() : "");
+				writer.write(',');
+				writer.write(expense.getCategory() != null ? String.valueOf(expense.getCategory().getId()) : "");
+				writer.write(',');
+				writer.write(csv(expense.getCategory() != null ? expense.getCategory().getName() : null));
+				writer.write(',');
+				writer.write(expense.getAmount() != null ? expense.getAmount().toPlainString() : "");
+				writer.write(',');
+				writer.write(csv(expense.getCurrency()));
+				writer.write(',');
+				writer.write(csv(expense.getPaymentMethod()));
+				writer.write(',');
+				writer.write(csv(expense.getNotes()));
+				writer.write(',');
+				writer.write(String.valueOf(Boolean.TRUE.equals(expense.getIsRecurring())));
+				writer.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}));
+	}
+
+	private void writeNdjson(String userId, Writer writer) throws IOException {
+		JsonGenerator json = mapper.getFactory().createGenerator(writer);
+		json.setRootValueSeparator(null);
+		readOnlyTx.executeWithoutResult(status -> eRepo.forEachByUserid(userId, fetchSize, expense -> {
+			try {
+				writeJson(json, expense);
+				json.flush();
+				writer.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}));
+		json.flush();
+	}
+
+	private static void writeJson(JsonGenerator json, Expenses expense) throws IOException {
+		json.writeStartObject();
+		json.writeNumberField("id", expense.getId());
+		json.writeStringField("date", expense.getDate() != null ? expense.getDate().toString() : null);
+		if (expense.getCategory() != null) {
+			json.writeNumberField("categoryId", expense.getCategory().getId());
+			json.writeStringField("category", expense.getCategory().getName());
+		}
+		json.writeNumberField("amount", expense.getAmount());
+		json.writeStringField("currency", expense.getCurrency());
+		json.writeStringField("paymentMethod", expense.getPaymentMethod());
+		json.writeStringField("notes", expense.getNotes());
+		json.writeBooleanField("isRecurring", Boolean.TRUE.equals(expense.getIsRecurring()));
+		json.writeEndObject();
+	}
+
+	//Quotes a CSV field when it contains a separator, quote or line break
+	private static String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
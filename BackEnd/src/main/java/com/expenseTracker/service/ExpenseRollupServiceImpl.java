@@ -0,0 +1,186 @@
+package com.expenseTracker.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.entity.ExpenseMonthlyRollup;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.repository.ExpenseRollupRepository;
+import com.expenseTracker.repository.ExpensesRepository;
+
+/**
+ * Keeps expense_monthly_rollup in step with the expenses table. Deltas are
+ * applied by the expense write paths inside their own transaction, the
+ * rebuild recomputes a user's rows from scratch.
+ */
+@Service
+public class ExpenseRollupServiceImpl {
+
+	private final ExpenseRollupRepository rollupRepo;
+	private final ExpensesRepository eRepo;
+	private final TransactionTemplate txTemplate;
+	private final int rebuildThreads;
+	private final boolean rebuildOnStartup;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseRollupServiceImpl.class);
+
+	public ExpenseRollupServiceImpl(ExpenseRollupRepository rollupRepo, ExpensesRepository eRepo,
+			PlatformTransactionManager txManager,
+			@Value("${rollup.rebuild.threads:4}") int rebuildThreads,
+			@Value("${rollup.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+		this.rollupRepo = rollupRepo;
+		this.eRepo = eRepo;
+		this.txTemplate = new TransactionTemplate(txManager);
+		this.rebuildThreads = rebuildThreads;
+		this.rebuildOnStartup = rebuildOnStartup;
+	}
+
+	public static int monthKey(LocalDate date) {
+		return date.getYear() * 100 + date.getMonthValue();
+	}
+
+	public static LocalDate fromMonthKey(int monthKey) {
+		return LocalDate.of(monthKey / 100, monthKey % 100, 1);
+	}
+
+	//Adds (sign = 1) or removes (sign = -1) one expense from its rollup row
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void apply(Expenses expense, int sign) {
+		if (expense == null || expense.getDate() == null || expense.getCategory() == null
+				|| expense.getCategory().getId() == null) {
+			return;
+		}
+		apply(expense.getUserid(), expense.getDate(), expense.getCategory().getId(), expense.getPaymentMethod(),
+				expense.getCurrency(), expense.getAmount(), sign);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void apply(String userid, LocalDateTime date, Long categoryId, String paymentMethod, String currency,
+			BigDecimal amount, int sign) {
+		if (userid == null || date == null || categoryId == null) {
+			return;
+		}
+		int key = monthKey(date.toLocalDate());
+		String method = paymentMethod != null ? paymentMethod : "";
+		String unit = currency != null ? currency : "";
+		BigDecimal value = amount != null ? amount : BigDecimal.ZERO;
+		rollupRepo.applyDelta(userid, key, categoryId, method, unit, sign < 0 ? value.negate() : value,
+				(long) sign);
+		if (sign < 0) {
+			rollupRepo.deleteIfEmpty(userid, key, categoryId, method, unit);
+		}
+	}
+
+	//Bulk inserts are folded per rollup key first, so each key costs one upsert however many rows hit it
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void applyAll(List<Expenses> expenses) {
+		Map<List<Object>, ExpenseMonthlyRollup> deltas = new LinkedHashMap<>();
+		for (Expenses expense : expenses) {
+			if (expense.getUserid() == null || expense.getDate() == null || expense.getCategory() == null
+					|| expense.getCategory().getId() == null) {
+				continue;
+			}
+			int key = monthKey(expense.getDate().toLocalDate());
+			String method = expense.getPaymentMethod() != null ? expense.getPaymentMethod() : "";
+			String unit = expense.getCurrency() != null ? expense.getCurrency() : "";
+			ExpenseMonthlyRollup delta = deltas.computeIfAbsent(
+					Arrays.asList(expense.getUserid(), key, expense.getCategory().getId(), method, unit),
+					k -> new ExpenseMonthlyRollup(expense.getUserid(), key, expense.getCategory().getId(), method,
+							unit, BigDecimal.ZERO, 0L));
+			if (expense.getAmount() != null) {
+				delta.setTotalAmount(delta.getTotalAmount().add(expense.getAmount()));
+			}
+			delta.setExpenseCount(delta.getExpenseCount() + 1);
+		}
+		for (ExpenseMonthlyRollup delta : deltas.values()) {
+			rollupRepo.applyDelta(delta.getUserid(), delta.getMonthKey(), delta.getCategoryId(),
+					delta.getPaymentMethod(), delta.getCurrency(), delta.getTotalAmount(), delta.getExpenseCount());
+		}
+	}
+
+	//Rows stay split by currency; a null currency is the user's default
+	public List<ExpenseAggregate> getMonthlyTotals(String userId, LocalDate fromMonth, LocalDate toMonth) {
+		List<ExpenseMonthlyRollup> rows = rollupRepo.findByUseridAndMonthKeyBetweenOrderByMonthKey(userId,
+				monthKey(fromMonth), monthKey(toMonth));
+		List<ExpenseAggregate> totals = new ArrayList<>(rows.size());
+		for (ExpenseMonthlyRollup row : rows) {
+			totals.add(new ExpenseAggregate(fromMonthKey(row.getMonthKey()), row.getCategoryId(),
+					row.getPaymentMethod().isEmpty() ? null : row.getPaymentMethod(),
+					row.getCurrency().isEmpty() ? null : row.getCurrency(), row.getTotalAmount(),
+					row.getExpenseCount()));
+		}
+		return totals;
+	}
+
+	//Currencies the user spent in over the months, null for the user's default
+	public List<String> getCurrencies(String userId, LocalDate fromMonth, LocalDate toMonth) {
+		List<String> currencies = new ArrayList<>();
+		for (String currency : rollupRepo.findCurrencies(userId, monthKey(fromMonth), monthKey(toMonth))) {
+			currencies.add(currency.isEmpty() ? null : currency);
+		}
+		return currencies;
+	}
+
+	public void rebuildUser(String userId) {
+		txTemplate.executeWithoutResult(status -> {
+			rollupRepo.deleteByUserid(userId);
+			rollupRepo.rebuildForUser(userId);
+		});
+	}
+
+	//Recomputes every user's rollup, one transaction per user so a failure only affects that user
+	public int rebuildAll() {
+		List<String> userIds = eRepo.findDistinctUserids();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+		int rebuilt = 0;
+		try {
+			List<Future<?>> futures = new ArrayList<>(userIds.size());
+			for (String userId : userIds) {
+				futures.add(executor.submit(() -> rebuildUser(userId)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					futures.get(i).get();
+					rebuilt++;
+				} catch (Exception e) {
+					LOGGER.error("Rollup rebuild failed for user " + userIds.get(i) + ": " + e);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		LOGGER.info("Rebuilt expense rollup for {} of {} users", rebuilt, userIds.size());
+		return rebuilt;
+	}
+
+	//Off the startup thread, requests are served from the existing rollup meanwhile
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (rebuildOnStartup) {
+			rebuildAll();
+		}
+	}
+}
@@ -3,37 +3,248 @@ package com.expenseTracker.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.BulkRowResult;
+import com.expenseTracker.dto.ChangeEvent;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.ExpenseSearch;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.dto.TimeBucket;
 import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.repository.CategoryRepository;
 import com.expenseTracker.repository.ExpensesRepository;
+import com.expenseTracker.resources.PageCursor;
+import com.expenseTracker.resources.Paging;
 import com.expenseTracker.resources.ResponseModel;
 
 @Service
 public class ExpensesServiceImpl {
 
 	private final ExpensesRepository eRepo;
+	private final CategoryRepository cRepo;
+	private final ExpenseRollupServiceImpl rollupService;
+	private final UserDataVersions versions;
+	private final FxServiceImpl fxService;
+	private final ExpenseColumnsServiceImpl columnsService;
+	private final int bulkBatchSize;
+	private final int bulkMaxRows;
+	//Per user expense counts for paging, all and dated, so a page request does not need a COUNT(*)
+	private final BoundedTtlCache<String, long[]> countCache;
 	
     private static final Logger LOGGER = LoggerFactory.getLogger(ExpensesServiceImpl.class);
 
-    public ExpensesServiceImpl(ExpensesRepository eRepo) {
+    public ExpensesServiceImpl(ExpensesRepository eRepo, CategoryRepository cRepo,
+    		ExpenseRollupServiceImpl rollupService, UserDataVersions versions, FxServiceImpl fxService,
+    		ExpenseColumnsServiceImpl columnsService,
+    		@Value("${expenses.count-cache.max-size:10000}") int countCacheSize,
+    		@Value("${expenses.count-cache.ttl-seconds:60}") long countCacheTtlSeconds,
+    		@Value("${expenses.bulk.batch-size:500}") int bulkBatchSize,
+    		@Value("${expenses.bulk.max-rows:10000}") int bulkMaxRows) {
     	this.eRepo = eRepo;
+    	this.cRepo = cRepo;
+    	this.rollupService = rollupService;
+    	this.versions = versions;
+    	this.fxService = fxService;
+    	this.columnsService = columnsService;
+    	this.bulkBatchSize = bulkBatchSize;
+    	this.bulkMaxRows = bulkMaxRows;
+    	this.countCache = new BoundedTtlCache<>(countCacheSize, countCacheTtlSeconds * 1000);
     }
     
+    //Only the recurring job links an expense to a rule occurrence
+    @Transactional
+    public Expenses addExpense(Expenses expense) {
+    	expense.setRecurringId(null);
+    	expense.setOccurrence(null);
+    	Expenses saved = eRepo.save(expense);
+    	rollupService.apply(saved, 1);
+    	invalidateCount(saved.getUserid());
+    	versions.bump(saved.getUserid(), ChangeEvent.Type.EXPENSE, saved.getId(), ChangeEvent.Operation.CREATED);
+    	return saved;
+    }
+    
+    //The old row is taken out of the rollup before save merges the new values into it
+    @Transactional
+    public Expenses updateExpense(Expenses expense) {
+    	if (expense.getId() != null) {
+    		eRepo.findById(expense.getId()).ifPresent(existing -> {
+    			rollupService.apply(existing, -1);
+    			invalidateCount(existing.getUserid());
+    			versions.bump(existing.getUserid());
+    		});
+    	}
+    	Expenses saved = eRepo.save(expense);
+    	rollupService.apply(saved, 1);
+    	invalidateCount(saved.getUserid());
+    	versions.bump(saved.getUserid(), ChangeEvent.Type.EXPENSE, saved.getId(), ChangeEvent.Operation.UPDATED);
+    	return saved;
+    }
+    
+    /**
+     * Validates every row, checks category ownership with one query and inserts
+     * the valid rows in JDBC batches. Returns one result per input row, in order.
+     */
+    @Transactional
+    public List<BulkRowResult> addExpensesBulk(List<Expenses> expenses) {
+    	if (expenses.size() > bulkMaxRows) {
+    		throw new IllegalArgumentException("At most " + bulkMaxRows + " expenses can be added per request");
+    	}
+    	Set<Long> categoryIds = new HashSet<>();
+    	for (Expenses expense : expenses) {
+    		if (expense != null && expense.getCategory() != null && expense.getCategory().getId() != null) {
+    			categoryIds.add(expense.getCategory().getId());
+    		}
+    	}
+    	Map<Long, String> owners = new HashMap<>();
+    	if (!categoryIds.isEmpty()) {
+    		for (Object[] row : cRepo.findOwners(categoryIds)) {
+    			owners.put((Long) row[0], (String) row[1]);
+    		}
+    	}
+    	
+    	List<BulkRowResult> results = new ArrayList<>(expenses.size());
+    	List<Expenses> valid = new ArrayList<>();
+    	List<BulkRowResult> inserted = new ArrayList<>();
+    	for (int i = 0; i < expenses.size(); i++) {
+    		Expenses expense = expenses.get(i);
+    		String error = validateBulkRow(expense, owners);
+    		BulkRowResult result = new BulkRowResult(i, null, error);
+    		results.add(result);
+    		if (error == null) {
+    			valid.add(expense);
+    			inserted.add(result);
+    		}
+    	}
+    	
+    	insertAll(valid, false);
+    	for (int i = 0; i < valid.size(); i++) {
+    		inserted.get(i).setId(valid.get(i).getId());
+    	}
+    	return results;
+    }
+    
+    /**
+     * Batch inserts already validated expenses, with the rollup, count cache and
+     * versions kept in step. occurrences is set only by the recurring job, whose
+     * expenses carry the rule and occurrence they were added for.
+     */
+    @Transactional
+    public void insertAll(List<Expenses> expenses, boolean occurrences) {
+    	eRepo.batchInsert(expenses, bulkBatchSize, occurrences);
+    	rollupService.applyAll(expenses);
+    	expenses.stream().map(Expenses::getUserid).distinct().forEach(userid -> {
+    		invalidateCount(userid);
+    		versions.bump(userid, ChangeEvent.Type.EXPENSE, null, ChangeEvent.Operation.CREATED);
+    	});
+    }
+    
+    private static String validateBulkRow(Expenses expense, Map<Long, String> owners) {
+    	if (expense == null) {
+    		return "Expense is empty";
+    	}
+    	//A bulk row cannot claim a rule occurrence
+    	expense.setRecurringId(null);
+    	expense.setOccurrence(null);
+    	if (expense.getUserid() == null || expense.getUserid().isEmpty()) {
+    		return "userid is required";
+    	}
+    	if (expense.getCategory() == null || expense.getCategory().getId() == null) {
+    		return "categoryId is required";
+    	}
+    	if (!expense.getUserid().equals(owners.get(expense.getCategory().getId()))) {
+    		return "Category " + expense.getCategory().getId() + " does not belong to user";
+    	}
+    	if (expense.getAmount() == null) {
+    		return "amount is required";
+    	}
+    	if (expense.getDate() == null) {
+    		return "date is required";
+    	}
+    	return null;
+    }
+    
+    @Transactional
+    public void deleteExpense(Long id) {
+    	eRepo.findById(id).ifPresent(existing -> {
+    		rollupService.apply(existing, -1);
+    		eRepo.delete(existing);
+    		invalidateCount(existing.getUserid());
+    		versions.bump(existing.getUserid(), ChangeEvent.Type.EXPENSE, id, ChangeEvent.Operation.DELETED);
+    	});
+    }
+    
+    //After commit, so a page read while the write is open cannot cache the old count again
+    private void invalidateCount(String userid) {
+    	if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+    		countCache.invalidate(userid);
+    		return;
+    	}
+    	TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+    		@Override
+    		public void afterCommit() {
+    			countCache.invalidate(userid);
+    		}
+    	});
+    }
+    
+    //Deleting a category cascades to its expenses without going through this service
+    @EventListener
+    public void onChange(ChangeEvent event) {
+    	if (event.getType() == ChangeEvent.Type.CATEGORY && event.getOp() == ChangeEvent.Operation.DELETED) {
+    		countCache.invalidate(event.getUserid());
+    	}
+    }
+    
+    public BoundedTtlCache<String, long[]> getCountCache() {
+    	return countCache;
+    }
+    
+    public long countExpenses(String userId) {
+    	return counts(userId)[0];
+    }
+    
+    //Cursor pages leave out expenses without a date, so their total does too
+    public long countDatedExpenses(String userId) {
+    	return counts(userId)[1];
+    }
+    
+    private long[] counts(String userId) {
+    	return countCache.get(userId, k -> {
+    		Object[] row = eRepo.countAllAndDatedByUserid(k).get(0);
+    		return new long[] { ((Number) row[0]).longValue(), ((Number) row[1]).longValue() };
+    	});
+    }
+    
+	@Transactional(readOnly = true)
 	public ResponseModel getExpenses(String userId) {
 		ResponseModel response = new ResponseModel();
 		try {
 			LocalDateTime sixMonthsAgo = LocalDateTime.now().minusMonths(6); 
-			List<Expenses> expenses = this.eRepo.findByUseridAndDateAfter(userId, sixMonthsAgo); 
-			LOGGER.info(expenses.toString()); 
+			List<ExpenseView> expenses = this.eRepo.findViewsByUseridAndDateAfter(userId, sixMonthsAgo); 
+			LOGGER.debug("getExpenses returned {} rows", expenses.size());
 			response.setData(expenses != null ? expenses : new ArrayList<>());
 		} catch (Exception e) {
 			response.setErrors("Failed in getExpenses: " + e);
@@ -43,15 +254,84 @@ public class ExpensesServiceImpl {
 		return response;
 	}
 	
-	public Page<Expenses> getAllExpenses(String userId, Pageable pageable) {
-		Pageable sortedPageable = PageRequest.of(
-				pageable.getPageNumber(),
-				pageable.getPageSize(),
-				Sort.by("date").descending()
-				);
-		return eRepo.findByUserid(userId, sortedPageable);    
+	@Transactional(readOnly = true)
+	public Page<ExpenseView> getAllExpenses(String userId, Pageable pageable) {
+		Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+		List<ExpenseView> content = eRepo.findViewPage(userId, page);
+		return new PageImpl<>(content, page, countExpenses(userId));
+	}
+	
+	//Seeks from the cursor instead of skipping rows, so every page costs the same as the first
+	@Transactional(readOnly = true)
+	public ResponseModel getExpensesByCursor(String userId, String cursor, boolean backward, int size,
+			boolean includeTotal) {
+		ResponseModel response = new ResponseModel();
+		try {
+			Pageable limit = PageRequest.of(0, size + 1);
+			PageCursor from = cursor != null && !cursor.isEmpty() ? PageCursor.decode(cursor) : null;
+			List<ExpenseView> rows;
+			if (from == null) {
+				rows = eRepo.findFirstViewPage(userId, limit);
+			} else if (backward) {
+				rows = eRepo.findPageBefore(userId, from.getDate(), from.getId(), limit);
+			} else {
+				rows = eRepo.findPageAfter(userId, from.getDate(), from.getId(), limit);
+			}
+			cursorPage(response, rows, from, backward, size, includeTotal ? countDatedExpenses(userId) : null);
+		} catch (Exception e) {
+			response.setErrors("Failed in getExpensesByCursor: " + e.getMessage());
+			LOGGER.error("Failed in getExpensesByCursor: " + e);
+		}
+		return response;
+	}
+
+	//Same paging as getExpensesByCursor, over the expenses that match every filter given
+	@Transactional(readOnly = true)
+	public ResponseModel searchExpenses(String userId, ExpenseSearch search, String cursor, boolean backward, int size,
+			boolean includeTotal) {
+		ResponseModel response = new ResponseModel();
+		try {
+			PageCursor from = cursor != null && !cursor.isEmpty() ? PageCursor.decode(cursor) : null;
+			List<ExpenseView> rows = eRepo.search(userId, search, from, backward, size + 1);
+			cursorPage(response, rows, from, backward, size, includeTotal ? eRepo.countSearch(userId, search) : null);
+		} catch (Exception e) {
+			response.setErrors("Failed in searchExpenses: " + e.getMessage());
+			LOGGER.error("Failed in searchExpenses: " + e);
+		}
+		return response;
+	}
+
+	//rows holds up to size + 1 rows in reading order; the extra one only tells that there is more
+	private static void cursorPage(ResponseModel response, List<ExpenseView> rows, PageCursor from, boolean backward,
+			int size, Long total) {
+		boolean hasMore = rows.size() > size;
+		List<ExpenseView> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+		if (backward) {
+			Collections.reverse(content);
+		}
+
+		Paging paging = new Paging();
+		paging.setSize(size);
+		if (!content.isEmpty()) {
+			ExpenseView first = content.get(0);
+			ExpenseView last = content.get(content.size() - 1);
+			boolean hasNext = backward || hasMore;
+			boolean hasPrev = backward ? hasMore : from != null;
+			paging.setNextCursor(hasNext ? PageCursor.of(last).encode() : null);
+			paging.setPrevCursor(hasPrev ? PageCursor.of(first).encode() : null);
+		}
+		if (total != null) {
+			paging.setTotalElements(total);
+			paging.setTotalPages(size == 0 ? 0 : (int) ((total + size - 1) / size));
+		} else {
+			paging.setTotalElements(-1);
+			paging.setTotalPages(-1);
+		}
+		response.setData(content);
+		response.setPaging(paging);
 	}
 
+	@Transactional(readOnly = true)
 	public ResponseModel getCustomExpenses(String userId, Integer duration) {
 		ResponseModel response = new ResponseModel();
 		try {
@@ -59,8 +339,8 @@ public class ExpensesServiceImpl {
 
 	        LocalDateTime endDate = LocalDate.now().withDayOfMonth(1).atStartOfDay();
 
-	        List<Expenses> expenses = eRepo.findByUseridAndDateBetween(userId, startDate, endDate);
-			LOGGER.info(expenses.toString()); 
+	        List<ExpenseView> expenses = eRepo.findViewsByUseridAndDateBetween(userId, startDate, endDate);
+			LOGGER.debug("getCustomExpenses returned {} rows", expenses.size());
 			response.setData(expenses != null ? expenses : new ArrayList<>());
 		} catch (Exception e) {
 			response.setErrors("Failed in getCustomExpenses: " + e);
@@ -69,6 +349,7 @@ public class ExpensesServiceImpl {
 		return response;
 	}
 	
+	@Transactional(readOnly = true)
 	public ResponseModel getCurrentExpenses(String userId) {
 		ResponseModel response = new ResponseModel();
 		try {
@@ -76,8 +357,8 @@ public class ExpensesServiceImpl {
 
 	        LocalDateTime endDate = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth()).atTime(23, 59, 59);
 
-	        List<Expenses> expenses = eRepo.findByUseridAndDateBetween(userId, startDate, endDate);
-			LOGGER.info(expenses.toString()); 
+	        List<ExpenseView> expenses = eRepo.findViewsByUseridAndDateBetween(userId, startDate, endDate);
+			LOGGER.debug("getCurrentExpenses returned {} rows", expenses.size());
 			response.setData(expenses != null ? expenses : new ArrayList<>());
 		} catch (Exception e) {
 			response.setErrors("Failed in getCurrentExpenses: " + e);
@@ -85,4 +366,74 @@ public class ExpensesServiceImpl {
 		}
 		return response;
 	}
+	
+	@Transactional(readOnly = true)
+	public ResponseModel getRecentExpenses(String userId, int size) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response.setData(eRepo.findFirstViewPage(userId, PageRequest.of(0, size)));
+		} catch (Exception e) {
+			response.setErrors("Failed in getRecentExpenses: " + e);
+			LOGGER.error("Failed in getRecentExpenses: " + e);
+		}
+		return response;
+	}
+	
+	@Transactional(readOnly = true)
+	public ResponseModel getCurrentTotals(String userId) {
+		ResponseModel response = new ResponseModel();
+		try {
+			LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+			response.setData(getMonthlyTotals(userId, currentMonth, currentMonth, fxService.defaultCurrency(userId)));
+		} catch (Exception e) {
+			response.setErrors("Failed in getCurrentTotals: " + e);
+			LOGGER.error("Failed in getCurrentTotals: " + e);
+		}
+		return response;
+	}
+	
+	@Transactional(readOnly = true)
+	public ResponseModel getMonthlyTrend(String userId, Integer duration) {
+		ResponseModel response = new ResponseModel();
+		try {
+			LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+			response.setData(getMonthlyTotals(userId, currentMonth.minusMonths(duration), currentMonth,
+					fxService.defaultCurrency(userId)));
+		} catch (Exception e) {
+			response.setErrors("Failed in getMonthlyTrend: " + e);
+			LOGGER.error("Failed in getMonthlyTrend: " + e);
+		}
+		return response;
+	}
+
+	/**
+	 * Monthly totals per category and payment method in the given currency.
+	 * While the rollup holds nothing but that currency it answers alone;
+	 * otherwise the months are read as per-day groups and each is converted
+	 * at its day's rate.
+	 */
+	public List<ExpenseAggregate> getMonthlyTotals(String userId, LocalDate fromMonth, LocalDate toMonth,
+			String currency) {
+		String defaultCurrency = fxService.defaultCurrency(userId);
+		List<ExpenseAggregate> totals = rollupService.getMonthlyTotals(userId, fromMonth, toMonth);
+		List<String> currencies = new ArrayList<>(totals.size());
+		for (ExpenseAggregate total : totals) {
+			currencies.add(total.getCurrency());
+		}
+		if (FxServiceImpl.allIn(currencies, defaultCurrency, currency)) {
+			for (ExpenseAggregate total : totals) {
+				total.setCurrency(currency);
+			}
+			return totals;
+		}
+		Set<AggregateDimension> dimensions = EnumSet.of(AggregateDimension.CATEGORY,
+				AggregateDimension.PAYMENT_METHOD, AggregateDimension.CURRENCY);
+		List<ExpenseAggregate> days = columnsService.aggregate(userId, fromMonth, toMonth.plusMonths(1).minusDays(1),
+				TimeBucket.DAY, dimensions);
+		if (days == null) {
+			days = eRepo.aggregate(userId, fromMonth.atStartOfDay(), toMonth.plusMonths(1).atStartOfDay(),
+					TimeBucket.DAY, dimensions);
+		}
+		return fxService.convert(days, defaultCurrency, currency, TimeBucket.MONTH);
+	}
 }
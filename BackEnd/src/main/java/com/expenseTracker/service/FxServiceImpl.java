@@ -0,0 +1,261 @@
+package com.expenseTracker.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.cache.FxRateTable;
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.entity.FxRate;
+import com.expenseTracker.repository.FxRatesRepository;
+import com.expenseTracker.repository.UserRepository;
+
+/**
+ * Currency conversion against the daily rates in fx_rates. The rates come
+ * from a file (fx.rates.file) that is imported at startup and again on
+ * fx.rates.cron; there is no call out to a rates service. Lookups go to an
+ * in-memory {@link FxRateTable} that is swapped whole after every load.
+ *
+ * An expense or budget without a currency is in its user's default currency.
+ */
+@Service
+public class FxServiceImpl {
+
+	private final FxRatesRepository fxRepo;
+	private final UserRepository userRepo;
+	private final UserDataVersions versions;
+	private final TransactionTemplate txTemplate;
+	private final String baseCurrency;
+	private final String fallbackCurrency;
+	private final String ratesFile;
+	private final int batchSize;
+	//Default currency per user, set at registration and not changed after
+	private final BoundedTtlCache<String, String> defaultCurrencies;
+	private volatile FxRateTable rates;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FxServiceImpl.class);
+
+	public FxServiceImpl(FxRatesRepository fxRepo, UserRepository userRepo, UserDataVersions versions,
+			PlatformTransactionManager txManager,
+			@Value("${fx.base-currency:EUR}") String baseCurrency,
+			@Value("${fx.default-currency:INR}") String fallbackCurrency,
+			@Value("${fx.rates.file:}") String ratesFile,
+			@Value("${fx.rates.batch-size:500}") int batchSize,
+			@Value("${fx.default-currencies.max-users:100000}") int maxUsers,
+			@Value("${fx.default-currencies.ttl-seconds:86400}") long ttlSeconds) {
+		this.fxRepo = fxRepo;
+		this.userRepo = userRepo;
+		this.versions = versions;
+		this.txTemplate = new TransactionTemplate(txManager);
+		this.baseCurrency = normalize(baseCurrency);
+		this.fallbackCurrency = normalize(fallbackCurrency);
+		this.ratesFile = ratesFile;
+		this.batchSize = batchSize;
+		this.defaultCurrencies = new BoundedTtlCache<>(maxUsers, ttlSeconds * 1000);
+		this.rates = FxRateTable.empty(this.baseCurrency);
+	}
+
+	//Currency codes are compared upper case and trimmed, blank is no currency
+	public static String normalize(String currency) {
+		return currency == null || currency.isBlank() ? null : currency.trim().toUpperCase(Locale.ROOT);
+	}
+
+	//True when amounts in all the currencies are already in target; null stands for the user's default
+	public static boolean allIn(Collection<String> currencies, String defaultCurrency, String target) {
+		for (String currency : currencies) {
+			String code = normalize(currency);
+			if (!target.equals(code != null ? code : defaultCurrency)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		refresh();
+	}
+
+	//Imports the rates file when one is configured, then reloads the table either way
+	@Scheduled(cron = "${fx.rates.cron:0 30 0 * * *}")
+	public void refresh() {
+		try {
+			if (!ratesFile.isBlank()) {
+				importFile(Path.of(ratesFile));
+			}
+			reload();
+		} catch (Exception e) {
+			LOGGER.error("Exchange rate refresh failed: " + e);
+		}
+	}
+
+	/**
+	 * Lines are date,currency,rate with the date as yyyy-MM-dd and the rate in
+	 * units of the currency per unit of the base currency. Blank lines, lines
+	 * starting with # and a date,currency,rate header are skipped. A bad line
+	 * fails the whole file, so a half-read file never lands.
+	 */
+	public int importFile(Path file) throws IOException {
+		List<FxRate> parsed = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			int lineNo = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNo++;
+				String text = line.trim();
+				if (text.isEmpty() || text.startsWith("#") || text.toLowerCase(Locale.ROOT).startsWith("date,")) {
+					continue;
+				}
+				parsed.add(parseLine(text, lineNo));
+			}
+		}
+		txTemplate.executeWithoutResult(status -> fxRepo.upsert(parsed, batchSize));
+		LOGGER.info("Imported {} exchange rates from {}", parsed.size(), file);
+		return parsed.size();
+	}
+
+	private static FxRate parseLine(String text, int lineNo) {
+		String[] parts = text.split(",");
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Line " + lineNo + " of the rates file is not date,currency,rate");
+		}
+		String currency = normalize(parts[1]);
+		if (currency == null || !currency.matches("[A-Z]{3}")) {
+			throw new IllegalArgumentException("Line " + lineNo + " of the rates file has no valid currency code");
+		}
+		try {
+			BigDecimal rate = new BigDecimal(parts[2].trim());
+			if (rate.signum() <= 0) {
+				throw new IllegalArgumentException("Line " + lineNo + " of the rates file has a rate of zero or less");
+			}
+			return new FxRate(currency, LocalDate.parse(parts[0].trim()), rate);
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Line " + lineNo + " of the rates file cannot be read: " + e.getMessage());
+		}
+	}
+
+	//Cached responses were converted with the old rates, so every user's version moves
+	public FxRateTable reload() {
+		FxRateTable table = FxRateTable.of(baseCurrency, fxRepo.findAllOrdered());
+		rates = table;
+		versions.bumpAll();
+		LOGGER.info("Loaded {} exchange rates for {} currencies", table.size(), table.currencies());
+		return table;
+	}
+
+	public FxRateTable getRates() {
+		return rates;
+	}
+
+	public String defaultCurrency(String userid) {
+		return defaultCurrencies.get(userid, k -> orFallback(userRepo.findDefaultCurrencyByUserid(k)));
+	}
+
+	//One query for the users not cached yet
+	public Map<String, String> defaultCurrencies(Collection<String> userids) {
+		Map<String, String> result = new HashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (String userid : userids) {
+			String currency = defaultCurrencies.get(userid);
+			if (currency != null) {
+				result.put(userid, currency);
+			} else {
+				missing.add(userid);
+			}
+		}
+		if (!missing.isEmpty()) {
+			for (Object[] row : userRepo.findDefaultCurrencies(missing)) {
+				String currency = orFallback((String) row[1]);
+				defaultCurrencies.put((String) row[0], currency);
+				result.put((String) row[0], currency);
+			}
+			for (String userid : missing) {
+				result.putIfAbsent(userid, fallbackCurrency);
+			}
+		}
+		return result;
+	}
+
+	private String orFallback(String currency) {
+		String code = normalize(currency);
+		return code != null ? code : fallbackCurrency;
+	}
+
+	//Amount in to at the date's rates, null when either rate is missing
+	public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+		BigDecimal factor = rates.factor(from, to, date);
+		return factor == null || amount == null ? null : amount.multiply(factor).setScale(2, RoundingMode.HALF_EVEN);
+	}
+
+	/**
+	 * Converts per-day groups into target and folds them into the bucket. Each
+	 * group is converted once at its day's rate, and the cross rate is worked
+	 * out once per currency and day. A null currency is defaultCurrency. Groups
+	 * with no rate for their day keep their own currency, in their own bucket
+	 * rows, rather than being added in the wrong unit.
+	 */
+	public List<ExpenseAggregate> convert(List<ExpenseAggregate> dayGroups, String defaultCurrency, String target,
+			TimeBucket bucket) {
+		FxRateTable table = rates;
+		Map<List<Object>, BigDecimal> factors = new HashMap<>();
+		Map<List<Object>, ExpenseAggregate> result = new LinkedHashMap<>();
+		int unconverted = 0;
+		for (ExpenseAggregate group : dayGroups) {
+			String code = normalize(group.getCurrency());
+			String from = code != null ? code : defaultCurrency;
+			LocalDate day = group.getPeriod();
+			BigDecimal factor = factors.computeIfAbsent(Arrays.asList(from, day),
+					k -> table.factor(from, target, day));
+			String currency = factor != null ? target : from;
+			BigDecimal total = group.getTotal() == null ? null
+					: factor != null ? group.getTotal().multiply(factor) : group.getTotal();
+			if (factor == null) {
+				unconverted++;
+			}
+			LocalDate period = bucket.truncate(day);
+			List<Object> key = Arrays.asList(period, group.getCategoryId(), group.getPaymentMethod(), currency);
+			result.computeIfAbsent(key, k -> new ExpenseAggregate(period, group.getCategoryId(),
+					group.getPaymentMethod(), currency, BigDecimal.ZERO, 0)).add(total, group.getCount());
+		}
+		if (unconverted > 0) {
+			LOGGER.warn("No exchange rate into {} for {} of {} expense groups", target, unconverted,
+					dayGroups.size());
+		}
+		List<ExpenseAggregate> converted = new ArrayList<>(result.values());
+		for (ExpenseAggregate aggregate : converted) {
+			aggregate.setTotal(aggregate.getTotal().setScale(2, RoundingMode.HALF_EVEN));
+		}
+		return converted;
+	}
+
+	public BoundedTtlCache<String, String> getDefaultCurrencies() {
+		return defaultCurrencies;
+	}
+}
@@ -4,21 +4,39 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 
 @Service
 public class JwtService {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
     private final Key key;
     private final long expiration;
+    //JwtParser is immutable and thread safe, build it once instead of per request
+    private final JwtParser parser;
+    //Subjects of tokens whose signature was already checked, keyed by SHA-256 of the token
+    private final BoundedTtlCache<String, String> verifiedTokens;
 
     public JwtService(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long expiration
+            @Value("${jwt.expiration}") long expiration,
+            @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+            @Value("${jwt.verified-cache.ttl-seconds:300}") long verifiedCacheTtlSeconds
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expiration = expiration;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = new BoundedTtlCache<>(verifiedCacheSize, verifiedCacheTtlSeconds * 1000);
     }
 
     public String generateToken(String username) {
@@ -30,11 +48,77 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Returns the subject of a verified token. Invalid signatures and expired
+     * tokens throw the usual jjwt exceptions.
+     */
     public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        String digest = digest(token);
+        String username = verifiedTokens.get(digest);
+        if (username != null) {
+            return username;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        username = claims.getSubject();
+        if (username != null && claims.getExpiration() != null) {
+            verifiedTokens.put(digest, username, claims.getExpiration().getTime());
+        }
+        return username;
+    }
+
+    /**
+     * Username for an Authorization header value, or null when the header is
+     * absent or cannot be a compact JWS. Structurally valid tokens are verified
+     * as in {@link #extractUsername(String)}.
+     */
+    public String resolveUsername(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        String token = authorizationHeader.substring(BEARER_PREFIX.length());
+        if (!isWellFormed(token)) {
+            return null;
+        }
+        return extractUsername(token);
+    }
+
+    public BoundedTtlCache<String, String> getVerifiedTokens() {
+        return verifiedTokens;
+    }
+
+    //Three non empty base64url segments separated by dots, checked without throwing
+    static boolean isWellFormed(String token) {
+        int length = token.length();
+        if (length == 0 || length > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (segmentLength == 0) {
+                    return false;
+                }
+                dots++;
+                segmentLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-'
+                    || c == '_') {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && segmentLength > 0;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,183 @@
+package com.expenseTracker.service;
+
+import java.lang.ref.SoftReference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.cache.NotesIndex;
+import com.expenseTracker.dto.ChangeEvent;
+import com.expenseTracker.dto.ExpenseSearch;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.repository.ExpensesRepository;
+import com.expenseTracker.resources.Paging;
+import com.expenseTracker.resources.ResponseModel;
+
+/**
+ * Full-text search over expense notes from a per-user {@link NotesIndex}.
+ *
+ * An index is built on the user's first search and kept through a soft
+ * reference, so the collector can reclaim it under memory pressure on top of
+ * the size and TTL bounds. Committed expense writes only mark their id stale;
+ * the next search reloads the stale rows before it reads the index. Writes
+ * that touch many rows at once drop the index instead.
+ */
+@Service
+public class NotesSearchServiceImpl {
+
+	private final ExpensesRepository eRepo;
+	private final BoundedTtlCache<String, SoftReference<NotesIndex>> indexes;
+	private final LongAdder builds = new LongAdder();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(NotesSearchServiceImpl.class);
+
+	public NotesSearchServiceImpl(ExpensesRepository eRepo,
+			@Value("${notes.index.max-users:1000}") int maxUsers,
+			@Value("${notes.index.ttl-seconds:3600}") long ttlSeconds) {
+		this.eRepo = eRepo;
+		this.indexes = new BoundedTtlCache<>(maxUsers, ttlSeconds * 1000);
+	}
+
+	//Ranked matches for every word of q, as a word or the start of one, narrowed by category and date
+	@Transactional(readOnly = true)
+	public ResponseModel searchNotes(String userId, String q, ExpenseSearch filter, int page, int size) {
+		ResponseModel response = new ResponseModel();
+		try {
+			NotesIndex index = index(userId);
+			List<NotesIndex.Hit> hits;
+			synchronized (index) {
+				if (!index.isBuilt()) {
+					build(userId, index);
+				} else {
+					//Not after a build: writes marked stale during it committed past this transaction's
+					//snapshot, which would reload them as they were; the next search picks them up
+					refresh(userId, index);
+				}
+				hits = index.search(q, matches(filter));
+			}
+
+			int from = Math.min(page * size, hits.size());
+			List<Long> ids = new ArrayList<>();
+			for (NotesIndex.Hit hit : hits.subList(from, Math.min(from + size, hits.size()))) {
+				ids.add(hit.getId());
+			}
+			List<ExpenseView> content = new ArrayList<>(ids.size());
+			if (!ids.isEmpty()) {
+				Map<Long, ExpenseView> views = new HashMap<>();
+				for (ExpenseView view : eRepo.findViewsByUseridAndIds(userId, ids)) {
+					views.put(view.getId(), view);
+				}
+				for (Long id : ids) {
+					if (views.containsKey(id)) {
+						content.add(views.get(id));
+					}
+				}
+			}
+
+			Paging paging = new Paging();
+			paging.setPage(page);
+			paging.setSize(size);
+			paging.setTotalElements(hits.size());
+			paging.setTotalPages(size == 0 ? 0 : (hits.size() + size - 1) / size);
+			response.setData(content);
+			response.setPaging(paging);
+		} catch (Exception e) {
+			response.setErrors("Failed in searchNotes: " + e);
+			LOGGER.error("Failed in searchNotes: " + e);
+		}
+		return response;
+	}
+
+	//Registered before it is built, so writes committed during the build are marked stale on it
+	private NotesIndex index(String userId) {
+		synchronized (indexes) {
+			SoftReference<NotesIndex> ref = indexes.get(userId);
+			NotesIndex index = ref != null ? ref.get() : null;
+			if (index == null) {
+				index = new NotesIndex();
+				indexes.put(userId, new SoftReference<>(index));
+			}
+			return index;
+		}
+	}
+
+	private void build(String userId, NotesIndex index) {
+		long start = System.nanoTime();
+		for (Object[] row : eRepo.findNotesByUserid(userId)) {
+			index.put((Long) row[0], (LocalDateTime) row[1], (Long) row[2], (String) row[3]);
+		}
+		index.setBuilt();
+		builds.increment();
+		LOGGER.debug("Indexed notes of {} expenses for {} in {} ms", index.size(), userId,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	private void refresh(String userId, NotesIndex index) {
+		Set<Long> stale = index.drainStale();
+		if (stale.isEmpty()) {
+			return;
+		}
+		Set<Long> gone = new HashSet<>(stale);
+		for (Object[] row : eRepo.findNotesByUseridAndIds(userId, stale)) {
+			index.put((Long) row[0], (LocalDateTime) row[1], (Long) row[2], (String) row[3]);
+			gone.remove(row[0]);
+		}
+		for (Long id : gone) {
+			index.remove(id);
+		}
+	}
+
+	private static Predicate<NotesIndex.Doc> matches(ExpenseSearch filter) {
+		Set<Long> categoryIds = filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()
+				? new HashSet<>(filter.getCategoryIds()) : null;
+		LocalDateTime from = filter.getDateFrom() != null ? filter.getDateFrom().atStartOfDay() : null;
+		LocalDateTime to = filter.getDateTo() != null ? filter.getDateTo().plusDays(1).atStartOfDay() : null;
+		return doc -> (categoryIds == null || categoryIds.contains(doc.getCategoryId()))
+				&& (from == null || (doc.getDate() != null && !doc.getDate().isBefore(from)))
+				&& (to == null || (doc.getDate() != null && doc.getDate().isBefore(to)));
+	}
+
+	//Runs after commit on the writing thread, so it only touches loaded indexes and takes no index lock
+	@EventListener
+	public void onChange(ChangeEvent event) {
+		boolean expenses = event.getType() == ChangeEvent.Type.EXPENSE;
+		//Deleting a category cascades to its expenses
+		boolean categoryDeleted = event.getType() == ChangeEvent.Type.CATEGORY
+				&& event.getOp() == ChangeEvent.Operation.DELETED;
+		if (!expenses && !categoryDeleted) {
+			return;
+		}
+		SoftReference<NotesIndex> ref = indexes.get(event.getUserid());
+		NotesIndex index = ref != null ? ref.get() : null;
+		if (index == null) {
+			return;
+		}
+		if (expenses && event.getId() != null) {
+			index.markStale(event.getId());
+		} else {
+			indexes.invalidate(event.getUserid());
+		}
+	}
+
+	public BoundedTtlCache<String, SoftReference<NotesIndex>> getIndexes() {
+		return indexes;
+	}
+
+	public long getBuilds() {
+		return builds.sum();
+	}
+}
@@ -0,0 +1,106 @@
+package com.expenseTracker.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.expenseTracker.resources.ResponseModel;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * Compact JSON view over the meter registry, for reading latencies without a
+ * Prometheus server.
+ */
+@Service
+public class PerfServiceImpl {
+
+	private final MeterRegistry registry;
+
+	public PerfServiceImpl(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	public ResponseModel getSummary() {
+		ResponseModel response = new ResponseModel();
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("endpoints", timers("http.server.requests", "method", "uri", "status"));
+		summary.put("repositories", timers("spring.data.repository.invocations", "repository", "method", "state"));
+		summary.put("pool", pool());
+		summary.put("caches", caches());
+		response.setData(summary);
+		return response;
+	}
+
+	private List<Map<String, Object>> timers(String name, String... tags) {
+		List<Map<String, Object>> result = new ArrayList<>();
+		for (Timer timer : registry.find(name).timers()) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (String tag : tags) {
+				row.put(tag, timer.getId().getTag(tag));
+			}
+			HistogramSnapshot snapshot = timer.takeSnapshot();
+			row.put("count", snapshot.count());
+			row.put("meanMs", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+			row.put("maxMs", round(snapshot.max(TimeUnit.MILLISECONDS)));
+			for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+				row.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+						round(percentile.value(TimeUnit.MILLISECONDS)));
+			}
+			result.add(row);
+		}
+		return result;
+	}
+
+	private Map<String, Object> pool() {
+		Map<String, Object> pool = new LinkedHashMap<>();
+		for (String gauge : new String[] { "active", "idle", "pending", "max" }) {
+			Gauge meter = registry.find("hikaricp.connections." + gauge).gauge();
+			if (meter != null) {
+				pool.put(gauge, (long) meter.value());
+			}
+		}
+		Gauge waiting = registry.find("db.limiter.waiting").gauge();
+		if (waiting != null) {
+			pool.put("limiterWaiting", (long) waiting.value());
+		}
+		return pool;
+	}
+
+	private List<Map<String, Object>> caches() {
+		Map<String, Map<String, Object>> caches = new LinkedHashMap<>();
+		for (FunctionCounter counter : registry.find("cache.gets").functionCounters()) {
+			String cache = counter.getId().getTag("cache");
+			Map<String, Object> row = caches.computeIfAbsent(cache, c -> {
+				Map<String, Object> r = new LinkedHashMap<>();
+				r.put("cache", c);
+				return r;
+			});
+			row.put("hit".equals(counter.getId().getTag("result")) ? "hits" : "misses", (long) counter.count());
+		}
+		for (Map<String, Object> row : caches.values()) {
+			long hits = (long) row.getOrDefault("hits", 0L);
+			long misses = (long) row.getOrDefault("misses", 0L);
+			row.put("hitRate", hits + misses == 0 ? 0.0 : round((double) hits / (hits + misses)));
+			FunctionCounter evictions = registry.find("cache.evictions").tag("cache", (String) row.get("cache"))
+					.functionCounter();
+			if (evictions != null) {
+				row.put("evictions", (long) evictions.count());
+			}
+		}
+		return new ArrayList<>(caches.values());
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 1000) / 1000.0;
+	}
+}
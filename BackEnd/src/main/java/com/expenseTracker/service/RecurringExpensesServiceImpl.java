@@ -0,0 +1,270 @@
+package com.expenseTracker.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ChangeEvent;
+import com.expenseTracker.entity.Categories;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.entity.RecurringExpenses;
+import com.expenseTracker.repository.CategoryRepository;
+import com.expenseTracker.repository.RecurringExpensesRepository;
+import com.expenseTracker.resources.Recurrence;
+import com.expenseTracker.resources.ResponseModel;
+
+/**
+ * Recurring expense rules, and the job that adds their due occurrences as
+ * expenses.
+ *
+ * Due rules are read in chunks from the next_due index. Per chunk, each rule
+ * is claimed by moving next_due past today, and the claimed occurrences are
+ * batch inserted in the same transaction. A crash rolls both back and the
+ * rules are simply due again; a second run finds them claimed. The unique
+ * (recurring_id, occurrence) key on expenses backs this up.
+ *
+ * A chunk that fails is retried one rule per transaction, so a rule that
+ * cannot be added is logged and left due while the rest of the run goes on.
+ */
+@Service
+public class RecurringExpensesServiceImpl {
+
+	private final RecurringExpensesRepository rRepo;
+	private final CategoryRepository cRepo;
+	private final ExpensesServiceImpl eService;
+	private final UserDataVersions versions;
+	private final TransactionTemplate txTemplate;
+	private final int chunkSize;
+	private final boolean catchUpOnStartup;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecurringExpensesServiceImpl.class);
+
+	public RecurringExpensesServiceImpl(RecurringExpensesRepository rRepo, CategoryRepository cRepo,
+			ExpensesServiceImpl eService, UserDataVersions versions, PlatformTransactionManager txManager,
+			@Value("${recurring.chunk-size:500}") int chunkSize,
+			@Value("${recurring.catch-up-on-startup:true}") boolean catchUpOnStartup) {
+		this.rRepo = rRepo;
+		this.cRepo = cRepo;
+		this.eService = eService;
+		this.versions = versions;
+		this.txTemplate = new TransactionTemplate(txManager);
+		this.chunkSize = chunkSize;
+		this.catchUpOnStartup = catchUpOnStartup;
+	}
+
+	@Transactional(readOnly = true)
+	public ResponseModel getRecurring(String userId) {
+		ResponseModel response = new ResponseModel();
+		try {
+			response.setData(rRepo.findByUserid(userId));
+		} catch (Exception e) {
+			response.setErrors("Failed in getRecurring: " + e);
+			LOGGER.error("Failed in getRecurring: " + e);
+		}
+		return response;
+	}
+
+	@Transactional
+	public RecurringExpenses addRecurring(RecurringExpenses rule) {
+		rule.setId(null);
+		rule.setNextDue(null);
+		checkCategory(rule);
+		RecurringExpenses saved = rRepo.save(rule);
+		versions.bump(saved.getUserid(), ChangeEvent.Type.RECURRING, saved.getId(), ChangeEvent.Operation.CREATED);
+		return saved;
+	}
+
+	//Occurrences already added stay; a changed schedule applies from the next one
+	@Transactional
+	public RecurringExpenses updateRecurring(RecurringExpenses rule) {
+		RecurringExpenses existing = rRepo.findById(rule.getId())
+				.orElseThrow(() -> new IllegalArgumentException("Recurring expense " + rule.getId() + " not found"));
+		if (!existing.getUserid().equals(rule.getUserid())) {
+			throw new IllegalArgumentException("Recurring expense " + rule.getId() + " does not belong to user");
+		}
+		checkCategory(rule);
+		boolean rescheduled = !Objects.equals(existing.getIntervalMonths(), rule.getIntervalMonths())
+				|| !Objects.equals(existing.getDayOfMonth(), rule.getDayOfMonth())
+				|| !Objects.equals(existing.getStartDate(), rule.getStartDate())
+				|| !Objects.equals(existing.getEndDate(), rule.getEndDate());
+		existing.setCategory(rule.getCategory());
+		existing.setAmount(rule.getAmount());
+		existing.setCurrency(rule.getCurrency());
+		existing.setPaymentMethod(rule.getPaymentMethod());
+		existing.setNotes(rule.getNotes());
+		if (rescheduled) {
+			existing.setIntervalMonths(rule.getIntervalMonths());
+			existing.setDayOfMonth(rule.getDayOfMonth());
+			existing.setStartDate(rule.getStartDate());
+			existing.setEndDate(rule.getEndDate());
+			LocalDate from = existing.getNextDue() != null ? existing.getNextDue() : LocalDate.now();
+			if (existing.getStartDate() != null && existing.getStartDate().isAfter(from)) {
+				from = existing.getStartDate();
+			}
+			int day = existing.getDayOfMonth() != null ? existing.getDayOfMonth() : from.getDayOfMonth();
+			existing.setNextDue(Recurrence.firstOnOrAfter(from, day));
+		}
+		RecurringExpenses saved = rRepo.saveAndFlush(existing);
+		versions.bump(saved.getUserid(), ChangeEvent.Type.RECURRING, saved.getId(), ChangeEvent.Operation.UPDATED);
+		return saved;
+	}
+
+	@Transactional
+	public void deleteRecurring(Long id) {
+		rRepo.findById(id).ifPresent(existing -> {
+			rRepo.delete(existing);
+			versions.bump(existing.getUserid(), ChangeEvent.Type.RECURRING, id, ChangeEvent.Operation.DELETED);
+		});
+	}
+
+	private void checkCategory(RecurringExpenses rule) {
+		if (rule.getUserid() == null || rule.getUserid().isEmpty()) {
+			throw new IllegalArgumentException("userid is required");
+		}
+		if (rule.getCategory() == null || rule.getCategory().getId() == null) {
+			throw new IllegalArgumentException("categoryId is required");
+		}
+		Long categoryId = rule.getCategory().getId();
+		boolean owned = cRepo.findOwners(Set.of(categoryId)).stream()
+				.anyMatch(row -> rule.getUserid().equals(row[1]));
+		if (!owned) {
+			throw new IllegalArgumentException("Category " + categoryId + " does not belong to user");
+		}
+	}
+
+	@Scheduled(cron = "${recurring.cron:0 10 0 * * *}")
+	public void materializeToday() {
+		materializeDue(LocalDate.now());
+	}
+
+	//Adds what came due while the application was down
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void catchUp() {
+		if (catchUpOnStartup) {
+			materializeToday();
+		}
+	}
+
+	//Returns the number of expenses added, -1 when a run is already in progress
+	public int materializeDue(LocalDate today) {
+		if (!running.compareAndSet(false, true)) {
+			LOGGER.info("Recurring expenses for {} skipped, a run is in progress", today);
+			return -1;
+		}
+		int added = 0;
+		try {
+			PageRequest limit = PageRequest.of(0, chunkSize);
+			List<RecurringExpenses> due = rRepo.findDue(today, limit);
+			while (!due.isEmpty()) {
+				added += materializeChunk(due, today);
+				if (due.size() < chunkSize) {
+					break;
+				}
+				//Seeks past the chunk rather than rereading the top of the index, where failed rules are still due
+				RecurringExpenses last = due.get(due.size() - 1);
+				due = rRepo.findDueAfter(today, last.getNextDue(), last.getId(), limit);
+			}
+		} catch (Exception e) {
+			LOGGER.error("Failed in materializeDue: " + e);
+		} finally {
+			running.set(false);
+		}
+		if (added > 0) {
+			LOGGER.info("Added {} recurring expenses due by {}", added, today);
+		}
+		return added;
+	}
+
+	//Expenses added for the chunk, trying the rules one at a time when the chunk as a whole fails
+	private int materializeChunk(List<RecurringExpenses> due, LocalDate today) {
+		try {
+			return txTemplate.execute(status -> materialize(due, today));
+		} catch (Exception e) {
+			LOGGER.warn("Recurring expense chunk failed, retrying its {} rules one by one: {}", due.size(), e.toString());
+		}
+		int added = 0;
+		for (RecurringExpenses rule : due) {
+			try {
+				added += txTemplate.execute(status -> materialize(List.of(rule), today));
+			} catch (Exception e) {
+				LOGGER.error("Skipped recurring expense " + rule.getId() + " due " + rule.getNextDue() + ": " + e);
+			}
+		}
+		return added;
+	}
+
+	//Expenses added
+	private int materialize(List<RecurringExpenses> due, LocalDate today) {
+		List<List<LocalDate>> occurrences = new ArrayList<>(due.size());
+		List<LocalDate> nextDue = new ArrayList<>(due.size());
+		for (RecurringExpenses rule : due) {
+			List<LocalDate> dates = new ArrayList<>();
+			LocalDate next = rule.getNextDue();
+			while (next != null && !next.isAfter(today)) {
+				if (rule.getEndDate() != null && next.isAfter(rule.getEndDate())) {
+					next = null;
+					break;
+				}
+				dates.add(next);
+				next = Recurrence.next(next, rule.getIntervalMonths(), rule.getDayOfMonth());
+			}
+			if (next != null && rule.getEndDate() != null && next.isAfter(rule.getEndDate())) {
+				next = null;
+			}
+			occurrences.add(dates);
+			nextDue.add(next);
+		}
+
+		int[] claimed = rRepo.advance(due, nextDue);
+		List<Expenses> expenses = new ArrayList<>();
+		for (int i = 0; i < due.size(); i++) {
+			//Another run moved this rule first and adds these occurrences itself
+			if (claimed[i] == 0) {
+				continue;
+			}
+			for (LocalDate date : occurrences.get(i)) {
+				expenses.add(occurrence(due.get(i), date));
+			}
+		}
+		if (!expenses.isEmpty()) {
+			eService.insertAll(expenses, true);
+		}
+		return expenses.size();
+	}
+
+	static Expenses occurrence(RecurringExpenses rule, LocalDate date) {
+		Categories category = new Categories();
+		category.setId(rule.getCategory().getId());
+		Expenses expense = new Expenses();
+		expense.setUserid(rule.getUserid());
+		expense.setCategory(category);
+		expense.setAmount(rule.getAmount());
+		expense.setCurrency(rule.getCurrency());
+		expense.setDate(date.atStartOfDay());
+		expense.setPaymentMethod(rule.getPaymentMethod());
+		expense.setNotes(rule.getNotes());
+		expense.setIsRecurring(true);
+		expense.setRecurringId(rule.getId());
+		expense.setOccurrence(date);
+		return expense;
+	}
+}
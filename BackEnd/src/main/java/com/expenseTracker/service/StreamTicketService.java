@@ -0,0 +1,52 @@
+package com.expenseTracker.service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+
+/**
+ * Tickets that open the /events stream for browsers, whose EventSource cannot
+ * send an Authorization header. A ticket is issued to a caller that already
+ * sent its JWT, names only that user, works once and expires within seconds,
+ * so the copy left in a URL or access log is worth nothing.
+ */
+@Service
+public class StreamTicketService {
+
+	private static final int TICKET_BYTES = 32;
+
+	private final SecureRandom random = new SecureRandom();
+	private final BoundedTtlCache<String, String> tickets;
+	private final long ttlSeconds;
+
+	public StreamTicketService(@Value("${events.ticket.ttl-seconds:30}") long ttlSeconds,
+			@Value("${events.ticket.max-size:10000}") int maxSize) {
+		this.ttlSeconds = ttlSeconds;
+		this.tickets = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+	}
+
+	public String issue(String username) {
+		byte[] bytes = new byte[TICKET_BYTES];
+		random.nextBytes(bytes);
+		String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		tickets.put(ticket, username);
+		return ticket;
+	}
+
+	//The ticket's user, or null when it is unknown, expired or already used
+	public String redeem(String ticket) {
+		return ticket != null ? tickets.take(ticket) : null;
+	}
+
+	public long getTtlSeconds() {
+		return ttlSeconds;
+	}
+
+	public BoundedTtlCache<String, String> getTickets() {
+		return tickets;
+	}
+}
@@ -0,0 +1,339 @@
+package com.expenseTracker.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.expenseTracker.cache.BoundedTtlCache;
+import com.expenseTracker.cache.IdBitmap;
+import com.expenseTracker.cache.TagBitmaps;
+import com.expenseTracker.cache.UserDataVersions;
+import com.expenseTracker.dto.ChangeEvent;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.dto.TagAssignment;
+import com.expenseTracker.entity.Tags;
+import com.expenseTracker.repository.ExpenseTagsRepository;
+import com.expenseTracker.repository.ExpensesRepository;
+import com.expenseTracker.repository.TagsRepository;
+import com.expenseTracker.resources.Paging;
+import com.expenseTracker.resources.ResponseModel;
+import com.expenseTracker.resources.TagExpression;
+
+/**
+ * Tags, bulk tagging of expenses, and expense filters over tag expressions.
+ *
+ * Filters are answered from {@link TagBitmaps}: a user's bitmaps are read
+ * from expense_tags on first use and kept up to date by the writes here and
+ * by expense change events. A filter is then a few bitmap operations and one
+ * primary key lookup for the page, however many tags it names.
+ */
+@Service
+public class TagsServiceImpl {
+
+	private static final int MAX_NAME_LENGTH = 64;
+
+	private final TagsRepository tRepo;
+	private final ExpenseTagsRepository etRepo;
+	private final ExpensesRepository eRepo;
+	private final UserDataVersions versions;
+	private final BoundedTtlCache<String, TagBitmaps> bitmaps;
+	private final int maxPairs;
+	private final int batchSize;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TagsServiceImpl.class);
+
+	public TagsServiceImpl(TagsRepository tRepo, ExpenseTagsRepository etRepo, ExpensesRepository eRepo,
+			UserDataVersions versions,
+			@Value("${tags.bitmaps.max-users:10000}") int maxUsers,
+			@Value("${tags.bitmaps.ttl-seconds:3600}") long ttlSeconds,
+			@Value("${tags.assign.max-pairs:10000}") int maxPairs,
+			@Value("${tags.assign.batch-size:500}") int batchSize) {
+		this.tRepo = tRepo;
+		this.etRepo = etRepo;
+		this.eRepo = eRepo;
+		this.versions = versions;
+		this.bitmaps = new BoundedTtlCache<>(maxUsers, ttlSeconds * 1000);
+		this.maxPairs = maxPairs;
+		this.batchSize = batchSize;
+	}
+
+	@Transactional(readOnly = true)
+	public ResponseModel getTags(String userId) {
+		ResponseModel response = new ResponseModel();
+		try {
+			TagBitmaps userBitmaps = bitmaps(userId);
+			List<Tags> tags = tRepo.findByUseridOrderByName(userId);
+			synchronized (userBitmaps) {
+				ready(userId, userBitmaps);
+				for (Tags tag : tags) {
+					tag.setExpenseCount(userBitmaps.count(tag.getId()));
+				}
+			}
+			response.setData(tags);
+		} catch (Exception e) {
+			response.setErrors("Failed in getTags: " + e);
+			LOGGER.error("Failed in getTags: " + e);
+		}
+		return response;
+	}
+
+	@Transactional
+	public Tags addTag(Tags tag) {
+		tag.setId(null);
+		checkName(tag);
+		if (tRepo.existsByUseridAndName(tag.getUserid(), tag.getName())) {
+			throw new IllegalArgumentException("Tag " + tag.getName() + " already exists");
+		}
+		Tags saved = tRepo.save(tag);
+		versions.bump(saved.getUserid(), ChangeEvent.Type.TAG, saved.getId(), ChangeEvent.Operation.CREATED);
+		return saved;
+	}
+
+	@Transactional
+	public Tags updateTag(Tags tag) {
+		Tags existing = owned(tag.getId(), tag.getUserid());
+		checkName(tag);
+		if (tRepo.existsByUseridAndNameAndIdNot(tag.getUserid(), tag.getName(), tag.getId())) {
+			throw new IllegalArgumentException("Tag " + tag.getName() + " already exists");
+		}
+		existing.setName(tag.getName());
+		existing.setColorCode(tag.getColorCode());
+		Tags saved = tRepo.save(existing);
+		versions.bump(saved.getUserid(), ChangeEvent.Type.TAG, saved.getId(), ChangeEvent.Operation.UPDATED);
+		return saved;
+	}
+
+	//expense_tags rows go with the tag by ON DELETE CASCADE
+	@Transactional
+	public void deleteTag(Long id) {
+		tRepo.findById(id).ifPresent(existing -> {
+			tRepo.delete(existing);
+			afterCommit(existing.getUserid(), userBitmaps -> userBitmaps.dropTag(id));
+			versions.bump(existing.getUserid(), ChangeEvent.Type.TAG, id, ChangeEvent.Operation.DELETED);
+		});
+	}
+
+	@Transactional
+	public void attach(TagAssignment assignment) {
+		List<Long> expenseIds = distinct(assignment.getExpenseIds());
+		List<Long> tagIds = distinct(assignment.getTagIds());
+		checkAssignment(assignment.getUserid(), expenseIds, tagIds);
+		etRepo.attach(expenseIds, tagIds, batchSize);
+		afterCommit(assignment.getUserid(), userBitmaps -> {
+			for (Long tagId : tagIds) {
+				for (Long expenseId : expenseIds) {
+					userBitmaps.tag(tagId, expenseId);
+				}
+			}
+		});
+		versions.bump(assignment.getUserid(), ChangeEvent.Type.TAG, tagIds.size() == 1 ? tagIds.get(0) : null,
+				ChangeEvent.Operation.UPDATED);
+	}
+
+	@Transactional
+	public void detach(TagAssignment assignment) {
+		List<Long> expenseIds = distinct(assignment.getExpenseIds());
+		List<Long> tagIds = distinct(assignment.getTagIds());
+		checkAssignment(assignment.getUserid(), expenseIds, tagIds);
+		etRepo.detach(expenseIds, tagIds, batchSize);
+		afterCommit(assignment.getUserid(), userBitmaps -> {
+			for (Long tagId : tagIds) {
+				for (Long expenseId : expenseIds) {
+					userBitmaps.untag(tagId, expenseId);
+				}
+			}
+		});
+		versions.bump(assignment.getUserid(), ChangeEvent.Type.TAG, tagIds.size() == 1 ? tagIds.get(0) : null,
+				ChangeEvent.Operation.UPDATED);
+	}
+
+	//Expenses matching a TagExpression over the user's tag names, most recently added first
+	@Transactional(readOnly = true)
+	public ResponseModel getExpensesByTags(String userId, String q, int page, int size) {
+		ResponseModel response = new ResponseModel();
+		try {
+			TagExpression expression = TagExpression.parse(q);
+			TagBitmaps userBitmaps = bitmaps(userId);
+			//Names match case insensitively, as the column's collation does on MySQL
+			Map<String, Long> tagIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			for (Tags tag : tRepo.findByUseridOrderByName(userId)) {
+				tagIds.put(tag.getName(), tag.getId());
+			}
+			for (String name : expression.names()) {
+				if (!tagIds.containsKey(name)) {
+					throw new IllegalArgumentException("Unknown tag " + name);
+				}
+			}
+
+			long total;
+			long[] pageIds;
+			synchronized (userBitmaps) {
+				ready(userId, userBitmaps);
+				IdBitmap matches = expression.evaluate(name -> userBitmaps.tag(tagIds.get(name)),
+						userBitmaps.expenses());
+				total = matches.cardinality();
+				pageIds = matches.descending((long) page * size, size);
+			}
+
+			List<ExpenseView> content = new ArrayList<>(pageIds.length);
+			if (pageIds.length > 0) {
+				List<Long> ids = new ArrayList<>(pageIds.length);
+				for (long id : pageIds) {
+					ids.add(id);
+				}
+				Map<Long, ExpenseView> views = new HashMap<>();
+				for (ExpenseView view : eRepo.findViewsByUseridAndIds(userId, ids)) {
+					views.put(view.getId(), view);
+				}
+				for (Long id : ids) {
+					if (views.containsKey(id)) {
+						content.add(views.get(id));
+					}
+				}
+			}
+
+			Paging paging = new Paging();
+			paging.setPage(page);
+			paging.setSize(size);
+			paging.setTotalElements(total);
+			paging.setTotalPages(size == 0 ? 0 : (int) ((total + size - 1) / size));
+			response.setData(content);
+			response.setPaging(paging);
+		} catch (Exception e) {
+			response.setErrors("Failed in getExpensesByTags: " + e.getMessage());
+			LOGGER.error("Failed in getExpensesByTags: " + e);
+		}
+		return response;
+	}
+
+	//Registered before it is built, so changes committed during the build are queued on it. Callers take it
+	//before their first read: a change committed after their snapshot but before this would be lost
+	private TagBitmaps bitmaps(String userId) {
+		synchronized (bitmaps) {
+			TagBitmaps userBitmaps = bitmaps.get(userId);
+			if (userBitmaps == null) {
+				userBitmaps = new TagBitmaps();
+				bitmaps.put(userId, userBitmaps);
+			}
+			return userBitmaps;
+		}
+	}
+
+	//Called with the bitmaps locked
+	private void ready(String userId, TagBitmaps userBitmaps) {
+		if (!userBitmaps.isBuilt()) {
+			long start = System.nanoTime();
+			for (Long expenseId : eRepo.findIdsByUserid(userId)) {
+				userBitmaps.addExpense(expenseId);
+			}
+			for (Object[] pair : etRepo.findPairsByUserid(userId)) {
+				userBitmaps.tag((Long) pair[0], (Long) pair[1]);
+			}
+			userBitmaps.setBuilt();
+			LOGGER.debug("Built tag bitmaps for {} in {} ms, {} bytes", userId,
+					(System.nanoTime() - start) / 1_000_000, userBitmaps.sizeInBytes());
+		}
+		userBitmaps.applyPending();
+	}
+
+	private void afterCommit(String userid, Consumer<TagBitmaps> change) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				TagBitmaps userBitmaps = bitmaps.get(userid);
+				if (userBitmaps != null) {
+					userBitmaps.enqueue(change);
+				}
+			}
+		});
+	}
+
+	//Runs after commit on the writing thread, so it only queues and takes no lock
+	@EventListener
+	public void onChange(ChangeEvent event) {
+		boolean expenses = event.getType() == ChangeEvent.Type.EXPENSE;
+		//Deleting a category cascades to its expenses
+		boolean categoryDeleted = event.getType() == ChangeEvent.Type.CATEGORY
+				&& event.getOp() == ChangeEvent.Operation.DELETED;
+		if (!expenses && !categoryDeleted) {
+			return;
+		}
+		TagBitmaps userBitmaps = bitmaps.get(event.getUserid());
+		if (userBitmaps == null) {
+			return;
+		}
+		if (expenses && event.getId() != null) {
+			long id = event.getId();
+			if (event.getOp() == ChangeEvent.Operation.CREATED) {
+				userBitmaps.enqueue(b -> b.addExpense(id));
+			} else if (event.getOp() == ChangeEvent.Operation.DELETED) {
+				userBitmaps.enqueue(b -> b.removeExpense(id));
+			}
+		} else {
+			bitmaps.invalidate(event.getUserid());
+		}
+	}
+
+	private Tags owned(Long id, String userid) {
+		Tags existing = tRepo.findById(id)
+				.orElseThrow(() -> new IllegalArgumentException("Tag " + id + " not found"));
+		if (!existing.getUserid().equals(userid)) {
+			throw new IllegalArgumentException("Tag " + id + " does not belong to user");
+		}
+		return existing;
+	}
+
+	//Quotes delimit names in tag expressions, so a name cannot hold one
+	private static void checkName(Tags tag) {
+		if (tag.getUserid() == null || tag.getUserid().isEmpty()) {
+			throw new IllegalArgumentException("userid is required");
+		}
+		String name = tag.getName() != null ? tag.getName().trim() : "";
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("name is required");
+		}
+		if (name.length() > MAX_NAME_LENGTH || name.indexOf('"') >= 0) {
+			throw new IllegalArgumentException("name must be at most " + MAX_NAME_LENGTH + " characters without quotes");
+		}
+		tag.setName(name);
+	}
+
+	private void checkAssignment(String userid, List<Long> expenseIds, List<Long> tagIds) {
+		if (userid == null || userid.isEmpty()) {
+			throw new IllegalArgumentException("userid is required");
+		}
+		if (expenseIds.isEmpty() || tagIds.isEmpty()) {
+			throw new IllegalArgumentException("expenseIds and tagIds are required");
+		}
+		if ((long) expenseIds.size() * tagIds.size() > maxPairs) {
+			throw new IllegalArgumentException("At most " + maxPairs + " expense and tag pairs can be changed per request");
+		}
+		if (tRepo.countByUseridAndIdIn(userid, tagIds) != tagIds.size()) {
+			throw new IllegalArgumentException("Every tag must belong to the user");
+		}
+		if (eRepo.countByUseridAndIdIn(userid, expenseIds) != expenseIds.size()) {
+			throw new IllegalArgumentException("Every expense must belong to the user");
+		}
+	}
+
+	private static List<Long> distinct(List<Long> ids) {
+		return ids != null ? new ArrayList<>(new LinkedHashSet<>(ids)) : new ArrayList<>();
+	}
+
+	public BoundedTtlCache<String, TagBitmaps> getBitmaps() {
+		return bitmaps;
+	}
+}
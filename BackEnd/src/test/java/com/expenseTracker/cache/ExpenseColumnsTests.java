@@ -0,0 +1,231 @@
+package com.expenseTracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenseTracker.dto.AggregateDimension;
+import com.expenseTracker.dto.ExpenseAggregate;
+import com.expenseTracker.dto.TimeBucket;
+import com.expenseTracker.repository.ExpensesRepositoryImpl;
+
+/**
+ * Checks the columns against the grouped query they stand in for: the rows
+ * that query would return are grouped here and passed through
+ * {@link ExpensesRepositoryImpl#fold}.
+ */
+class ExpenseColumnsTests {
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+	private static final String[] METHODS = { null, "Cash", "Card", "UPI" };
+	private static final String[] CURRENCIES = { null, "INR", "USD" };
+
+	@Test
+	void aggregateMatchesFoldedQuery() {
+		Random random = new Random(11);
+		List<Object[]> rows = randomRows(random, 1, 3000);
+		ExpenseColumns columns = new ExpenseColumns();
+		columns.append(rows);
+		compare(random, columns, rows);
+	}
+
+	@Test
+	void replaceMergesReloadedRowsInByDay() {
+		Random random = new Random(12);
+		List<Object[]> rows = randomRows(random, 1, 2000);
+		ExpenseColumns columns = new ExpenseColumns();
+		columns.append(rows);
+
+		//Moved to another day and amount, deleted, added, and one that lost its date
+		Set<Long> changed = new HashSet<>();
+		List<Object[]> reloaded = new ArrayList<>();
+		Map<Long, Object[]> byId = new HashMap<>();
+		for (Object[] row : rows) {
+			byId.put((Long) row[0], row);
+		}
+		for (int i = 0; i < 200; i++) {
+			long id = 1 + random.nextInt(2000);
+			if (!changed.add(id)) {
+				continue;
+			}
+			byId.remove(id);
+			if (i % 3 != 0) {
+				Object[] row = row(random, id);
+				byId.put(id, row);
+				reloaded.add(row);
+			}
+		}
+		for (Object[] row : randomRows(random, 5001, 100)) {
+			changed.add((Long) row[0]);
+			byId.put((Long) row[0], row);
+			reloaded.add(row);
+		}
+		Object[] undated = row(random, 7000L);
+		undated[1] = null;
+		changed.add(7000L);
+		reloaded.add(undated);
+
+		columns.replace(changed, reloaded);
+
+		List<Object[]> now = new ArrayList<>(byId.values());
+		now.removeIf(row -> row[1] == null);
+		assertEquals(now.size(), columns.size());
+		compare(random, columns, now);
+	}
+
+	@Test
+	void nullAmountsCountWithoutAddingAndUndatedRowsAreSkipped() {
+		ExpenseColumns columns = new ExpenseColumns();
+		LocalDateTime day = START.atTime(9, 30);
+		columns.append(List.of(
+				new Object[] { 1L, day, new BigDecimal("10.005"), 1L, "Cash", "INR" },
+				new Object[] { 2L, day, null, 1L, "Cash", "INR" },
+				new Object[] { 3L, null, new BigDecimal("99.00"), 1L, "Cash", "INR" }));
+		List<ExpenseAggregate> result = columns.aggregate(START, START, TimeBucket.DAY,
+				EnumSet.noneOf(AggregateDimension.class));
+		assertEquals(1, result.size());
+		assertEquals(new BigDecimal("10.00"), result.get(0).getTotal());
+		assertEquals(2, result.get(0).getCount());
+		assertEquals(2, columns.size());
+	}
+
+	@Test
+	void tooManyGroupsFallsBackToTheQuery() {
+		ExpenseColumns columns = new ExpenseColumns();
+		List<Object[]> rows = new ArrayList<>();
+		for (long id = 1; id <= 70_000; id++) {
+			rows.add(new Object[] { id, START.atStartOfDay(), BigDecimal.ONE, id, "Cash", "INR" });
+		}
+		columns.append(rows);
+		assertNull(columns.aggregate(START, START, TimeBucket.DAY, EnumSet.of(AggregateDimension.CATEGORY)));
+		assertEquals(1, columns.aggregate(START, START, TimeBucket.DAY, EnumSet.of(AggregateDimension.CURRENCY))
+				.size());
+	}
+
+	private static void compare(Random random, ExpenseColumns columns, List<Object[]> rows) {
+		for (int k = 0; k < 200; k++) {
+			LocalDate start = START.plusDays(random.nextInt(800));
+			LocalDate end = start.plusDays(random.nextInt(400));
+			TimeBucket bucket = TimeBucket.values()[random.nextInt(TimeBucket.values().length)];
+			Set<AggregateDimension> dimensions = EnumSet.noneOf(AggregateDimension.class);
+			for (AggregateDimension dimension : AggregateDimension.values()) {
+				if (random.nextBoolean()) {
+					dimensions.add(dimension);
+				}
+			}
+			String context = bucket + " " + dimensions + " " + start + " " + end;
+			List<ExpenseAggregate> expected = ExpensesRepositoryImpl.fold(query(rows, start, end, bucket, dimensions),
+					bucket, dimensions);
+			List<ExpenseAggregate> actual = columns.aggregate(start, end, bucket, dimensions);
+			//A week folds its days in as they come, so only the other buckets keep the query's order
+			if (bucket == TimeBucket.WEEK) {
+				expected.sort(Comparator.comparing(ExpenseColumnsTests::describe));
+				actual.sort(Comparator.comparing(ExpenseColumnsTests::describe));
+			}
+			assertEquals(describe(expected), describe(actual), context);
+		}
+	}
+
+	//The rows of the grouped query: date keys, dimensions, sum and count, ordered by the keys with nulls first
+	private static List<Object[]> query(List<Object[]> rows, LocalDate start, LocalDate end, TimeBucket bucket,
+			Set<AggregateDimension> dimensions) {
+		Comparator<List<Object>> order = (a, b) -> {
+			for (int i = 0; i < a.size(); i++) {
+				int c = compareNullsFirst(a.get(i), b.get(i));
+				if (c != 0) {
+					return c;
+				}
+			}
+			return 0;
+		};
+		Map<List<Object>, Object[]> groups = new TreeMap<>(order);
+		for (Object[] row : rows) {
+			LocalDate day = ((LocalDateTime) row[1]).toLocalDate();
+			if (day.isBefore(start) || day.isAfter(end)) {
+				continue;
+			}
+			List<Object> key = new ArrayList<>();
+			key.add(day.getYear());
+			if (bucket != TimeBucket.YEAR) {
+				key.add(day.getMonthValue());
+			}
+			if (bucket == TimeBucket.DAY || bucket == TimeBucket.WEEK) {
+				key.add(day.getDayOfMonth());
+			}
+			if (dimensions.contains(AggregateDimension.CATEGORY)) {
+				key.add(row[3]);
+			}
+			if (dimensions.contains(AggregateDimension.PAYMENT_METHOD)) {
+				key.add(row[4]);
+			}
+			if (dimensions.contains(AggregateDimension.CURRENCY)) {
+				key.add(row[5]);
+			}
+			Object[] group = groups.computeIfAbsent(key, k -> {
+				Object[] g = Arrays.copyOf(k.toArray(), k.size() + 2);
+				g[k.size()] = BigDecimal.ZERO;
+				g[k.size() + 1] = 0L;
+				return g;
+			});
+			if (row[2] != null) {
+				group[group.length - 2] = ((BigDecimal) group[group.length - 2]).add((BigDecimal) row[2]);
+			}
+			group[group.length - 1] = (Long) group[group.length - 1] + 1;
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareNullsFirst(Object a, Object b) {
+		if (a == null || b == null) {
+			return a == null ? (b == null ? 0 : -1) : 1;
+		}
+		return ((Comparable) a).compareTo(b);
+	}
+
+	private static List<String> describe(List<ExpenseAggregate> aggregates) {
+		List<String> described = new ArrayList<>();
+		for (ExpenseAggregate aggregate : aggregates) {
+			described.add(describe(aggregate));
+		}
+		return described;
+	}
+
+	private static String describe(ExpenseAggregate a) {
+		return a.getPeriod() + "/" + a.getCategoryId() + "/" + a.getPaymentMethod() + "/" + a.getCurrency() + "="
+				+ a.getTotal().setScale(2) + "x" + a.getCount();
+	}
+
+	//Rows as the columns load them: id, date, amount, category id, payment method, currency
+	private static List<Object[]> randomRows(Random random, long firstId, int count) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(row(random, firstId + i));
+		}
+		rows.sort(Comparator.comparing(row -> (LocalDateTime) row[1]));
+		return rows;
+	}
+
+	private static Object[] row(Random random, long id) {
+		LocalDateTime date = START.plusDays(random.nextInt(1000)).atTime(random.nextInt(24), random.nextInt(60));
+		BigDecimal amount = random.nextInt(20) == 0 ? null : BigDecimal.valueOf(random.nextInt(100_000), 2);
+		return new Object[] { id, date, amount, 1L + random.nextInt(6), METHODS[random.nextInt(METHODS.length)],
+				CURRENCIES[random.nextInt(CURRENCIES.length)] };
+	}
+}
@@ -0,0 +1,130 @@
+package com.expenseTracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class IdBitmapTests {
+
+	@Test
+	void addRemoveAndContainsAcrossChunks() {
+		IdBitmap bitmap = new IdBitmap();
+		assertTrue(bitmap.isEmpty());
+		assertTrue(bitmap.add(5));
+		assertTrue(bitmap.add(70_000));
+		assertTrue(bitmap.add(3L << 32));
+		assertFalse(bitmap.add(5));
+		assertEquals(3, bitmap.cardinality());
+		assertTrue(bitmap.contains(70_000));
+		assertFalse(bitmap.contains(70_001));
+		assertFalse(bitmap.contains(6));
+
+		assertTrue(bitmap.remove(70_000));
+		assertFalse(bitmap.remove(70_000));
+		assertFalse(bitmap.remove(123_456_789));
+		assertEquals(2, bitmap.cardinality());
+		assertArrayEquals(new long[] { 3L << 32, 5 }, bitmap.descending(0, 10));
+	}
+
+	@Test
+	void denseChunkSwitchesToBitsAndBack() {
+		IdBitmap bitmap = new IdBitmap();
+		NavigableSet<Long> expected = new TreeSet<>();
+		//Past 4096 ids one chunk holds a bit map, and drops back to an array once it shrinks
+		for (long id = 0; id < 5000; id++) {
+			bitmap.add(id * 3);
+			expected.add(id * 3);
+		}
+		assertSame(expected, bitmap);
+		for (long id = 0; id < 1000; id++) {
+			bitmap.remove(id * 3);
+			expected.remove(id * 3);
+		}
+		assertSame(expected, bitmap);
+		assertTrue(bitmap.contains(2997 + 3));
+		assertFalse(bitmap.contains(2997));
+	}
+
+	@Test
+	void setOperationsMatchSets() {
+		Random random = new Random(42);
+		for (int round = 0; round < 20; round++) {
+			//Small and dense chunks in both operands, with ranges only one side has
+			NavigableSet<Long> a = randomIds(random, round % 2 == 0 ? 6000 : 300);
+			NavigableSet<Long> b = randomIds(random, round % 3 == 0 ? 6000 : 300);
+			IdBitmap x = bitmapOf(a);
+			IdBitmap y = bitmapOf(b);
+
+			NavigableSet<Long> and = new TreeSet<>(a);
+			and.retainAll(b);
+			NavigableSet<Long> or = new TreeSet<>(a);
+			or.addAll(b);
+			NavigableSet<Long> andNot = new TreeSet<>(a);
+			andNot.removeAll(b);
+
+			assertSame(and, x.and(y));
+			assertSame(or, x.or(y));
+			assertSame(andNot, x.andNot(y));
+			//The operands are left as they were
+			assertSame(a, x);
+			assertSame(b, y);
+		}
+	}
+
+	@Test
+	void descendingPagesFromTheLargestId() {
+		IdBitmap bitmap = new IdBitmap();
+		NavigableSet<Long> expected = new TreeSet<>();
+		for (long id = 1; id <= 200_000; id += 7) {
+			bitmap.add(id);
+			expected.add(id);
+		}
+		Iterator<Long> it = expected.descendingIterator();
+		long skip = 0;
+		long[] page;
+		while ((page = bitmap.descending(skip, 997)).length > 0) {
+			for (long id : page) {
+				assertEquals(it.next(), id);
+			}
+			skip += page.length;
+		}
+		assertFalse(it.hasNext());
+		assertEquals(expected.size(), skip);
+		assertEquals(0, bitmap.descending(skip + 5, 10).length);
+	}
+
+	private static NavigableSet<Long> randomIds(Random random, int count) {
+		NavigableSet<Long> ids = new TreeSet<>();
+		long base = random.nextInt(3) * 65_536L;
+		for (int i = 0; i < count; i++) {
+			ids.add(base + random.nextInt(4 * 65_536));
+		}
+		return ids;
+	}
+
+	private static IdBitmap bitmapOf(NavigableSet<Long> ids) {
+		IdBitmap bitmap = new IdBitmap();
+		for (long id : ids) {
+			bitmap.add(id);
+		}
+		return bitmap;
+	}
+
+	private static void assertSame(NavigableSet<Long> expected, IdBitmap actual) {
+		assertEquals(expected.size(), actual.cardinality());
+		long[] descending = new long[expected.size()];
+		int i = 0;
+		for (Iterator<Long> it = expected.descendingIterator(); it.hasNext();) {
+			descending[i++] = it.next();
+		}
+		assertArrayEquals(descending, actual.descending(0, expected.size()));
+	}
+}
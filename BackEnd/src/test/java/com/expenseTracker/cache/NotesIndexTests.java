@@ -0,0 +1,128 @@
+package com.expenseTracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class NotesIndexTests {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+	@Test
+	void tokenizeFoldsCaseAndAccentsAndSplitsOnPunctuation() {
+		assertEquals(List.of("cafe", "creme", "brulee", "2"), NotesIndex.tokenize("Café crème-BRÛLÉE, 2"));
+		assertEquals(List.of(), NotesIndex.tokenize("  -- "));
+		assertEquals(List.of(), NotesIndex.tokenize(null));
+	}
+
+	@Test
+	void everyWordMustMatchAsWordOrPrefix() {
+		NotesIndex index = new NotesIndex();
+		index.put(1L, DAY, 1L, "Taxi to airport");
+		index.put(2L, DAY, 1L, "Taxi home");
+		index.put(3L, DAY, 1L, "Airport lounge coffee");
+
+		assertEquals(List.of(1L), ids(index.search("taxi air", doc -> true)));
+		assertEquals(Set.of(1L, 3L), Set.copyOf(ids(index.search("AIRPORT", doc -> true))));
+		assertEquals(List.of(), ids(index.search("taxi coffee", doc -> true)));
+		assertEquals(List.of(), ids(index.search("irport", doc -> true)));
+	}
+
+	@Test
+	void exactWordRanksAbovePrefixAndRareAboveCommon() {
+		NotesIndex index = new NotesIndex();
+		index.put(1L, DAY, 1L, "dinner");
+		index.put(2L, DAY, 1L, "dine");
+		index.put(3L, DAY, 1L, "dinners");
+		assertEquals(2L, ids(index.search("dine", doc -> true)).get(0));
+		assertEquals(List.of(1L, 3L), ids(index.search("dinner", doc -> true)));
+
+		NotesIndex rarity = new NotesIndex();
+		rarity.put(1L, DAY, 1L, "lunch");
+		rarity.put(2L, DAY, 1L, "lunch");
+		rarity.put(3L, DAY, 1L, "lunch");
+		rarity.put(4L, DAY, 1L, "pizza");
+		double common = rarity.search("lunch", doc -> true).get(0).getScore();
+		double rare = rarity.search("pizza", doc -> true).get(0).getScore();
+		assertTrue(rare > common);
+	}
+
+	@Test
+	void equalScoresComeNewestFirst() {
+		NotesIndex index = new NotesIndex();
+		index.put(1L, DAY, 1L, "rent");
+		index.put(2L, DAY.plusMonths(1), 1L, "rent");
+		index.put(3L, DAY.plusMonths(1), 1L, "rent");
+		index.put(4L, null, 1L, "rent");
+		assertEquals(List.of(3L, 2L, 1L, 4L), ids(index.search("rent", doc -> true)));
+	}
+
+	@Test
+	void bm25FavoursShortNotesAndRepeatedWords() {
+		NotesIndex index = new NotesIndex();
+		index.put(1L, DAY, 1L, "fuel");
+		index.put(2L, DAY, 1L, "fuel for the long trip up north with friends");
+		index.put(3L, DAY, 1L, "groceries");
+		assertEquals(List.of(1L, 2L), ids(index.search("fuel", doc -> true)));
+
+		NotesIndex repeated = new NotesIndex();
+		repeated.put(1L, DAY, 1L, "tea snack");
+		repeated.put(2L, DAY, 1L, "tea tea");
+		repeated.put(3L, DAY, 1L, "groceries");
+		assertEquals(List.of(2L, 1L), ids(repeated.search("tea", doc -> true)));
+	}
+
+	@Test
+	void filterIsAppliedToEveryMatch() {
+		NotesIndex index = new NotesIndex();
+		index.put(1L, DAY, 1L, "books");
+		index.put(2L, DAY, 2L, "books");
+		assertEquals(List.of(2L), ids(index.search("books", doc -> doc.getCategoryId() == 2L)));
+	}
+
+	@Test
+	void putReplacesAndRemoveDropsTerms() {
+		NotesIndex index = new NotesIndex();
+		index.put(1L, DAY, 1L, "gym membership");
+		index.put(2L, DAY, 1L, "gym shoes");
+		index.put(1L, DAY, 1L, "swimming pool");
+		assertEquals(List.of(2L), ids(index.search("gym", doc -> true)));
+		assertEquals(List.of(1L), ids(index.search("swim", doc -> true)));
+		assertEquals(List.of(), ids(index.search("membership", doc -> true)));
+
+		index.remove(2L);
+		index.remove(99L);
+		assertEquals(List.of(), ids(index.search("gym", doc -> true)));
+		assertEquals(1, index.size());
+		assertEquals(2, index.terms());
+
+		//Blank notes leave nothing behind
+		index.put(1L, DAY, 1L, " ");
+		assertEquals(0, index.size());
+		assertEquals(0, index.terms());
+	}
+
+	@Test
+	void staleIdsAreHandedOutOnce() {
+		NotesIndex index = new NotesIndex();
+		index.markStale(1L);
+		index.markStale(2L);
+		index.markStale(1L);
+		assertEquals(Set.of(1L, 2L), index.drainStale());
+		assertEquals(Set.of(), index.drainStale());
+	}
+
+	private static List<Long> ids(List<NotesIndex.Hit> hits) {
+		List<Long> ids = new ArrayList<>();
+		for (NotesIndex.Hit hit : hits) {
+			ids.add(hit.getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,84 @@
+package com.expenseTracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class WeightedLruCacheTests {
+
+	@Test
+	void evictsLeastRecentlyUsedUntilUnderBudget() {
+		WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, String::length);
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+		assertEquals("aaaa", cache.get("a"));
+		cache.put("c", "cccc");
+
+		assertNull(cache.peek("b"));
+		assertEquals("aaaa", cache.peek("a"));
+		assertEquals(8, cache.weight());
+		assertEquals(1, cache.getEvictions());
+
+		//Two entries go to make room for a heavy one
+		cache.put("d", "dddddddd");
+		assertEquals(1, cache.size());
+		assertEquals(8, cache.weight());
+		assertEquals(3, cache.getEvictions());
+	}
+
+	@Test
+	void peekAndReweighDoNotCountAsUse() {
+		StringBuilder a = new StringBuilder("aaa");
+		WeightedLruCache<String, StringBuilder> cache = new WeightedLruCache<>(10, StringBuilder::length);
+		cache.put("a", a);
+		cache.put("b", new StringBuilder("bbb"));
+		cache.peek("a");
+		cache.reweigh("a");
+		cache.put("c", new StringBuilder("ccc"));
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+
+		//Growing b pushes out a, still the eldest
+		cache.peek("b").append("bb");
+		cache.reweigh("b");
+		assertNull(cache.peek("a"));
+		assertEquals(8, cache.weight());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void valueHeavierThanTheBudgetLeaves() {
+		StringBuilder a = new StringBuilder("aa");
+		WeightedLruCache<String, StringBuilder> cache = new WeightedLruCache<>(5, StringBuilder::length);
+		cache.put("a", a);
+		a.append("aaaa");
+		cache.reweigh("a");
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+		cache.reweigh("missing");
+
+		cache.put("b", new StringBuilder("bbbbbbb"));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+	}
+
+	@Test
+	void putReplacesAndInvalidateReleasesWeight() {
+		WeightedLruCache<String, String> cache = new WeightedLruCache<>(100, String::length);
+		cache.put("a", "aaaa");
+		cache.put("a", "aa");
+		assertEquals(2, cache.weight());
+		assertNull(cache.get("x"));
+		assertEquals("aa", cache.get("a"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		cache.put("b", "bbb");
+		cache.invalidate("a");
+		assertEquals(3, cache.weight());
+		cache.invalidateAll();
+		assertEquals(0, cache.weight());
+		assertEquals(0, cache.size());
+	}
+}
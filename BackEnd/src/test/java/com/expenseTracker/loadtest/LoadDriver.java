@@ -0,0 +1,261 @@
+package com.expenseTracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Open loop HTTP load driver for a running loadtest instance. Virtual users
+ * cycle through login, dashboard, expenses page and add expense, and a new
+ * request is started every 1/rps seconds whether or not earlier ones have
+ * finished, so a slow server shows up as latency instead of a lower rate.
+ *
+ * Options: --base-url, --rps, --duration and --warmup (seconds), --users,
+ * --password, and --dashboard split (the three calls the page makes today) or
+ * combined (one /dashboard call). Users must exist, see {@link SyntheticDataGenerator}.
+ */
+public final class LoadDriver {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private enum Step {
+		LOGIN("POST /auth/login"),
+		DASHBOARD_CATEGORIES("GET /category/getCategories"),
+		DASHBOARD_SIX_MONTHS("GET /expenses/getSixMonthsExpenses"),
+		DASHBOARD_BUDGETS("GET /budgets/getBudgets"),
+		DASHBOARD("GET /dashboard"),
+		EXPENSES_PAGE("GET /expenses/getAllExpenses"),
+		ADD_EXPENSE("POST /expenses/addExpenses");
+
+		private final String endpoint;
+
+		Step(String endpoint) {
+			this.endpoint = endpoint;
+		}
+	}
+
+	private static final class VirtualUser {
+		private final String userid;
+		private final AtomicBoolean busy = new AtomicBoolean();
+		private volatile String token;
+		private volatile long categoryId;
+		private int step;
+
+		private VirtualUser(String userid) {
+			this.userid = userid;
+		}
+	}
+
+	//Latencies in nanoseconds for one endpoint
+	private static final class Recorder {
+		private long[] samples = new long[1024];
+		private int count;
+		private long errors;
+
+		private synchronized void record(long nanos, boolean ok) {
+			if (count == samples.length) {
+				samples = Arrays.copyOf(samples, count * 2);
+			}
+			samples[count++] = nanos;
+			if (!ok) {
+				errors++;
+			}
+		}
+
+		private synchronized long[] sorted() {
+			long[] copy = Arrays.copyOf(samples, count);
+			Arrays.sort(copy);
+			return copy;
+		}
+	}
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+	private final AtomicLong missed = new AtomicLong();
+	private final String baseUrl;
+	private final String password;
+	private final List<VirtualUser> users;
+	private final List<Step> script;
+	private volatile boolean recording;
+	private int nextUser;
+
+	private LoadDriver(String baseUrl, String password, int userCount, boolean combinedDashboard) {
+		this.baseUrl = baseUrl;
+		this.password = password;
+		this.script = combinedDashboard
+				? List.of(Step.LOGIN, Step.DASHBOARD, Step.EXPENSES_PAGE, Step.ADD_EXPENSE)
+				: List.of(Step.LOGIN, Step.DASHBOARD_CATEGORIES, Step.DASHBOARD_SIX_MONTHS, Step.DASHBOARD_BUDGETS,
+						Step.EXPENSES_PAGE, Step.ADD_EXPENSE);
+		this.users = IntStream.range(0, userCount)
+				.mapToObj(i -> new VirtualUser(SyntheticDataGenerator.userId(i)))
+				.toList();
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+		}
+		String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+		int rps = Integer.parseInt(options.getOrDefault("rps", "100"));
+		int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+		int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+		int userCount = Integer.parseInt(options.getOrDefault("users", "100"));
+		String password = options.getOrDefault("password", "loadtest");
+		boolean combinedDashboard = "combined".equals(options.getOrDefault("dashboard", "split"));
+
+		new LoadDriver(baseUrl, password, userCount, combinedDashboard).run(rps, warmup, duration);
+	}
+
+	private void run(int rps, int warmup, int duration) throws InterruptedException {
+		ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+		ticker.scheduleAtFixedRate(this::tick, 0, 1_000_000_000L / rps, TimeUnit.NANOSECONDS);
+		System.out.printf("Warming up for %ds at %d rps against %s%n", warmup, rps, baseUrl);
+		Thread.sleep(warmup * 1000L);
+		recording = true;
+		long started = System.nanoTime();
+		Thread.sleep(duration * 1000L);
+		recording = false;
+		double seconds = (System.nanoTime() - started) / 1e9;
+		ticker.shutdownNow();
+		report(seconds);
+	}
+
+	private void tick() {
+		//Round robin over idle users, a tick with none idle is counted as missed
+		for (int i = 0; i < users.size(); i++) {
+			VirtualUser user = users.get(nextUser);
+			nextUser = (nextUser + 1) % users.size();
+			if (user.busy.compareAndSet(false, true)) {
+				send(user);
+				return;
+			}
+		}
+		if (recording) {
+			missed.incrementAndGet();
+		}
+	}
+
+	private void send(VirtualUser user) {
+		Step step = user.token == null ? Step.LOGIN : script.get(user.step);
+		HttpRequest request = request(user, step);
+		long started = System.nanoTime();
+		CompletableFuture<HttpResponse<String>> call = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+		call.whenComplete((response, failure) -> {
+			long elapsed = System.nanoTime() - started;
+			boolean ok = failure == null && response.statusCode() == 200 && handle(user, step, response.body());
+			if (recording) {
+				recorders.computeIfAbsent(step.endpoint, k -> new Recorder()).record(elapsed, ok);
+			}
+			user.step = ok ? (user.step + 1) % script.size() : 0;
+			if (user.step == 0) {
+				user.token = null;
+			}
+			user.busy.set(false);
+		});
+	}
+
+	private HttpRequest request(VirtualUser user, Step step) {
+		String path = switch (step) {
+		case LOGIN -> "/auth/login";
+		case DASHBOARD_CATEGORIES -> "/category/getCategories/" + user.userid;
+		case DASHBOARD_SIX_MONTHS -> "/expenses/getSixMonthsExpenses/" + user.userid;
+		case DASHBOARD_BUDGETS -> "/budgets/getBudgets/" + user.userid;
+		case DASHBOARD -> "/dashboard/" + user.userid;
+		case EXPENSES_PAGE -> "/expenses/getAllExpenses?userId=" + user.userid + "&page=0&size=10";
+		case ADD_EXPENSE -> "/expenses/addExpenses";
+		};
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json");
+		if (user.token != null) {
+			builder.header("Authorization", "Bearer " + user.token);
+		}
+		return switch (step) {
+		case LOGIN -> builder.POST(body(Map.of("userid", user.userid, "password", password))).build();
+		case ADD_EXPENSE -> builder.POST(body(Map.of("userid", user.userid, "categoryId", user.categoryId,
+				"amount", 250, "currency", "INR", "date", LocalDateTime.now().withNano(0).toString(),
+				"paymentMethod", "UPI", "notes", "load test"))).build();
+		default -> builder.GET().build();
+		};
+	}
+
+	//Picks the token and a category out of the responses the next steps need
+	private boolean handle(VirtualUser user, Step step, String body) {
+		try {
+			JsonNode root = MAPPER.readTree(body);
+			if (!root.path("errors").isNull() && !root.path("errors").isMissingNode()) {
+				return false;
+			}
+			if (step == Step.LOGIN) {
+				user.token = root.path("data").path("authorization").asText(null);
+				return user.token != null;
+			}
+			JsonNode categories = step == Step.DASHBOARD ? root.path("data").path("categories")
+					: step == Step.DASHBOARD_CATEGORIES ? root.path("data") : null;
+			if (categories != null && categories.size() > 0) {
+				user.categoryId = categories.get(0).path("id").asLong();
+			}
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private static HttpRequest.BodyPublisher body(Object value) {
+		try {
+			return HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(value));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void report(double seconds) {
+		System.out.printf(Locale.ROOT, "%n%-36s %8s %7s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s",
+				"p50 ms", "p99 ms", "p999 ms");
+		long total = 0;
+		for (Step step : Step.values()) {
+			Recorder recorder = recorders.get(step.endpoint);
+			if (recorder == null) {
+				continue;
+			}
+			long[] sorted = recorder.sorted();
+			total += sorted.length;
+			System.out.printf(Locale.ROOT, "%-36s %8d %7d %9.1f %9.2f %9.2f %9.2f%n", step.endpoint, sorted.length,
+					recorder.errors, sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+					percentile(sorted, 0.999));
+		}
+		System.out.printf(Locale.ROOT, "%-36s %8d %7s %9.1f%n", "total", total, "", total / seconds);
+		if (missed.get() > 0) {
+			System.out.printf("%d ticks found every user busy, raise --users to reach the target rate%n",
+					missed.get());
+		}
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(p * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+}
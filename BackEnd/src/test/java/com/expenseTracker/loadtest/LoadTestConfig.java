@@ -0,0 +1,44 @@
+package com.expenseTracker.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Creates the schema from Database/SampadaDB.sql on the embedded database
+ * before JPA starts, so the load test runs against the production DDL.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+	@Bean
+	public DataSourceScriptDatabaseInitializer loadTestSchemaInitializer(DataSource dataSource,
+			@Value("${loadtest.schema}") Resource schema) {
+		return new DataSourceScriptDatabaseInitializer(dataSource, new DatabaseInitializationSettings()) {
+			@Override
+			public boolean initializeDatabase() {
+				try {
+					String sql = MysqlDumpSchema.toH2(schema.getContentAsString(StandardCharsets.UTF_8));
+					new ResourceDatabasePopulator(new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8)))
+							.execute(getDataSource());
+					return true;
+				} catch (IOException e) {
+					throw new UncheckedIOException("Failed to read " + schema, e);
+				}
+			}
+		};
+	}
+}
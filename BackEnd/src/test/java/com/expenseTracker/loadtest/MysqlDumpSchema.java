@@ -0,0 +1,71 @@
+package com.expenseTracker.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites a mysqldump schema so H2 in MySQL mode can run it: table options
+ * are dropped, and foreign keys move to ALTER TABLE statements at the end
+ * since the dump creates tables in name order and relies on
+ * FOREIGN_KEY_CHECKS=0 for the forward references.
+ */
+public final class MysqlDumpSchema {
+
+	private static final Pattern CREATE_TABLE = Pattern.compile("^CREATE TABLE `(\\w+)`");
+	private static final Pattern TABLE_OPTIONS = Pattern.compile("^\\)\\s*ENGINE=.*;$");
+	private static final Pattern KEY_NAME = Pattern.compile("^KEY `(\\w+)`");
+	private static final Pattern CONDITIONAL_COMMENT = Pattern.compile("^/\\*!.*\\*/;?$");
+
+	private MysqlDumpSchema() {
+	}
+
+	public static String toH2(String dump) {
+		StringBuilder out = new StringBuilder();
+		List<String> foreignKeys = new ArrayList<>();
+		String table = null;
+		List<String> columns = new ArrayList<>();
+
+		for (String raw : dump.split("\\r?\\n")) {
+			String line = raw.trim();
+			if (line.isEmpty() || line.startsWith("--") || CONDITIONAL_COMMENT.matcher(line).matches()) {
+				continue;
+			}
+			Matcher create = CREATE_TABLE.matcher(line);
+			if (create.find()) {
+				table = create.group(1);
+				columns.clear();
+				out.append(line).append('\n');
+				continue;
+			}
+			if (table == null) {
+				out.append(line).append('\n');
+				continue;
+			}
+			if (line.startsWith(")")) {
+				out.append(String.join(",\n", columns)).append('\n');
+				out.append(TABLE_OPTIONS.matcher(line).matches() ? ");" : line).append('\n');
+				table = null;
+				continue;
+			}
+			String definition = line.endsWith(",") ? line.substring(0, line.length() - 1) : line;
+			if (definition.startsWith("CONSTRAINT ") && definition.contains(" FOREIGN KEY ")) {
+				foreignKeys.add("ALTER TABLE `" + table + "` ADD " + definition + ";");
+			} else if (definition.startsWith("KEY ")) {
+				//MySQL names indexes per table, H2 per schema, where fk_ keys would clash with their constraints
+				Matcher name = KEY_NAME.matcher(definition);
+				String columnList = definition.substring(definition.indexOf('('));
+				columns.add(name.find() && !name.group(1).startsWith("fk_")
+						? "KEY `" + name.group(1) + "` " + columnList
+						: "KEY " + columnList);
+			} else {
+				columns.add(definition);
+			}
+		}
+		for (String foreignKey : foreignKeys) {
+			out.append(foreignKey).append('\n');
+		}
+		return out.toString();
+	}
+}
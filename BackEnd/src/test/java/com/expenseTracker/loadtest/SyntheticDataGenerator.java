@@ -0,0 +1,197 @@
+package com.expenseTracker.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.expenseTracker.resources.BudgetMonth;
+import com.expenseTracker.service.ExpenseRollupServiceImpl;
+
+/**
+ * Seeds N users x M categories x K expenses on startup of the loadtest
+ * profile. The same seed always produces the same data set.
+ *
+ * Dates cover the last loadtest.months months, weekends are busier and
+ * recent months slightly denser. Amounts are log-normal around a per
+ * category typical spend, so a few large purchases sit on top of many small
+ * ones.
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticDataGenerator {
+
+	static final String ROLE = "USER";
+
+	private static final String[] CATEGORY_NAMES = { "Groceries", "Dining", "Transport", "Utilities", "Rent",
+			"Shopping", "Health", "Entertainment", "Travel", "Education", "Gifts", "Subscriptions" };
+	//Typical single expense per category, same order as the names
+	private static final double[] TYPICAL_AMOUNT = { 900, 450, 180, 1800, 15000, 1500, 700, 500, 6000, 2500, 1200,
+			400 };
+	private static final String[] PAYMENT_METHODS = { "UPI", "Card", "Cash", "NetBanking" };
+	private static final double[] PAYMENT_WEIGHTS = { 0.45, 0.35, 0.15, 0.05 };
+	private static final int BATCH_SIZE = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final PasswordEncoder encoder;
+	private final ExpenseRollupServiceImpl rollupService;
+	private final int users;
+	private final int categoriesPerUser;
+	private final int expensesPerUser;
+	private final int months;
+	private final long seed;
+	private final String password;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+	public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder encoder,
+			ExpenseRollupServiceImpl rollupService,
+			@Value("${loadtest.users:100}") int users,
+			@Value("${loadtest.categories-per-user:8}") int categoriesPerUser,
+			@Value("${loadtest.expenses-per-user:2000}") int expensesPerUser,
+			@Value("${loadtest.months:24}") int months,
+			@Value("${loadtest.seed:42}") long seed,
+			@Value("${loadtest.password:loadtest}") String password) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.encoder = encoder;
+		this.rollupService = rollupService;
+		this.users = users;
+		this.categoriesPerUser = Math.min(categoriesPerUser, CATEGORY_NAMES.length);
+		this.expensesPerUser = expensesPerUser;
+		this.months = months;
+		this.seed = seed;
+		this.password = password;
+	}
+
+	static String userId(int index) {
+		return String.format("loadtest-%05d", index);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void generate() {
+		long started = System.currentTimeMillis();
+		Random random = new Random(seed);
+
+		jdbcTemplate.update("INSERT INTO roles (role) VALUES (?)", ROLE);
+		//BCrypt is deliberately slow, every synthetic user shares one hash
+		String hash = encoder.encode(password);
+		List<Object[]> userRows = new ArrayList<>(users);
+		for (int u = 0; u < users; u++) {
+			userRows.add(new Object[] { userId(u), "Load Test " + u, hash, userId(u) + "@example.com", ROLE, "INR" });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO users (userid, username, password, email, role, default_currency) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)", userRows);
+
+		List<Object[]> categoryRows = new ArrayList<>(users * categoriesPerUser);
+		for (int u = 0; u < users; u++) {
+			for (int c = 0; c < categoriesPerUser; c++) {
+				categoryRows.add(new Object[] { CATEGORY_NAMES[c], String.format("#%06x", random.nextInt(0x1000000)),
+						c + 1, userId(u) });
+			}
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO categories (name, color_code, category_icon, userid) VALUES (?, ?, ?, ?)", categoryRows);
+
+		Map<String, List<Long>> categoryIds = new HashMap<>();
+		jdbcTemplate.query("SELECT id, userid FROM categories ORDER BY id", rs -> {
+			categoryIds.computeIfAbsent(rs.getString(2), k -> new ArrayList<>()).add(rs.getLong(1));
+		});
+
+		//A budget per category for every month the expenses span
+		YearMonth currentMonth = YearMonth.now();
+		List<Object[]> budgetRows = new ArrayList<>(users * categoriesPerUser * (months + 1));
+		for (int u = 0; u < users; u++) {
+			List<Long> ids = categoryIds.get(userId(u));
+			for (int m = months; m >= 0; m--) {
+				YearMonth month = currentMonth.minusMonths(m);
+				for (int c = 0; c < ids.size(); c++) {
+					BigDecimal budget = BigDecimal.valueOf(Math.round(TYPICAL_AMOUNT[c] * 8 / 100) * 100L);
+					budgetRows.add(new Object[] { userId(u), ids.get(c), BudgetMonth.label(month), BudgetMonth.key(month),
+							budget, "INR" });
+				}
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO budgets (userid, category_id, month, month_key, amount, currency) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)", budgetRows);
+
+		LocalDateTime now = LocalDateTime.now();
+		LocalDate firstDay = now.toLocalDate().minusMonths(months);
+		int days = (int) (now.toLocalDate().toEpochDay() - firstDay.toEpochDay());
+		List<Object[]> expenseRows = new ArrayList<>(BATCH_SIZE);
+		long expenses = 0;
+		for (int u = 0; u < users; u++) {
+			List<Long> ids = categoryIds.get(userId(u));
+			for (int k = 0; k < expensesPerUser; k++) {
+				int c = random.nextInt(ids.size());
+				LocalDateTime date = randomDate(random, firstDay, days);
+				expenseRows.add(new Object[] { userId(u), ids.get(c), randomAmount(random, TYPICAL_AMOUNT[c]), "INR",
+						Timestamp.valueOf(date), paymentMethod(random), CATEGORY_NAMES[c] + " #" + k,
+						random.nextDouble() < 0.03 });
+				if (expenseRows.size() == BATCH_SIZE) {
+					expenses += insertExpenses(expenseRows);
+				}
+			}
+		}
+		expenses += insertExpenses(expenseRows);
+
+		rollupService.rebuildAll();
+		LOGGER.info("Generated {} users, {} categories and {} expenses in {} ms", users, categoryRows.size(),
+				expenses, System.currentTimeMillis() - started);
+	}
+
+	private int insertExpenses(List<Object[]> rows) {
+		int inserted = rows.size();
+		if (inserted > 0) {
+			jdbcTemplate.batchUpdate("INSERT INTO expenses (userid, category_id, amount, currency, date, "
+					+ "payment_method, notes, is_recurring) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+			rows.clear();
+		}
+		return inserted;
+	}
+
+	//Half uniform, half skewed towards recent days; weekends get half again as many expenses
+	private static LocalDateTime randomDate(Random random, LocalDate firstDay, int days) {
+		LocalDate day;
+		do {
+			double position = random.nextBoolean() ? random.nextDouble() : Math.sqrt(random.nextDouble());
+			day = firstDay.plusDays((long) (position * days));
+		} while ((day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY)
+				&& random.nextDouble() < 1 / 3.0);
+		int minute = (int) Math.max(0, Math.min(24 * 60 - 1, 14 * 60 + random.nextGaussian() * 180));
+		return day.atTime(minute / 60, minute % 60);
+	}
+
+	private static BigDecimal randomAmount(Random random, double typical) {
+		double amount = typical * Math.exp(random.nextGaussian() * 0.6);
+		return BigDecimal.valueOf(Math.max(1, amount)).setScale(2, RoundingMode.HALF_UP);
+	}
+
+	private static String paymentMethod(Random random) {
+		double r = random.nextDouble();
+		for (int i = 0; i < PAYMENT_METHODS.length; i++) {
+			r -= PAYMENT_WEIGHTS[i];
+			if (r < 0) {
+				return PAYMENT_METHODS[i];
+			}
+		}
+		return PAYMENT_METHODS[0];
+	}
+}
@@ -0,0 +1,193 @@
+package com.expenseTracker.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.expenseTracker.dto.ExpenseSearch;
+import com.expenseTracker.dto.ExpenseView;
+import com.expenseTracker.loadtest.LoadTestConfig;
+import com.expenseTracker.resources.PageCursor;
+
+/**
+ * Runs each filter combination the expense screen offers through
+ * {@link ExpensesRepository#search} on the production schema and checks the
+ * plan H2 picks for the statement Hibernate sent.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,YEAR,VALUE",
+		"spring.jpa.hibernate.ddl-auto=none",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.expenseTracker.repository.ExpenseSearchPlanTests$LastStatement" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("loadtest")
+@Import(LoadTestConfig.class)
+class ExpenseSearchPlanTests {
+
+	private static final String USER = "search-user";
+	private static final String[] METHODS = { "UPI", "Card", "Cash", "Wallet" };
+	private static final int CATEGORIES = 8;
+	private static final int EXPENSES = 4000;
+
+	//H2 gives fk_expense_user an index of its own where InnoDB reuses idx_expenses_user_date, and with only
+	//userid bound H2 costs both the same; either one means the plan seeks by user
+	private static final String USER_INDEX = "(idx_expenses_user_date|fk_expense_user_INDEX_\\w+):";
+
+	private static final List<Long> categoryIds = new ArrayList<>();
+
+	@Autowired
+	private ExpensesRepository eRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	public static class LastStatement implements StatementInspector {
+		static volatile String sql;
+
+		@Override
+		public String inspect(String sql) {
+			LastStatement.sql = sql;
+			return sql;
+		}
+	}
+
+	//Two users, so the user prefix alone is not selective enough to settle the plan
+	@BeforeAll
+	static void seed(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("INSERT INTO roles (role) VALUES ('USER')");
+		for (String userid : new String[] { USER, "other-user" }) {
+			jdbc.update("INSERT INTO users (userid, username, password, role) VALUES (?, ?, 'x', 'USER')", userid,
+					userid);
+			List<Long> ids = new ArrayList<>();
+			for (int c = 0; c < CATEGORIES; c++) {
+				jdbc.update("INSERT INTO categories (name, category_icon, userid) VALUES (?, ?, ?)", "Category " + c, c,
+						userid);
+				ids.add(jdbc.queryForObject("SELECT max(id) FROM categories", Long.class));
+			}
+			if (USER.equals(userid)) {
+				categoryIds.addAll(ids);
+			}
+			List<Object[]> rows = new ArrayList<>();
+			LocalDateTime start = LocalDate.of(2024, 1, 1).atStartOfDay();
+			for (int i = 0; i < EXPENSES; i++) {
+				rows.add(new Object[] { userid, ids.get(i % CATEGORIES), BigDecimal.valueOf(10 + (i * 37) % 5000),
+						i % 10 == 0 ? "USD" : "INR", Timestamp.valueOf(start.plusHours(i * 5L)), METHODS[i % 4],
+						i % 25 == 0 });
+			}
+			jdbc.batchUpdate("INSERT INTO expenses (userid, category_id, amount, currency, date, payment_method, "
+					+ "is_recurring) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+		}
+		jdbc.execute("ANALYZE");
+	}
+
+	@Test
+	void noFilterReadsUserDateIndex() {
+		assertPlanUses(USER_INDEX, new ExpenseSearch());
+	}
+
+	@Test
+	void dateRangeReadsUserDateIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setDateFrom(LocalDate.of(2024, 3, 1));
+		search.setDateTo(LocalDate.of(2024, 3, 31));
+		assertPlanUses("idx_expenses_user_date:", search);
+	}
+
+	@Test
+	void amountRangeReadsUserDateIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setMinAmount(new BigDecimal("100"));
+		search.setMaxAmount(new BigDecimal("500"));
+		assertPlanUses(USER_INDEX, search);
+	}
+
+	@Test
+	void categoryReadsCategoryIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setCategoryIds(List.of(categoryIds.get(2)));
+		assertPlanUses("idx_expenses_user_category_date:", search);
+	}
+
+	@Test
+	void categoriesWithDateRangeReadCategoryIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setCategoryIds(List.of(categoryIds.get(1), categoryIds.get(5)));
+		search.setDateFrom(LocalDate.of(2024, 2, 1));
+		search.setDateTo(LocalDate.of(2024, 6, 30));
+		search.setMinAmount(new BigDecimal("50"));
+		assertPlanUses("idx_expenses_user_category_date:", search);
+	}
+
+	@Test
+	void paymentMethodReadsMethodIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setPaymentMethods(List.of("Cash"));
+		assertPlanUses("idx_expenses_user_method_date:", search);
+	}
+
+	@Test
+	void paymentMethodWithDateRangeReadsMethodIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setPaymentMethods(List.of("UPI", "Card"));
+		search.setDateFrom(LocalDate.of(2024, 2, 1));
+		search.setDateTo(LocalDate.of(2024, 2, 29));
+		search.setRecurring(false);
+		assertPlanUses("idx_expenses_user_method_date:", search);
+	}
+
+	@Test
+	void nextPageKeepsTheIndex() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setCategoryIds(List.of(categoryIds.get(3)));
+		List<ExpenseView> first = eRepo.search(USER, search, null, false, 20);
+		assertEquals(20, first.size());
+		assertPlanUses("idx_expenses_user_category_date:", search, PageCursor.of(first.get(19)));
+	}
+
+	@Test
+	void searchAppliesEveryFilter() {
+		ExpenseSearch search = new ExpenseSearch();
+		search.setCategoryIds(List.of(categoryIds.get(0)));
+		search.setPaymentMethods(List.of("UPI"));
+		search.setCurrency("USD");
+		search.setRecurring(true);
+		List<ExpenseView> rows = eRepo.search(USER, search, null, false, 1000);
+		//Rows i % 200 == 0 are category 0, UPI, USD and recurring
+		assertEquals(EXPENSES / 200, rows.size());
+		assertEquals(EXPENSES / 200, eRepo.countSearch(USER, search));
+		for (int i = 1; i < rows.size(); i++) {
+			assertTrue(rows.get(i - 1).getDate().isAfter(rows.get(i).getDate()));
+		}
+	}
+
+	private void assertPlanUses(String index, ExpenseSearch search) {
+		assertPlanUses(index, search, null);
+	}
+
+	//H2 prints the index read for a table as /* public.<index>: <conditions> */
+	private void assertPlanUses(String index, ExpenseSearch search, PageCursor from) {
+		LastStatement.sql = null;
+		eRepo.search(USER, search, from, false, 21);
+		String plan = jdbc.queryForObject("EXPLAIN " + LastStatement.sql, String.class);
+		Matcher access = Pattern.compile("\"expenses\" \"e1_0\"\\s+/\\* public\\.(\\S+)").matcher(plan);
+		assertTrue(access.find(), () -> "No access path for expenses in\n" + plan);
+		assertTrue(access.group(1).matches(index), () -> "Expected " + index + " for " + search + " in\n" + plan);
+	}
+}
@@ -0,0 +1,40 @@
+package com.expenseTracker.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+class RecurrenceTests {
+
+	@Test
+	void dayPastTheEndOfMonthFallsOnItsLastDay() {
+		assertEquals(LocalDate.of(2026, 2, 28), Recurrence.on(YearMonth.of(2026, 2), 31));
+		assertEquals(LocalDate.of(2028, 2, 29), Recurrence.on(YearMonth.of(2028, 2), 30));
+		assertEquals(LocalDate.of(2026, 4, 30), Recurrence.on(YearMonth.of(2026, 4), 31));
+		assertEquals(LocalDate.of(2026, 1, 31), Recurrence.on(YearMonth.of(2026, 1), 31));
+	}
+
+	@Test
+	void monthAfterAClampedOneGoesBackToTheRuleDay() {
+		LocalDate february = Recurrence.next(LocalDate.of(2026, 1, 31), 1, 31);
+		assertEquals(LocalDate.of(2026, 2, 28), february);
+		assertEquals(LocalDate.of(2026, 3, 31), Recurrence.next(february, 1, 31));
+	}
+
+	@Test
+	void nextSkipsIntervalMonthsAcrossYears() {
+		assertEquals(LocalDate.of(2027, 2, 15), Recurrence.next(LocalDate.of(2026, 11, 15), 3, 15));
+		assertEquals(LocalDate.of(2027, 11, 30), Recurrence.next(LocalDate.of(2026, 11, 30), 12, 30));
+	}
+
+	@Test
+	void firstOnOrAfterMovesToNextMonthOnlyWhenTheDayHasPassed() {
+		assertEquals(LocalDate.of(2026, 3, 10), Recurrence.firstOnOrAfter(LocalDate.of(2026, 3, 10), 10));
+		assertEquals(LocalDate.of(2026, 4, 10), Recurrence.firstOnOrAfter(LocalDate.of(2026, 3, 11), 10));
+		assertEquals(LocalDate.of(2026, 2, 28), Recurrence.firstOnOrAfter(LocalDate.of(2026, 2, 1), 31));
+		assertEquals(LocalDate.of(2026, 3, 31), Recurrence.firstOnOrAfter(LocalDate.of(2026, 3, 1), 31));
+	}
+}
@@ -0,0 +1,80 @@
+package com.expenseTracker.resources;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenseTracker.cache.IdBitmap;
+
+class TagExpressionTests {
+
+	//Expenses 1 to 6 tagged as below
+	private static final Map<String, IdBitmap> TAGS = Map.of(
+			"travel", bitmap(1, 2, 3, 4),
+			"food", bitmap(1, 5),
+			"taxi", bitmap(2, 6),
+			"reimbursed", bitmap(2),
+			"day trip", bitmap(3));
+	private static final IdBitmap ALL = bitmap(1, 2, 3, 4, 5, 6);
+
+	@Test
+	void andBindsTighterThanOr() {
+		assertIds("travel AND (food OR taxi) AND NOT reimbursed", 1);
+		assertIds("food OR taxi AND travel", 5, 2, 1);
+		assertIds("(food OR taxi) AND travel", 2, 1);
+	}
+
+	@Test
+	void symbolsAndAdjacentNamesMeanTheSameAsKeywords() {
+		assertIds("travel && !reimbursed", 4, 3, 1);
+		assertIds("travel & taxi | food", 5, 2, 1);
+		assertIds("travel taxi", 2);
+		assertIds("travel and not food", 4, 3, 2);
+	}
+
+	@Test
+	void notIsTakenAgainstAllExpenses() {
+		assertIds("NOT travel", 6, 5);
+		assertIds("NOT NOT food", 5, 1);
+		assertIds("!travel !food", 6);
+		assertIds("unknown OR NOT unknown", 6, 5, 4, 3, 2, 1);
+	}
+
+	@Test
+	void quotedNamesKeepSpacesAndOperators() {
+		assertIds("\"day trip\" OR reimbursed", 3, 2);
+		assertEquals(Set.of("a & b", "or"), TagExpression.parse("\"a & b\" \"or\"").names());
+		assertEquals(List.of("travel", "food", "taxi"),
+				List.copyOf(TagExpression.parse("travel (food | taxi) !travel").names()));
+	}
+
+	@Test
+	void malformedExpressionsAreRejected() {
+		for (String text : new String[] { "", "  ", "travel AND", "(travel", "travel)", "OR food", "\"open",
+				"\" \"", "NOT", "travel ()" }) {
+			assertThrows(IllegalArgumentException.class, () -> TagExpression.parse(text), text);
+		}
+		assertThrows(IllegalArgumentException.class, () -> TagExpression.parse(null));
+		assertThrows(IllegalArgumentException.class, () -> TagExpression.parse("a ".repeat(501)));
+	}
+
+	private static void assertIds(String text, long... descending) {
+		IdBitmap result = TagExpression.parse(text)
+				.evaluate(name -> TAGS.getOrDefault(name, new IdBitmap()), ALL);
+		assertArrayEquals(descending, result.descending(0, 100), text);
+	}
+
+	private static IdBitmap bitmap(long... ids) {
+		IdBitmap bitmap = new IdBitmap();
+		for (long id : ids) {
+			bitmap.add(id);
+		}
+		return bitmap;
+	}
+}
@@ -0,0 +1,60 @@
+package com.expenseTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+import com.expenseTracker.entity.Budgets;
+
+class BudgetRolloverServiceImplTests {
+
+	private static final YearMonth MARCH = YearMonth.of(2026, 3);
+
+	@Test
+	void withoutRolloverNextMonthGetsTheBaseAmount() {
+		Budgets next = next("500.00", "120.00", false, "100.00");
+		assertAmount("380.00", next.getAmount());
+		assertAmount("0", next.getCarriedOver());
+		assertEquals(MARCH, next.getYearMonth());
+		assertEquals(Long.valueOf(7), next.getCategory().getId());
+		assertEquals("INR", next.getCurrency());
+	}
+
+	@Test
+	void rolloverCarriesTheUnspentPartOfTheWholeBudget() {
+		Budgets next = next("500.00", "120.00", true, "100.00");
+		assertAmount("780.00", next.getAmount());
+		assertAmount("400.00", next.getCarriedOver());
+	}
+
+	@Test
+	void overspendingCarriesNothing() {
+		Budgets next = next("500.00", "120.00", true, "650.00");
+		assertAmount("380.00", next.getAmount());
+		assertAmount("0.00", next.getCarriedOver());
+	}
+
+	@Test
+	void missingAmountsCountAsZero() {
+		Budgets next = BudgetRolloverServiceImpl.nextBudget(MARCH, "user", 7L, new BigDecimal("200.00"), null, "INR",
+				true, null);
+		assertAmount("400.00", next.getAmount());
+		assertAmount("200.00", next.getCarriedOver());
+
+		Budgets empty = BudgetRolloverServiceImpl.nextBudget(MARCH, "user", 7L, null, null, "INR", true, null);
+		assertAmount("0", empty.getAmount());
+	}
+
+	//Compared by value, the decimal(38,2) column fixes the scale on save
+	private static void assertAmount(String expected, BigDecimal actual) {
+		assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> expected + " but was " + actual);
+	}
+
+	private static Budgets next(String amount, String carriedOver, boolean rollOverEnabled, String spent) {
+		return BudgetRolloverServiceImpl.nextBudget(MARCH, "user", 7L, new BigDecimal(amount),
+				new BigDecimal(carriedOver), "INR", rollOverEnabled, new BigDecimal(spent));
+	}
+}
@@ -0,0 +1,89 @@
+package com.expenseTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.expenseTracker.dto.CategoryBudgetView;
+import com.expenseTracker.entity.Budgets;
+import com.expenseTracker.entity.Categories;
+import com.expenseTracker.repository.BudgetsRepository;
+import com.expenseTracker.repository.CategoryRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:categories;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,YEAR,VALUE",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CategoryServiceImpl.class)
+class CategoryServiceImplTests {
+
+	@Autowired
+	private CategoryServiceImpl cService;
+
+	@Autowired
+	private CategoryRepository cRepo;
+
+	@Autowired
+	private BudgetsRepository bRepo;
+
+	@Autowired
+	private EntityManager em;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Test
+	void getCategoriesStatementCountIsIndependentOfCategoryCount() {
+		assertEquals(1, statementsFor("small", 2));
+		assertEquals(1, statementsFor("large", 40));
+	}
+
+	@Test
+	void getCategoriesAttachesOnlyCurrentMonthBudget() {
+		String currentMonth = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH));
+		Categories food = cRepo.save(new Categories(null, "Food", "#ff0000", 1, "budgeted", null));
+		Categories rent = cRepo.save(new Categories(null, "Rent", "#00ff00", 2, "budgeted", null));
+		bRepo.save(new Budgets(null, "budgeted", food, currentMonth, new BigDecimal("500.00"), "INR", false, null));
+		bRepo.save(new Budgets(null, "budgeted", rent, "January 1999", new BigDecimal("900.00"), "INR", false, null));
+		em.flush();
+		em.clear();
+
+		@SuppressWarnings("unchecked")
+		List<CategoryBudgetView> categories = (List<CategoryBudgetView>) cService.getCategories("budgeted").getData();
+
+		assertEquals(2, categories.size());
+		assertEquals(new BigDecimal("500.00"), categories.get(0).getBudget());
+		assertEquals(null, categories.get(1).getBudget());
+	}
+
+	private long statementsFor(String userId, int categoryCount) {
+		String currentMonth = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH));
+		for (int i = 0; i < categoryCount; i++) {
+			Categories category = cRepo.save(new Categories(null, "Category " + i, "#000000", i, userId, null));
+			bRepo.save(new Budgets(null, userId, category, currentMonth, BigDecimal.TEN, "INR", false, null));
+		}
+		em.flush();
+		em.clear();
+
+		Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		Object data = cService.getCategories(userId).getData();
+		assertEquals(categoryCount, ((List<?>) data).size());
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,118 @@
+package com.expenseTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.expenseTracker.dto.BulkRowResult;
+import com.expenseTracker.entity.Expenses;
+import com.expenseTracker.entity.RecurringExpenses;
+import com.expenseTracker.repository.RecurringExpensesRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the recurring job on the production schema and checks that clients
+ * cannot link their own expenses to a rule occurrence, and that a rule whose
+ * occurrence cannot be added does not stop the others.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:recurring;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,YEAR,VALUE",
+		"loadtest.users=2", "loadtest.expenses-per-user=20", "loadtest.months=2",
+		"recurring.chunk-size=2", "recurring.catch-up-on-startup=false", "budgets.rollover.catch-up-on-startup=false" })
+@ActiveProfiles("loadtest")
+class RecurringExpensesServiceImplTests {
+
+	private static final String USER = "loadtest-00000";
+
+	@Autowired
+	private RecurringExpensesServiceImpl rService;
+
+	@Autowired
+	private ExpensesServiceImpl eService;
+
+	@Autowired
+	private RecurringExpensesRepository rRepo;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void requestsCannotSetRecurringOccurrence() throws Exception {
+		Long categoryId = categoryId();
+		Expenses parsed = mapper.readValue("{\"userid\":\"" + USER + "\",\"categoryId\":" + categoryId
+				+ ",\"amount\":12.50,\"date\":\"2026-03-01T00:00:00\",\"recurringId\":1,\"occurrence\":\"2026-03-01\"}",
+				Expenses.class);
+		assertNull(parsed.getRecurringId());
+		assertNull(parsed.getOccurrence());
+
+		Expenses added = eService.addExpense(forged(categoryId, 1L));
+		List<BulkRowResult> bulk = eService.addExpensesBulk(List.of(forged(categoryId, 2L)));
+
+		assertEquals(0, jdbc.queryForObject("select count(*) from expenses where id in (?, ?) and "
+				+ "(recurring_id is not null or occurrence is not null)", Integer.class, added.getId(), bulk.get(0).getId()));
+	}
+
+	@Test
+	void ruleThatCannotBeAddedIsSkippedAndTheRunGoesOn() {
+		Long categoryId = categoryId();
+		LocalDate start = LocalDate.of(2026, 1, 10);
+		RecurringExpenses blocked = rService.addRecurring(rule(categoryId, start));
+		RecurringExpenses second = rService.addRecurring(rule(categoryId, start));
+		RecurringExpenses third = rService.addRecurring(rule(categoryId, start));
+		//An occurrence already taken, as a forged row from before the fields were read only would be
+		jdbc.update("insert into expenses (userid, category_id, amount, date, recurring_id, occurrence) "
+				+ "values (?, ?, 1, '2026-01-10 00:00:00', ?, '2026-01-10')", USER, categoryId, blocked.getId());
+
+		//The blocked rule shares the first chunk with second; third comes in the chunk after
+		assertEquals(6, rService.materializeDue(LocalDate.of(2026, 3, 15)));
+
+		assertEquals(start, rRepo.findById(blocked.getId()).get().getNextDue());
+		assertEquals(LocalDate.of(2026, 4, 10), rRepo.findById(second.getId()).get().getNextDue());
+		assertEquals(LocalDate.of(2026, 4, 10), rRepo.findById(third.getId()).get().getNextDue());
+		assertEquals(3, occurrences(second));
+		assertEquals(3, occurrences(third));
+		assertEquals(1, occurrences(blocked));
+	}
+
+	private Long categoryId() {
+		return jdbc.queryForObject("select min(id) from categories where userid = ?", Long.class, USER);
+	}
+
+	private int occurrences(RecurringExpenses rule) {
+		return jdbc.queryForObject("select count(*) from expenses where recurring_id = ?", Integer.class, rule.getId());
+	}
+
+	private static Expenses forged(Long categoryId, long recurringId) {
+		Expenses expense = new Expenses();
+		expense.setUserid(USER);
+		expense.setCategoryId(categoryId);
+		expense.setAmount(new BigDecimal("12.50"));
+		expense.setDate(LocalDate.of(2026, 3, 1).atStartOfDay());
+		expense.setRecurringId(recurringId);
+		expense.setOccurrence(LocalDate.of(2026, 3, 1));
+		return expense;
+	}
+
+	private static RecurringExpenses rule(Long categoryId, LocalDate start) {
+		RecurringExpenses rule = new RecurringExpenses();
+		rule.setUserid(USER);
+		rule.setCategoryId(categoryId);
+		rule.setAmount(new BigDecimal("100.00"));
+		rule.setStartDate(start);
+		rule.setIntervalMonths(1);
+		rule.setNotes("rent");
+		return rule;
+	}
+}
@@ -27,18 +27,35 @@ CREATE TABLE `budgets` (
   `userid` varchar(255) NOT NULL,
   `category_id` bigint unsigned NOT NULL,
   `month` varchar(255) DEFAULT NULL,
+  `month_key` int NOT NULL,
   `amount` decimal(38,2) DEFAULT NULL,
+  `carried_over` decimal(38,2) NOT NULL DEFAULT '0.00',
   `rollover_enabled` tinyint(1) DEFAULT '0',
   `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
   `currency` varchar(255) DEFAULT NULL,
   PRIMARY KEY (`id`),
-  UNIQUE KEY `idx_budgets_user_category_month` (`userid`,`category_id`,`month`),
+  UNIQUE KEY `idx_budgets_user_month_category` (`userid`,`month_key`,`category_id`),
   KEY `fk_budget_category` (`category_id`),
   CONSTRAINT `fk_budget_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_budget_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=25 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `budget_rollover_checkpoint`
+--
+
+DROP TABLE IF EXISTS `budget_rollover_checkpoint`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `budget_rollover_checkpoint` (
+  `month_key` int NOT NULL,
+  `userid` varchar(255) NOT NULL,
+  `processed_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`month_key`,`userid`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `categories`
 --
@@ -76,14 +93,104 @@ CREATE TABLE `expenses` (
   `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   `is_recurring` tinyint(1) DEFAULT '0',
+  `recurring_id` bigint unsigned DEFAULT NULL,
+  `occurrence` date DEFAULT NULL,
   PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_expenses_recurring_occurrence` (`recurring_id`,`occurrence`),
   KEY `idx_expenses_user_date` (`userid`,`date`),
+  KEY `idx_expenses_user_category_date` (`userid`,`category_id`,`date`),
+  KEY `idx_expenses_user_method_date` (`userid`,`payment_method`,`date`),
   KEY `idx_expenses_category` (`category_id`),
   CONSTRAINT `fk_expense_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_expense_recurring` FOREIGN KEY (`recurring_id`) REFERENCES `recurring_expenses` (`id`) ON DELETE SET NULL,
   CONSTRAINT `fk_expense_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=33 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `expense_monthly_rollup`
+--
+
+DROP TABLE IF EXISTS `expense_monthly_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `expense_monthly_rollup` (
+  `userid` varchar(255) NOT NULL,
+  `month_key` int NOT NULL,
+  `category_id` bigint unsigned NOT NULL,
+  `payment_method` varchar(255) NOT NULL DEFAULT '',
+  `currency` varchar(255) NOT NULL DEFAULT '',
+  `total_amount` decimal(38,2) NOT NULL DEFAULT '0.00',
+  `expense_count` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`userid`,`month_key`,`category_id`,`payment_method`,`currency`),
+  CONSTRAINT `fk_rollup_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_rollup_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `expense_tags`
+--
+
+DROP TABLE IF EXISTS `expense_tags`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `expense_tags` (
+  `expense_id` bigint unsigned NOT NULL,
+  `tag_id` bigint unsigned NOT NULL,
+  PRIMARY KEY (`expense_id`,`tag_id`),
+  KEY `idx_expense_tags_tag` (`tag_id`),
+  CONSTRAINT `fk_expense_tag_expense` FOREIGN KEY (`expense_id`) REFERENCES `expenses` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_expense_tag_tag` FOREIGN KEY (`tag_id`) REFERENCES `tags` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `fx_rates`
+--
+
+DROP TABLE IF EXISTS `fx_rates`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `fx_rates` (
+  `currency` varchar(3) NOT NULL,
+  `rate_date` date NOT NULL,
+  `units_per_base` decimal(20,8) NOT NULL,
+  PRIMARY KEY (`currency`,`rate_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `recurring_expenses`
+--
+
+DROP TABLE IF EXISTS `recurring_expenses`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `recurring_expenses` (
+  `id` bigint unsigned NOT NULL AUTO_INCREMENT,
+  `userid` varchar(255) NOT NULL,
+  `category_id` bigint unsigned NOT NULL,
+  `amount` decimal(38,2) NOT NULL,
+  `currency` varchar(255) DEFAULT NULL,
+  `payment_method` varchar(255) DEFAULT NULL,
+  `notes` varchar(255) DEFAULT NULL,
+  `interval_months` int NOT NULL DEFAULT '1',
+  `day_of_month` int NOT NULL,
+  `start_date` date NOT NULL,
+  `end_date` date DEFAULT NULL,
+  `next_due` date DEFAULT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_recurring_next_due` (`next_due`),
+  KEY `idx_recurring_user` (`userid`),
+  KEY `fk_recurring_category` (`category_id`),
+  CONSTRAINT `fk_recurring_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_recurring_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `roles`
 --
@@ -98,6 +205,25 @@ CREATE TABLE `roles` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
+--
+-- Table structure for table `tags`
+--
+
+DROP TABLE IF EXISTS `tags`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `tags` (
+  `id` bigint unsigned NOT NULL AUTO_INCREMENT,
+  `userid` varchar(255) NOT NULL,
+  `name` varchar(64) NOT NULL,
+  `color_code` varchar(255) DEFAULT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_tags_user_name` (`userid`,`name`),
+  CONSTRAINT `fk_tag_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `users`
 --
@@ -0,0 +1,27 @@
+-- Monthly expense rollup: per user, month, category and payment method sums,
+-- kept in step with every expense write from then on. Run once against an
+-- existing database with the application stopped, so no write lands between
+-- the backfill and startup, and before 006_fx_rates.sql, which adds the
+-- currency to it. SampadaDB.sql already has the current shape.
+
+CREATE TABLE IF NOT EXISTS `expense_monthly_rollup` (
+  `userid` varchar(255) NOT NULL,
+  `month_key` int NOT NULL,
+  `category_id` bigint unsigned NOT NULL,
+  `payment_method` varchar(255) NOT NULL DEFAULT '',
+  `total_amount` decimal(38,2) NOT NULL DEFAULT '0.00',
+  `expense_count` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`userid`,`month_key`,`category_id`,`payment_method`),
+  CONSTRAINT `fk_rollup_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_rollup_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill from the expenses already there; expenses without a user or date are not rolled up
+DELETE FROM `expense_monthly_rollup`;
+INSERT INTO `expense_monthly_rollup`
+       (`userid`, `month_key`, `category_id`, `payment_method`, `total_amount`, `expense_count`)
+SELECT `userid`, YEAR(`date`) * 100 + MONTH(`date`), `category_id`, COALESCE(`payment_method`, ''),
+       COALESCE(SUM(`amount`), 0), COUNT(*)
+  FROM `expenses`
+ WHERE `userid` IS NOT NULL AND `date` IS NOT NULL
+ GROUP BY `userid`, YEAR(`date`) * 100 + MONTH(`date`), `category_id`, COALESCE(`payment_method`, '');
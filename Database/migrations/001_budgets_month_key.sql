@@ -0,0 +1,21 @@
+-- Typed budget month: month_key holds yyyymm next to the "MMMM yyyy" label,
+-- and the unique key moves onto it so month ranges are index range scans.
+-- Run once against an existing database; SampadaDB.sql already has the new shape.
+
+ALTER TABLE `budgets` ADD COLUMN `month_key` int DEFAULT NULL AFTER `month`;
+
+-- Labels were always written in English
+SET lc_time_names = 'en_US';
+UPDATE `budgets`
+   SET `month_key` = CAST(DATE_FORMAT(STR_TO_DATE(CONCAT('1 ', `month`), '%e %M %Y'), '%Y%m') AS UNSIGNED)
+ WHERE `month_key` IS NULL;
+
+-- A label that is not a month leaves month_key NULL, and this fails with "Invalid use of NULL value",
+-- stopping the script before the unique key moves. Strict mode makes sure it fails rather than storing 0.
+-- Fix those rows (SELECT `id`, `userid`, `month` FROM `budgets` WHERE `month_key` IS NULL) and run from here.
+SET SESSION sql_mode = CONCAT(@@SESSION.sql_mode, ',STRICT_ALL_TABLES');
+ALTER TABLE `budgets` MODIFY COLUMN `month_key` int NOT NULL;
+
+ALTER TABLE `budgets`
+  DROP INDEX `idx_budgets_user_category_month`,
+  ADD UNIQUE KEY `idx_budgets_user_month_category` (`userid`,`month_key`,`category_id`);
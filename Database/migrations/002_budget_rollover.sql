@@ -0,0 +1,11 @@
+-- Month-end budget rollover: the carried part of each budget, and the
+-- per-user checkpoints that let an interrupted month close resume.
+
+ALTER TABLE `budgets` ADD COLUMN `carried_over` decimal(38,2) NOT NULL DEFAULT '0.00' AFTER `amount`;
+
+CREATE TABLE IF NOT EXISTS `budget_rollover_checkpoint` (
+  `month_key` int NOT NULL,
+  `userid` varchar(255) NOT NULL,
+  `processed_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`month_key`,`userid`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,31 @@
+-- Recurring expenses: the rules, and the link from each generated expense
+-- back to its rule and occurrence. The unique key makes a replayed run a no-op.
+
+CREATE TABLE IF NOT EXISTS `recurring_expenses` (
+  `id` bigint unsigned NOT NULL AUTO_INCREMENT,
+  `userid` varchar(255) NOT NULL,
+  `category_id` bigint unsigned NOT NULL,
+  `amount` decimal(38,2) NOT NULL,
+  `currency` varchar(255) DEFAULT NULL,
+  `payment_method` varchar(255) DEFAULT NULL,
+  `notes` varchar(255) DEFAULT NULL,
+  `interval_months` int NOT NULL DEFAULT '1',
+  `day_of_month` int NOT NULL,
+  `start_date` date NOT NULL,
+  `end_date` date DEFAULT NULL,
+  `next_due` date DEFAULT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_recurring_next_due` (`next_due`),
+  KEY `idx_recurring_user` (`userid`),
+  KEY `fk_recurring_category` (`category_id`),
+  CONSTRAINT `fk_recurring_category` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_recurring_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+ALTER TABLE `expenses`
+  ADD COLUMN `recurring_id` bigint unsigned DEFAULT NULL AFTER `is_recurring`,
+  ADD COLUMN `occurrence` date DEFAULT NULL AFTER `recurring_id`,
+  ADD UNIQUE KEY `idx_expenses_recurring_occurrence` (`recurring_id`,`occurrence`),
+  ADD CONSTRAINT `fk_expense_recurring` FOREIGN KEY (`recurring_id`) REFERENCES `recurring_expenses` (`id`) ON DELETE SET NULL;
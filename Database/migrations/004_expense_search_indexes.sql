@@ -0,0 +1,8 @@
+-- Composite indexes for /expenses/search. Every search is one user's expenses
+-- newest first, so each index ends in date: a category or payment method
+-- filter then reads its rows in order and stops at the page size. Searches
+-- without either keep using idx_expenses_user_date.
+
+ALTER TABLE `expenses`
+  ADD KEY `idx_expenses_user_category_date` (`userid`,`category_id`,`date`),
+  ADD KEY `idx_expenses_user_method_date` (`userid`,`payment_method`,`date`);
@@ -0,0 +1,23 @@
+-- Tags and the expense to tag links. Both cascade, so deleting a tag or an
+-- expense takes its links with it. The primary key serves lookups by
+-- expense, idx_expense_tags_tag those by tag.
+
+CREATE TABLE IF NOT EXISTS `tags` (
+  `id` bigint unsigned NOT NULL AUTO_INCREMENT,
+  `userid` varchar(255) NOT NULL,
+  `name` varchar(64) NOT NULL,
+  `color_code` varchar(255) DEFAULT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_tags_user_name` (`userid`,`name`),
+  CONSTRAINT `fk_tag_user` FOREIGN KEY (`userid`) REFERENCES `users` (`userid`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `expense_tags` (
+  `expense_id` bigint unsigned NOT NULL,
+  `tag_id` bigint unsigned NOT NULL,
+  PRIMARY KEY (`expense_id`,`tag_id`),
+  KEY `idx_expense_tags_tag` (`tag_id`),
+  CONSTRAINT `fk_expense_tag_expense` FOREIGN KEY (`expense_id`) REFERENCES `expenses` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_expense_tag_tag` FOREIGN KEY (`tag_id`) REFERENCES `tags` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,28 @@
+-- Daily exchange rates, and the currency as part of the monthly rollup key so
+-- totals can be converted per currency. A rate is units of the currency per
+-- one unit of the base currency (fx.base-currency); the app loads them from
+-- fx.rates.file, so the table may start empty.
+
+CREATE TABLE IF NOT EXISTS `fx_rates` (
+  `currency` varchar(3) NOT NULL,
+  `rate_date` date NOT NULL,
+  `units_per_base` decimal(20,8) NOT NULL,
+  PRIMARY KEY (`currency`,`rate_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Empty string is an expense without a currency, which counts as the user's default
+ALTER TABLE `expense_monthly_rollup`
+  ADD COLUMN `currency` varchar(255) NOT NULL DEFAULT '' AFTER `payment_method`,
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`userid`,`month_key`,`category_id`,`payment_method`,`currency`);
+
+-- Existing rows carry every currency under '', so recompute them
+DELETE FROM `expense_monthly_rollup`;
+INSERT INTO `expense_monthly_rollup`
+       (`userid`, `month_key`, `category_id`, `payment_method`, `currency`, `total_amount`, `expense_count`)
+SELECT `userid`, YEAR(`date`) * 100 + MONTH(`date`), `category_id`, COALESCE(`payment_method`, ''),
+       COALESCE(`currency`, ''), COALESCE(SUM(`amount`), 0), COUNT(*)
+  FROM `expenses`
+ WHERE `userid` IS NOT NULL AND `date` IS NOT NULL
+ GROUP BY `userid`, YEAR(`date`) * 100 + MONTH(`date`), `category_id`, COALESCE(`payment_method`, ''),
+       COALESCE(`currency`, '');